@@ -0,0 +1,106 @@
+package com.example.cardapp.reactive;
+
+import com.example.cardapp.audit.AuditLog;
+import com.example.cardapp.audit.AuditRecordType;
+import com.example.cardapp.dto.LoginRequest;
+import com.example.cardapp.security.BearerTokenAuthenticator;
+import com.example.cardapp.security.LoginThrottle;
+import com.example.cardapp.security.WarmupTraffic;
+import com.example.cardapp.service.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Reactive handler for authentication-related operations, the counterpart of AuthController.
+ */
+@Component
+public class AuthHandler {
+
+    private final TokenService tokenService;
+    private final BearerTokenAuthenticator authenticator;
+    private final HandlerSupport support;
+    private final AuditLog auditLog;
+    private final LoginThrottle loginThrottle;
+    private final WarmupTraffic warmupTraffic;
+
+    @Autowired
+    AuthHandler(TokenService tokenService, BearerTokenAuthenticator authenticator, HandlerSupport support, AuditLog auditLog,
+                LoginThrottle loginThrottle, WarmupTraffic warmupTraffic) {
+        this.tokenService = tokenService;
+        this.authenticator = authenticator;
+        this.support = support;
+        this.auditLog = auditLog;
+        this.loginThrottle = loginThrottle;
+        this.warmupTraffic = warmupTraffic;
+    }
+
+    /**
+     * POST /api/auth/login: authenticates the user with provided credentials and returns a time-based token.
+     * The outcome is recorded in the audit log with the client address. After too many failed logins for the
+     * user id or from the client address, logins are refused by the LoginThrottle before the credentials are checked.
+     * Warm-up logins bypass the LoginThrottle and are neither audited nor recorded in the TokenSessionRegistry.
+     *
+     * @param request The request carrying a LoginRequest.
+     * @return The token, or an ErrorResponse (400 Bad Request, 401 Unauthorized, 429 Too Many Requests with Retry-After).
+     */
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return support.body(request, LoginRequest.class)
+                .flatMap(login -> {
+                    String clientAddress = clientAddress(request);
+                    boolean warmup = warmupTraffic.isWarmup(request.headers().firstHeader(WarmupTraffic.HEADER));
+                    // Warm-up logins are never throttled, so clients failing logins during startup cannot cut the warm-up short
+                    long retryAfter = warmup ? 0 : loginThrottle.retryAfterSeconds(login.getUserId(), clientAddress);
+                    if (retryAfter > 0) {
+                        auditLog.record(AuditRecordType.LOGIN_THROTTLED, login.getUserId(), clientAddress);
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+                        return support.error(HttpStatus.TOO_MANY_REQUESTS,
+                                "Too many failed logins. Try again in " + retryAfter + " seconds.", request, headers);
+                    }
+                    try {
+                        String token = tokenService.generateToken(login.getUserId(), login.getPassword());
+                        if (!warmup) {
+                            authenticator.loggedIn(token, login.getUserId());
+                            auditLog.record(AuditRecordType.LOGIN_SUCCEEDED, login.getUserId(), clientAddress);
+                        }
+                        return ServerResponse.ok().bodyValue(Collections.singletonMap("token", token));
+                    } catch (IllegalArgumentException ex) {
+                        if (!warmup) {
+                            loginThrottle.loginFailed(login.getUserId(), clientAddress);
+                            auditLog.record(AuditRecordType.LOGIN_FAILED, login.getUserId(), clientAddress);
+                        }
+                        return support.error(HttpStatus.UNAUTHORIZED, ex.getMessage(), request);
+                    }
+                })
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * POST /api/auth/logout: revokes the request's bearer token on every node. Static tokens cannot be logged out.
+     *
+     * @param request The authenticated request.
+     * @return An empty 204 No Content response, or an ErrorResponse (400 Bad Request) for a static token.
+     */
+    public Mono<ServerResponse> logout(ServerRequest request) {
+        return Mono.deferContextual(context -> {
+            if (!authenticator.logout(request.headers().firstHeader(HttpHeaders.AUTHORIZATION), ReactiveAuthContext.getCurrentUser(context))) {
+                return support.error(HttpStatus.BAD_REQUEST, "Static tokens cannot be logged out.", request);
+            }
+            return ServerResponse.noContent().build();
+        });
+    }
+
+    private static String clientAddress(ServerRequest request) {
+        return request.remoteAddress()
+                .map(address -> address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString())
+                .orElse(null);
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.cardapp.reactive;
+
+import com.example.cardapp.codec.EncodedListing;
+import com.example.cardapp.codec.ListingCache;
+import com.example.cardapp.codec.ListingEncoder;
+import com.example.cardapp.dto.AmountRequest;
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.dto.ExportResult;
+import com.example.cardapp.dto.ImportResult;
+import com.example.cardapp.dto.SwipeRequest;
+import com.example.cardapp.export.CardExportFormat;
+import com.example.cardapp.export.CardExportService;
+import com.example.cardapp.importer.CardImportFormat;
+import com.example.cardapp.importer.CardImportService;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.product.CardProducts;
+import com.example.cardapp.reporting.CardAggregates;
+import com.example.cardapp.search.CardSearchIndex;
+import com.example.cardapp.security.AuthUser;
+import com.example.cardapp.service.CardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reactive handler for card operations, the counterpart of CardController with the same parameters,
+ * status codes and messages.
+ * <p>
+ * Reads of in-memory state (listings, summaries, searches, progress) run on the event loop. Service calls that
+ * write through the card store, and the import and export work, are moved to the bounded elastic scheduler so an
+ * event loop thread never waits for a store write or for disk I/O.
+ */
+@Component
+public class CardHandler {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final CardService cardService;
+    private final ListingEncoder listingEncoder;
+    private final ListingCache listingCache;
+    private final CardImportService cardImportService;
+    private final CardExportService cardExportService;
+    private final CardAggregates cardAggregates;
+    private final CardSearchIndex cardSearchIndex;
+    private final HandlerSupport support;
+    private final Path uploadDirectory;
+
+    /**
+     * @param uploadDirectory Where import uploads are staged before they are imported.
+     */
+    @Autowired
+    CardHandler(CardService cardService, ListingEncoder listingEncoder, ListingCache listingCache,
+                CardImportService cardImportService, CardExportService cardExportService, CardAggregates cardAggregates,
+                CardSearchIndex cardSearchIndex, HandlerSupport support,
+                @Value("${cards.import.error-dir:${java.io.tmpdir}/card-imports}") Path uploadDirectory) {
+        this.cardService = cardService;
+        this.listingEncoder = listingEncoder;
+        this.listingCache = listingCache;
+        this.cardImportService = cardImportService;
+        this.cardExportService = cardExportService;
+        this.cardAggregates = cardAggregates;
+        this.cardSearchIndex = cardSearchIndex;
+        this.support = support;
+        this.uploadDirectory = uploadDirectory;
+    }
+
+    /**
+     * POST /api/cards/create: validates the request against the business rules and stores the card.
+     *
+     * @param request The request carrying a CardCreationRequest.
+     * @return A success message (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> createCard(ServerRequest request) {
+        return support.body(request, CardCreationRequest.class)
+                .flatMap(creation -> ReactiveAuthContext.callAs(() -> cardService.createCard(creation))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(message -> ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue(message))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * GET /api/cards: lists the cards of a product type as JSON or card binary, optionally one page,
+     * with the same ETag, compression and listing cache as the servlet endpoint.
+     *
+     * @param request The request with cardProduct and optional page and size parameters.
+     * @return The encoded listing, 304 Not Modified, or an ErrorResponse.
+     */
+    public Mono<ServerResponse> getAllCards(ServerRequest request) {
+        CardProductType type = support.parseProduct(support.requiredParam(request, "cardProduct"));
+        if (type == null) {
+            return support.error(HttpStatus.BAD_REQUEST, "Invalid cardProduct parameter. Must be " + CardProducts.quotedNames() + ".", request);
+        }
+        Integer page = support.intParam(request, "page");
+        Integer size = support.intParam(request, "size");
+        if ((page != null && page < 0) || (size != null && (size < 1 || size > MAX_PAGE_SIZE))) {
+            return support.error(HttpStatus.BAD_REQUEST,
+                    "Invalid paging parameters. page must be 0 or greater and size between 1 and " + MAX_PAGE_SIZE + ".", request);
+        }
+
+        List<MediaType> accepted = new ArrayList<>(request.headers().accept());
+        MimeTypeUtils.sortBySpecificity(accepted);
+        MediaType format = listingEncoder.selectFormat(accepted.isEmpty() ? List.of(MediaType.ALL) : accepted);
+        if (format == null) {
+            return Mono.error(new NotAcceptableStatusException(listingEncoder.getSupportedFormats()));
+        }
+
+        int pageNumber = page != null ? page : -1;
+        int pageSize = page != null ? (size != null ? size : DEFAULT_PAGE_SIZE) : 0;
+        return Mono.deferContextual(context -> {
+                    AuthUser user = ReactiveAuthContext.getCurrentUser(context);
+                    EncodedListing listing = ReactiveAuthContext.callAs(user, () -> {
+                        cardService.checkListingAccess(type);
+                        ListingCache.Key key = new ListingCache.Key(user != null ? user.getRole() : null, type, pageNumber, pageSize, format);
+                        long version = cardService.getVersion(type);
+                        return listingCache.get(key, version, () -> {
+                            List<CardResponse> cards = page != null
+                                    ? cardService.getCards(type, pageNumber, pageSize)
+                                    : cardService.getAllCards(type);
+                            return listingEncoder.encode(cards, format, version);
+                        });
+                    });
+                    return request.checkNotModified(listingEncoder.eTag(listing.getVersion(), format))
+                            .switchIfEmpty(Mono.defer(() -> toResponse(listingEncoder.toResponse(
+                                    listing, request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING)))));
+                })
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * POST /api/cards/{cardNumber}/swipe: charges the amount against the card's current load and counts the swipe.
+     *
+     * @param request The request carrying a SwipeRequest.
+     * @return The updated CardResponse (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> swipeCard(ServerRequest request) {
+        String cardNumber = request.pathVariable("cardNumber");
+        return support.body(request, SwipeRequest.class)
+                .flatMap(swipe -> ReactiveAuthContext.callAs(() -> cardService.swipe(cardNumber, swipe.getAmount()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(card -> ServerResponse.ok().bodyValue(card))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * POST /api/cards/{cardNumber}/reload: adds the amount to a Prepaid card's load amount and current load.
+     *
+     * @param request The request carrying an AmountRequest.
+     * @return The updated CardResponse (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> reloadCard(ServerRequest request) {
+        String cardNumber = request.pathVariable("cardNumber");
+        return support.body(request, AmountRequest.class)
+                .flatMap(reload -> ReactiveAuthContext.callAs(() -> cardService.reload(cardNumber, reload.getAmount()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(card -> ServerResponse.ok().bodyValue(card))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * POST /api/cards/{cardNumber}/refund: returns the amount to the card's current load and gives back a
+     * Limited Use swipe.
+     *
+     * @param request The request carrying an AmountRequest.
+     * @return The updated CardResponse (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> refundCard(ServerRequest request) {
+        String cardNumber = request.pathVariable("cardNumber");
+        return support.body(request, AmountRequest.class)
+                .flatMap(refund -> ReactiveAuthContext.callAs(() -> cardService.refund(cardNumber, refund.getAmount()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(card -> ServerResponse.ok().bodyValue(card))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * GET /api/cards/{cardNumber}/balance: the card's balance. Runs off the event loop, as the read waits for a
+     * running update of the card.
+     *
+     * @param request The request.
+     * @return The CardBalance (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> getBalance(ServerRequest request) {
+        String cardNumber = request.pathVariable("cardNumber");
+        return ReactiveAuthContext.callAs(() -> cardService.getBalance(cardNumber))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(balance -> ServerResponse.ok().bodyValue(balance))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * GET /api/cards/summary: totals of a card product type per card creator.
+     *
+     * @param request The request with cardProduct and an optional cardCreator parameter.
+     * @return The CardSummary (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> getSummary(ServerRequest request) {
+        CardProductType type = support.parseProduct(support.requiredParam(request, "cardProduct"));
+        if (type == null) {
+            return support.error(HttpStatus.BAD_REQUEST, "Invalid cardProduct parameter. Must be " + CardProducts.quotedNames() + ".", request);
+        }
+        String cardCreator = request.queryParam("cardCreator").orElse(null);
+        return ReactiveAuthContext.callAs(() -> {
+                    cardService.checkListingAccess(type);
+                    return cardAggregates.summarize(type, cardCreator);
+                })
+                .flatMap(summary -> ServerResponse.ok().bodyValue(summary))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * GET /api/cards/search: cards whose title or description words start with every word of the query.
+     *
+     * @param request The request with cardProduct, q and an optional limit parameter.
+     * @return The matching cards, best first (200 OK), or an ErrorResponse.
+     */
+    public Mono<ServerResponse> searchCards(ServerRequest request) {
+        CardProductType type = support.parseProduct(support.requiredParam(request, "cardProduct"));
+        if (type == null) {
+            return support.error(HttpStatus.BAD_REQUEST, "Invalid cardProduct parameter. Must be " + CardProducts.quotedNames() + ".", request);
+        }
+        String q = support.requiredParam(request, "q");
+        Integer limitParam = support.intParam(request, "limit");
+        int limit = limitParam != null ? limitParam : DEFAULT_PAGE_SIZE;
+        if (q.chars().noneMatch(Character::isLetterOrDigit) || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return support.error(HttpStatus.BAD_REQUEST,
+                    "Invalid search parameters. q must contain a letter or digit and limit be between 1 and " + MAX_PAGE_SIZE + ".", request);
+        }
+        return ReactiveAuthContext.callAs(() -> {
+                    cardService.checkListingAccess(type);
+                    return cardSearchIndex.search(type, q, limit);
+                })
+                .flatMap(cards -> ServerResponse.ok().bodyValue(cards))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * POST /api/cards/import: imports a CSV or NDJSON upload.
+     * The upload is first written to a file without blocking, then imported from the file on the bounded
+     * elastic scheduler, so neither the event loop nor the heap holds the whole upload.
+     *
+     * @param request The request with a text/csv or application/x-ndjson body.
+     * @return The ImportResult (200 OK) or an ErrorResponse.
+     */
+    public Mono<ServerResponse> importCards(ServerRequest request) {
+        CardImportFormat format = CardImportFormat.fromContentType(request.headers().contentType().orElseThrow());
+        Path upload = uploadDirectory.resolve("upload-" + UUID.randomUUID() + ".tmp");
+        Flux<DataBuffer> body = request.bodyToFlux(DataBuffer.class);
+        return Mono.fromCallable(() -> Files.createDirectories(uploadDirectory))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(DataBufferUtils.write(body, upload))
+                .then(ReactiveAuthContext.callAs(() -> importFile(upload, format)).subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(result -> ServerResponse.ok().bodyValue(result))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request))
+                .doFinally(signal -> Schedulers.boundedElastic().schedule(() -> deleteQuietly(upload)));
+    }
+
+    /**
+     * GET /api/cards/import: the current user's running and recently finished imports.
+     *
+     * @param request The request.
+     * @return The user's recent ImportResults, oldest first.
+     */
+    public Mono<ServerResponse> getImports(ServerRequest request) {
+        return ReactiveAuthContext.callAs(cardImportService::getRecentImports)
+                .flatMap(imports -> ServerResponse.ok().bodyValue(imports));
+    }
+
+    /**
+     * GET /api/cards/import/{importId}: the progress or outcome of one of the current user's imports.
+     * Another user's import is reported as not found.
+     *
+     * @param request The request.
+     * @return The ImportResult (200 OK) or an ErrorResponse (404 Not Found).
+     */
+    public Mono<ServerResponse> getImport(ServerRequest request) {
+        String importId = request.pathVariable("importId");
+        return ReactiveAuthContext.callAs(() -> cardImportService.getProgress(importId))
+                .flatMap(result -> ServerResponse.ok().bodyValue(result))
+                .switchIfEmpty(Mono.defer(() -> support.error(HttpStatus.NOT_FOUND, "Not Found: Import not found.", request)));
+    }
+
+    /**
+     * POST /api/cards/export: starts a background export of all cards of a product type.
+     *
+     * @param request The request with cardProduct and an optional format parameter.
+     * @return The ExportResult (202 Accepted) with the export's Location, or an ErrorResponse.
+     */
+    public Mono<ServerResponse> startExport(ServerRequest request) {
+        CardProductType type = support.parseProduct(support.requiredParam(request, "cardProduct"));
+        CardExportFormat exportFormat = parseExportFormat(request.queryParam("format").orElse("NDJSON"));
+        if (type == null || exportFormat == null) {
+            return support.error(HttpStatus.BAD_REQUEST,
+                    "Invalid export parameters. cardProduct must be " + CardProducts.quotedNames() + " and format 'NDJSON' or 'BINARY'.", request);
+        }
+        return ReactiveAuthContext.callAs(() -> {
+                    cardService.checkListingAccess(type);
+                    return cardExportService.startExport(type, exportFormat);
+                })
+                .flatMap(result -> ServerResponse.accepted()
+                        .location(URI.create("/api/cards/export/" + result.getExportId()))
+                        .bodyValue(result))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * GET /api/cards/export/{exportId}: the progress or outcome of an export.
+     *
+     * @param request The request.
+     * @return The ExportResult (200 OK) or an ErrorResponse (404 Not Found).
+     */
+    public Mono<ServerResponse> getExport(ServerRequest request) {
+        ExportResult result = cardExportService.getExport(request.pathVariable("exportId"));
+        return ReactiveAuthContext.callAs(() -> {
+                    if (result == null) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Export not found.");
+                    }
+                    cardService.checkListingAccess(result.getCardProduct());
+                    return result;
+                })
+                .flatMap(export -> ServerResponse.ok().bodyValue(export))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    /**
+     * GET /api/cards/export/{exportId}/file: downloads a completed export.
+     * The file is written by Reactor Netty with zero-copy transfer, and a single Range is honoured so downloads can resume.
+     *
+     * @param request The request.
+     * @return The file, or an ErrorResponse (404 Not Found, or 409 Conflict if the export is not completed).
+     */
+    public Mono<ServerResponse> downloadExport(ServerRequest request) {
+        String exportId = request.pathVariable("exportId");
+        ExportResult result = cardExportService.getExport(exportId);
+        Path file = cardExportService.getExportFile(exportId);
+        return ReactiveAuthContext.callAs(() -> {
+                    if (result == null) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Export not found.");
+                    }
+                    cardService.checkListingAccess(result.getCardProduct());
+                    if (file == null) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT, "Export is " + result.getStatus() + ", no file to download.");
+                    }
+                    return CardExportFormat.valueOf(result.getFormat());
+                })
+                .flatMap(format -> ServerResponse.ok()
+                        .contentType(format.getMediaType())
+                        .eTag("\"" + exportId + "\"")
+                        .body(BodyInserters.fromResource(new FileSystemResource(file))))
+                .onErrorResume(ResponseStatusException.class, ex -> support.error(ex, request));
+    }
+
+    private ImportResult importFile(Path upload, CardImportFormat format) {
+        try (InputStream in = Files.newInputStream(upload)) {
+            return cardImportService.importCards(in, format);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static CardExportFormat parseExportFormat(String format) {
+        try {
+            return CardExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Mono<ServerResponse> toResponse(ResponseEntity<byte[]> entity) {
+        return ServerResponse.status(entity.getStatusCode())
+                .headers(headers -> headers.addAll(entity.getHeaders()))
+                .bodyValue(entity.getBody());
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Staged uploads are in the temporary directory and do not affect later imports
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.cardapp.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional routes of the reactive card API, the same paths and methods as AuthController and CardController.
+ * Authentication is handled by ReactiveAuthFilter.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CardRoutes {
+
+    /**
+     * @param authHandler The handler of /api/auth.
+     * @param cardHandler The handler of /api/cards.
+     * @return The routes.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> cardApiRoutes(AuthHandler authHandler, CardHandler cardHandler) {
+        return route()
+                .POST("/api/auth/login", authHandler::login)
+                .POST("/api/auth/logout", authHandler::logout)
+                .path("/api/cards", cards -> cards
+                        .POST("/create", cardHandler::createCard)
+                        .GET("", cardHandler::getAllCards)
+                        .GET("/summary", cardHandler::getSummary)
+                        .GET("/search", cardHandler::searchCards)
+                        .POST("/import", contentType(MediaType.parseMediaType("text/csv"), MediaType.parseMediaType("application/x-ndjson")),
+                                cardHandler::importCards)
+                        .GET("/import", cardHandler::getImports)
+                        .GET("/import/{importId}", cardHandler::getImport)
+                        .POST("/export", cardHandler::startExport)
+                        .GET("/export/{exportId}", cardHandler::getExport)
+                        .GET("/export/{exportId}/file", cardHandler::downloadExport)
+                        .POST("/{cardNumber}/swipe", cardHandler::swipeCard)
+                        .POST("/{cardNumber}/reload", cardHandler::reloadCard)
+                        .POST("/{cardNumber}/refund", cardHandler::refundCard)
+                        .GET("/{cardNumber}/balance", cardHandler::getBalance))
+                .build();
+    }
+}
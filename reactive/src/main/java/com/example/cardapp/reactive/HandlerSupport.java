@@ -0,0 +1,149 @@
+package com.example.cardapp.reactive;
+
+import com.example.cardapp.dto.ErrorResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.service.CoarseClock;
+import com.example.cardapp.validation.CardRequestValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Request reading and error responses shared by the reactive handlers, matching what the servlet
+ * controllers get from @Valid, @RequestParam and their ResponseStatusException handling.
+ */
+@Component
+class HandlerSupport {
+
+    private final CardRequestValidator requestValidator;
+    private final Validator validator;
+    private final CoarseClock clock;
+
+    @Autowired
+    HandlerSupport(CardRequestValidator requestValidator, Validator validator, CoarseClock clock) {
+        this.requestValidator = requestValidator;
+        this.validator = validator;
+        this.clock = clock;
+    }
+
+    /**
+     * Reads and validates a JSON request body, with CardRequestValidator where it supports the type.
+     *
+     * @param request The request.
+     * @param type The body type.
+     * @return The body, or an error: ServerWebInputException (400) if it is missing or unreadable,
+     *         ResponseStatusException (400) with the "Validation Error: " message if a constraint is violated.
+     */
+    <T> Mono<T> body(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Required request body is missing")))
+                .flatMap(body -> {
+                    if (requestValidator.supports(type)) {
+                        List<CardRequestValidator.Violation> violations = requestValidator.validate(body);
+                        return violations.isEmpty()
+                                ? Mono.just(body)
+                                : Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, CardRequestValidator.validationError(violations)));
+                    }
+                    Set<ConstraintViolation<T>> violations = validator.validate(body);
+                    if (violations.isEmpty()) {
+                        return Mono.just(body);
+                    }
+                    String errorMessage = violations.stream()
+                            .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                            .map(ConstraintViolation::getMessage)
+                            .collect(Collectors.joining("; "));
+                    return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Validation Error: " + errorMessage));
+                });
+    }
+
+    /**
+     * @param request The request.
+     * @param name The query parameter name.
+     * @return The parameter's value.
+     * @throws ServerWebInputException if the parameter is missing.
+     */
+    String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required query parameter '" + name + "' is not present."));
+    }
+
+    /**
+     * @param request The request.
+     * @param name The query parameter name.
+     * @return The parameter's integer value, or null if the parameter is missing.
+     * @throws ServerWebInputException if the parameter is not an integer.
+     */
+    Integer intParam(ServerRequest request, String name) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new ServerWebInputException("Query parameter '" + name + "' must be an integer.");
+        }
+    }
+
+    /**
+     * @param cardProduct The cardProduct parameter.
+     * @return The product type, or null if the parameter is not a product type.
+     */
+    CardProductType parseProduct(String cardProduct) {
+        try {
+            return CardProductType.valueOf(cardProduct.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param ex A ResponseStatusException thrown by a service.
+     * @param request The request.
+     * @return The ErrorResponse with the exception's status and reason.
+     */
+    Mono<ServerResponse> error(ResponseStatusException ex, ServerRequest request) {
+        return error(HttpStatus.valueOf(ex.getStatusCode().value()), ex.getReason(), request);
+    }
+
+    /**
+     * @param status The response status.
+     * @param message The error message.
+     * @param request The request.
+     * @return The ErrorResponse.
+     */
+    Mono<ServerResponse> error(HttpStatus status, String message, ServerRequest request) {
+        return error(status, message, request, HttpHeaders.EMPTY);
+    }
+
+    /**
+     * @param status The response status.
+     * @param message The error message.
+     * @param request The request.
+     * @param headers Headers to add to the response, e.g. Retry-After.
+     * @return The ErrorResponse.
+     */
+    Mono<ServerResponse> error(HttpStatus status, String message, ServerRequest request, HttpHeaders headers) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                clock.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.path()
+        );
+        return ServerResponse.status(status).headers(responseHeaders -> responseHeaders.addAll(headers)).bodyValue(errorResponse);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cardapp.reactive;
+
+import com.example.cardapp.security.AuthContext;
+import com.example.cardapp.security.AuthUser;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Supplier;
+
+/**
+ * The authenticated user of a reactive request, carried in the Reactor context instead of AuthContext's
+ * ThreadLocal: a reactive request hops between threads, and a thread serves many requests at once.
+ * <p>
+ * The services read the user from AuthContext, so handlers call them through callAs, which sets the
+ * ThreadLocal only for the duration of one synchronous service call on the current thread.
+ */
+public final class ReactiveAuthContext {
+
+    private static final Class<AuthUser> KEY = AuthUser.class;
+
+    private ReactiveAuthContext() {
+    }
+
+    /**
+     * @param context The Reactor context of the request.
+     * @param user The authenticated user.
+     * @return The context with the user stored in it.
+     */
+    public static Context withUser(Context context, AuthUser user) {
+        return context.put(KEY, user);
+    }
+
+    /**
+     * @param context The Reactor context of the request.
+     * @return The authenticated user, or null for unauthenticated requests such as login.
+     */
+    public static AuthUser getCurrentUser(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+
+    /**
+     * Emits the result of a service call made as the request's user.
+     *
+     * @param call The synchronous service call, returning null for an empty Mono.
+     * @return A Mono running the call on subscription, on the subscribing thread.
+     */
+    public static <T> Mono<T> callAs(Supplier<T> call) {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(callAs(getCurrentUser(context), call)));
+    }
+
+    /**
+     * Runs a synchronous service call with the user set in AuthContext, and clears it afterwards.
+     *
+     * @param user The user to call as, may be null.
+     * @param call The synchronous service call.
+     * @return The call's result.
+     */
+    public static <T> T callAs(AuthUser user, Supplier<T> call) {
+        AuthContext.setCurrentUser(user);
+        try {
+            return call.get();
+        } finally {
+            AuthContext.clear();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.cardapp.reactive;
+
+import com.example.cardapp.security.BearerTokenAuthenticator;
+import com.example.cardapp.security.WarmupTraffic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFilter equivalent of AuthInterceptor for the reactive stack.
+ * Authenticates every /api request except login with the BearerTokenAuthenticator and stores the user in
+ * the Reactor context of the rest of the chain, see ReactiveAuthContext.
+ */
+@Component
+public class ReactiveAuthFilter implements WebFilter {
+
+    private final BearerTokenAuthenticator authenticator;
+    private final WarmupTraffic warmupTraffic;
+
+    /**
+     * @param authenticator The authenticator validating static and time-based tokens.
+     * @param warmupTraffic Recognizes warm-up requests, whose rejections are not audited.
+     */
+    @Autowired
+    public ReactiveAuthFilter(BearerTokenAuthenticator authenticator, WarmupTraffic warmupTraffic) {
+        this.authenticator = authenticator;
+        this.warmupTraffic = warmupTraffic;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!path.startsWith("/api/") || path.equals("/api/auth/login")) {
+            return chain.filter(exchange);
+        }
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        BearerTokenAuthenticator.Authentication authentication = authenticator.authenticate(
+                headers.getFirst(HttpHeaders.AUTHORIZATION), path, warmupTraffic.isWarmup(headers.getFirst(WarmupTraffic.HEADER)));
+        if (!authentication.isAuthenticated()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, authentication.failure()));
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> ReactiveAuthContext.withUser(context, authentication.user()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.cardapp.reactive;
+
+import com.example.cardapp.SpringBootCardAppApplication;
+import com.example.cardapp.config.DiagnosticsConfig;
+import com.example.cardapp.config.WebConfig;
+import com.example.cardapp.controller.AuthController;
+import com.example.cardapp.controller.CardController;
+import com.example.cardapp.security.AuthInterceptor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * Main entry point for the reactive variant of the Card Application.
+ * Scans the same services, stores and codecs as SpringBootCardAppApplication, but leaves out the servlet
+ * controllers and MVC configuration; the API is served by the functional routes of CardRoutes instead.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@ComponentScan(basePackages = "com.example.cardapp",
+        excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+                @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                        SpringBootCardAppApplication.class,
+                        AuthController.class,
+                        CardController.class,
+                        AuthInterceptor.class,
+                        WebConfig.class,
+                        DiagnosticsConfig.class
+                })
+        })
+public class ReactiveCardApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveCardApplication.class);
+        // The root project brings the servlet stack onto the class path; this variant always runs on Reactor Netty
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.run(args);
+    }
+
+}
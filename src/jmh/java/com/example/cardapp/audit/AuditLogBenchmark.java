@@ -0,0 +1,123 @@
+package com.example.cardapp.audit;
+
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.service.CoarseClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures what auditing adds to a request thread, with all cores recording card creations at once.
+ * <ul>
+ *     <li>record: AuditLog.record with auditing DISABLED (the baseline), or queued for the writer thread with
+ *     the DROP or BLOCK overflow policy. With DROP the cost stays flat when the writer falls behind, and the
+ *     dropped records are printed at teardown; with BLOCK it rises to the writer's pace.</li>
+ *     <li>inlineWrite: the alternative of formatting a text line and writing it to the file from the request thread
+ *     under a lock, as a logging framework with a synchronous file appender does.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditLogBenchmark {
+
+    private static final String CREATOR = "prepaid_user";
+    private static final String CARD_NUMBER = "1234 5678 9012 3456";
+
+    @Param({"DISABLED", "DROP", "BLOCK"})
+    String mode;
+
+    private Path directory;
+    private AuditLog auditLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        CoarseClock clock = new CoarseClock(Duration.ofMillis(10));
+        AuditOverflowPolicy policy = mode.equals("BLOCK") ? AuditOverflowPolicy.BLOCK : AuditOverflowPolicy.DROP;
+        auditLog = new AuditLog(!mode.equals("DISABLED"), directory, 65536, policy, DataSize.ofMegabytes(64), 2, clock);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        auditLog.destroy();
+        System.out.printf("%n%s: %d records written, %d dropped%n", mode, auditLog.getWrittenRecords(), auditLog.getDroppedRecords());
+        deleteDirectory(directory);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void record() {
+        auditLog.cardCreated(CardProductType.PREPAID, CREATOR, CARD_NUMBER);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void inlineWrite(InlineWriter writer) throws IOException {
+        writer.write(CardProductType.PREPAID, CREATOR, CARD_NUMBER);
+    }
+
+    /**
+     * Writes one text line per record to a file, on the calling thread.
+     */
+    @State(Scope.Benchmark)
+    public static class InlineWriter {
+
+        private final Clock clock = Clock.systemUTC();
+        private Path directory;
+        private FileChannel file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("audit-inline-benchmark");
+            file = FileChannel.open(directory.resolve("audit.log"), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            file.close();
+            deleteDirectory(directory);
+        }
+
+        synchronized void write(CardProductType product, String creator, String cardNumber) throws IOException {
+            String line = Instant.now(clock) + " CARD_CREATED product=" + product + " creator=" + creator
+                    + " card=" + cardNumber + "\n";
+            ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.US_ASCII));
+            while (bytes.hasRemaining()) {
+                file.write(bytes);
+            }
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
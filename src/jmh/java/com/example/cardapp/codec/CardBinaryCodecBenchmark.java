@@ -0,0 +1,72 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares what a client pays to decode a card listing as JSON versus the card binary format.
+ * Payload sizes for both encodings are printed once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardBinaryCodecBenchmark {
+
+    private static final TypeReference<List<CardResponse>> CARD_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "1000"})
+    int cardCount;
+
+    private ObjectMapper objectMapper;
+    private CardBinaryCodec binaryCodec;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<CardResponse> cards = SampleCards.listing(cardCount);
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        binaryCodec = new CardBinaryCodec();
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new CardJsonCodec().writeCards(cards, json);
+        jsonPayload = json.toByteArray();
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        binaryCodec.writeCards(cards, binary);
+        binaryPayload = binary.toByteArray();
+
+        System.out.printf("%n%d cards: json=%d bytes, binary=%d bytes (%.1f%%)%n",
+                cardCount, jsonPayload.length, binaryPayload.length, 100.0 * binaryPayload.length / jsonPayload.length);
+    }
+
+    @Benchmark
+    public List<CardResponse> decodeJson() throws IOException {
+        return objectMapper.readValue(jsonPayload, CARD_LIST);
+    }
+
+    @Benchmark
+    public List<CardResponse> decodeBinary() throws IOException {
+        return binaryCodec.readCards(new ByteArrayInputStream(binaryPayload));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares listing serialization through Jackson databind (configured like Spring Boot's
+ * ObjectMapper) with the streaming CardJsonCodec.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardJsonCodecBenchmark {
+
+    @Param({"10", "1000"})
+    int cardCount;
+
+    private List<CardResponse> cards;
+    private ObjectMapper objectMapper;
+    private CardJsonCodec codec;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setUp() {
+        cards = SampleCards.listing(cardCount);
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        codec = new CardJsonCodec();
+        sink = new ByteArrayOutputStream(cardCount * 512);
+    }
+
+    @Benchmark
+    public int jacksonDatabind() throws IOException {
+        sink.reset();
+        objectMapper.writeValue(sink, cards);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int streamingCodec() throws IOException {
+        sink.reset();
+        codec.writeCards(cards, sink);
+        return sink.size();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic card listings shared by the codec benchmarks.
+ */
+final class SampleCards {
+
+    private static final String[] CREATORS = {"Alice Smith", "Bob Johnson", "Charlie Brown", "Diana Prince", "Eve Adams"};
+
+    private SampleCards() {
+    }
+
+    static List<CardResponse> listing(int count) {
+        Random random = new Random(42);
+        List<CardResponse> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean prepaid = i % 2 == 0;
+            double loadAmount = 5.0 * (1 + random.nextInt(100));
+            cards.add(new CardResponse(
+                    String.format("%04d %04d %04d %04d", i / 1000, i % 1000, random.nextInt(10000), random.nextInt(10000)),
+                    "Sample Card " + i,
+                    "Synthetic card number " + i + " used for codec benchmarks.",
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365),
+                    prepaid ? CardProductType.PREPAID : CardProductType.LIMITED_USE,
+                    loadAmount,
+                    prepaid || random.nextBoolean(),
+                    prepaid ? null : new Restrictions(LocalDate.of(2025, 1, 1).plusDays(i % 30), 1 + random.nextInt(20), 10.0 + random.nextInt(90)),
+                    CREATORS[i % CREATORS.length],
+                    LocalDateTime.of(2023, 12, 1, 9, 0).plusMinutes(i * 7L),
+                    loadAmount / 2,
+                    prepaid ? null : random.nextInt(10)
+            ));
+        }
+        return cards;
+    }
+}
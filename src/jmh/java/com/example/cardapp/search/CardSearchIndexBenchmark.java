@@ -0,0 +1,81 @@
+package com.example.cardapp.search;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.store.PartitionedCardStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures top-20 searches against the inverted index compared with scanning the listing,
+ * which is what clients did before the search endpoint existed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardSearchIndexBenchmark {
+
+    private static final String[] WORDS = {"travel", "gift", "shopping", "commute", "gaming", "subscription", "project",
+            "expense", "voucher", "online", "monthly", "secure", "transport", "purchase", "holiday", "fuel"};
+
+    @Param({"1000", "100000"})
+    int cardCount;
+
+    @Param({"travel gift", "tra", "s"})
+    String query;
+
+    private CardSearchIndex index;
+    private List<CardResponse> listing;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<CardResponse> cards = new ArrayList<>(cardCount);
+        for (int i = 0; i < cardCount; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " card";
+            String description = "Synthetic " + WORDS[random.nextInt(WORDS.length)] + " card " + i + " for " + WORDS[random.nextInt(WORDS.length)] + ".";
+            cards.add(new CardResponse(String.format("%04d %04d %04d 0000", i / 100000000, (i / 10000) % 10000, i % 10000),
+                    title, description, LocalDate.of(2024, 1, 1), CardProductType.PREPAID, 50.0, true, null,
+                    "Alice Smith", LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i), 50.0, null));
+        }
+        PartitionedCardStore store = new PartitionedCardStore();
+        store.saveAll(cards);
+        index = new CardSearchIndex(store);
+        index.cardsAdded(cards);
+        listing = cards;
+    }
+
+    @Benchmark
+    public List<CardResponse> invertedIndex() {
+        return index.search(CardProductType.PREPAID, query, 20);
+    }
+
+    @Benchmark
+    public List<CardResponse> listingScan() {
+        List<String> words = CardSearchIndex.tokenize(query);
+        List<CardResponse> matches = new ArrayList<>(20);
+        for (CardResponse card : listing) {
+            List<String> text = CardSearchIndex.tokenize(card.getCardTitle() + " " + card.getCardDescription());
+            if (words.stream().allMatch(word -> text.stream().anyMatch(term -> term.startsWith(word)))) {
+                matches.add(card);
+                if (matches.size() == 20) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
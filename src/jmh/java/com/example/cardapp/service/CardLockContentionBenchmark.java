@@ -0,0 +1,94 @@
+package com.example.cardapp.service;
+
+import com.example.cardapp.audit.AuditLog;
+import com.example.cardapp.audit.AuditOverflowPolicy;
+import com.example.cardapp.dto.CardBalance;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.store.PartitionedCardStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures balance updates and balance queries when all cores hit the same 1, 16 or 1024 cards.
+ * Each update is a swipe followed by a refund of the same amount, so balances stay put across iterations.
+ * stripes=1 puts every card behind one lock, i.e. a global lock around card updates, for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardLockContentionBenchmark {
+
+    @Param({"1", "16", "1024"})
+    int hotCards;
+
+    @Param({"1024", "1"})
+    int stripes;
+
+    private CardService cardService;
+    private String[] cardNumbers;
+
+    @Setup
+    public void setUp() {
+        List<CardResponse> cards = new ArrayList<>(hotCards);
+        cardNumbers = new String[hotCards];
+        for (int i = 0; i < hotCards; i++) {
+            cardNumbers[i] = String.format("%04d %04d 0000 0000", i / 10000, i % 10000);
+            cards.add(new CardResponse(cardNumbers[i], "Hot card " + i, "Contended card.", LocalDate.of(2024, 1, 1),
+                    CardProductType.PREPAID, 1_000_000.0, true, null, "Alice Smith",
+                    LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i), 500_000.0, null));
+        }
+        PartitionedCardStore store = new PartitionedCardStore();
+        store.saveAll(cards);
+        CoarseClock clock = new CoarseClock(Clock.systemDefaultZone(), Duration.ZERO);
+        AuditLog auditLog = new AuditLog(false, null, 0, AuditOverflowPolicy.DROP, DataSize.ofMegabytes(64), 1, clock);
+        cardService = new CardService(store, new CardLockTable(stripes), List.of(), clock, auditLog);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public CardResponse update() {
+        String cardNumber = nextCard();
+        cardService.swipe(cardNumber, 1.0);
+        return cardService.refund(cardNumber, 1.0);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public CardResponse mixedUpdate() {
+        String cardNumber = nextCard();
+        cardService.swipe(cardNumber, 1.0);
+        return cardService.refund(cardNumber, 1.0);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public CardBalance mixedBalance() {
+        return cardService.getBalance(nextCard());
+    }
+
+    private String nextCard() {
+        return cardNumbers[ThreadLocalRandom.current().nextInt(cardNumbers.length)];
+    }
+}
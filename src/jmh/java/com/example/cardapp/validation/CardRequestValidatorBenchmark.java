@@ -0,0 +1,146 @@
+package com.example.cardapp.validation;
+
+import com.example.cardapp.dto.AmountRequest;
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.LoginRequest;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CardRequestValidator against Hibernate Validator on a valid and an invalid card creation request.
+ * Setup first checks that both report the same violations, per property and in property order, for every
+ * combination of valid, missing and out-of-range values of the constrained fields, and fails if they differ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardRequestValidatorBenchmark {
+
+    private static final String[] TITLES = {null, "", "  ", " \t\n", "ab", "abc", "Travel Card", "x".repeat(100), "x".repeat(101)};
+    private static final String[] DESCRIPTIONS = {null, "", "          ", "too short", "Long enough description.", "d".repeat(500), "d".repeat(501)};
+    private static final LocalDate[] ACTIVATION_DATES = {null, LocalDate.now().plusDays(1)};
+    private static final CardProductType[] PRODUCTS = {null, CardProductType.PREPAID, CardProductType.LIMITED_USE};
+    private static final Double[] AMOUNTS = {null, -1.0, -0.0, 0.0, Double.MIN_VALUE, 50.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    private static final Boolean[] PROTECTION = {null, true};
+    private static final String[] CREDENTIALS = {null, "", " ", "prepaiduser"};
+
+    private final CardRequestValidator fastPath = new CardRequestValidator();
+    private ValidatorFactory validatorFactory;
+    private Validator hibernate;
+
+    private CardCreationRequest valid;
+    private CardCreationRequest invalid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        hibernate = validatorFactory.getValidator();
+        valid = new CardCreationRequest("Travel Buddy Card", "A versatile card for all your travel needs.",
+                LocalDate.now().plusDays(1), CardProductType.LIMITED_USE, 100.0, false,
+                new Restrictions(LocalDate.now().plusDays(30), 10, 20.0));
+        invalid = new CardCreationRequest("ab", "", null, CardProductType.PREPAID, -5.0, true, null);
+        checkEquivalence();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Object hibernateValid() {
+        return hibernate.validate(valid);
+    }
+
+    @Benchmark
+    public Object fastPathValid() {
+        return fastPath.validate(valid);
+    }
+
+    @Benchmark
+    public Object hibernateInvalid() {
+        return hibernate.validate(invalid);
+    }
+
+    @Benchmark
+    public Object fastPathInvalid() {
+        return fastPath.validate(invalid);
+    }
+
+    private void checkEquivalence() {
+        int checked = 0;
+        for (String title : TITLES) {
+            for (String description : DESCRIPTIONS) {
+                for (LocalDate activationDate : ACTIVATION_DATES) {
+                    for (CardProductType product : PRODUCTS) {
+                        for (Double amount : AMOUNTS) {
+                            for (Boolean protection : PROTECTION) {
+                                check(new CardCreationRequest(title, description, activationDate, product, amount, protection, null));
+                                checked++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (String userId : CREDENTIALS) {
+            for (String password : CREDENTIALS) {
+                check(new LoginRequest(userId, password));
+                checked++;
+            }
+        }
+        for (Double amount : AMOUNTS) {
+            check(new AmountRequest(amount));
+            checked++;
+        }
+        if (checked == 0) {
+            throw new IllegalStateException("No requests checked");
+        }
+    }
+
+    private <T> void check(T request) {
+        Set<ConstraintViolation<T>> expected = hibernate.validate(request);
+        List<CardRequestValidator.Violation> actual = fastPath.validate(request);
+
+        Map<String, List<String>> expectedByField = new TreeMap<>();
+        for (ConstraintViolation<T> violation : expected) {
+            expectedByField.computeIfAbsent(violation.getPropertyPath().toString(), field -> new ArrayList<>()).add(violation.getMessage());
+        }
+        Map<String, List<String>> actualByField = new TreeMap<>();
+        String previousField = "";
+        for (CardRequestValidator.Violation violation : actual) {
+            if (violation.field().compareTo(previousField) < 0) {
+                throw new IllegalStateException("Violations not in property order for " + request + ": " + actual);
+            }
+            previousField = violation.field();
+            actualByField.computeIfAbsent(violation.field(), field -> new ArrayList<>()).add(violation.message());
+        }
+        expectedByField.values().forEach(messages -> messages.sort(null));
+        actualByField.values().forEach(messages -> messages.sort(null));
+        if (!expectedByField.equals(actualByField)) {
+            throw new IllegalStateException("Validators disagree on " + request + ": bean validation " + expectedByField
+                    + ", fast path " + actualByField);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.cardapp.audit;
+
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.service.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Audit trail of logins, authentication failures and card creations, written off the request threads.
+ * <p>
+ * A request thread encodes its record into a slot of an AuditRing and returns; it never formats text, takes a lock
+ * or touches the disk. The audit-writer thread drains the ring in batches into a direct buffer and writes each batch
+ * with one FileChannel write to audit-&lt;index&gt;.log files, rolled at the file size; only the newest retained files
+ * are kept. When the ring is full the overflow policy decides whether the record is dropped and counted, or the
+ * request thread waits for the writer.
+ * <p>
+ * Records are RECORD_SIZE bytes, big-endian, in the order they were queued:
+ * <pre>
+ *  0  long  timestamp, milliseconds since the epoch, from the CoarseClock
+ *  8  byte  AuditRecordType ordinal
+ *  9  byte  CardProductType ordinal + 1, or 0
+ * 10  byte  subject length
+ * 11  byte  detail length
+ * 12  int   reserved, 0
+ * 16  32 bytes subject, e.g. the user id; ASCII, other characters as '?', zero-padded
+ * 48  48 bytes detail, e.g. the card number or request path; ASCII, zero-padded
+ * </pre>
+ * Longer subjects and details are truncated.
+ */
+@Component
+public class AuditLog implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    /** Bytes per record. */
+    public static final int RECORD_SIZE = 96;
+
+    private static final int SUBJECT_OFFSET = 16;
+    private static final int SUBJECT_SIZE = 32;
+    private static final int DETAIL_OFFSET = 48;
+    private static final int DETAIL_SIZE = 48;
+    private static final int BATCH_RECORDS = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".log";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long fileSize;
+    private final int retain;
+    private final CoarseClock clock;
+    private final AuditRing ring;
+    private final LongAdder droppedRecords = new LongAdder();
+    private final Thread writer;
+
+    private volatile boolean closed;
+    private volatile long writtenRecords;
+
+    // Used by the writer thread only
+    private FileChannel file;
+    private long fileBytes;
+    private long fileIndex;
+
+    /**
+     * @param enabled Whether records are written; when false every record call returns at once.
+     * @param directory The directory of the audit files, created if missing.
+     * @param capacity Records the queue holds, rounded up to a power of two.
+     * @param overflowPolicy What a request does when the queue is full.
+     * @param fileSize Bytes after which an audit file is rolled.
+     * @param retain How many audit files to keep, including the one being written.
+     * @param clock The clock records are timestamped with.
+     */
+    @Autowired
+    public AuditLog(@Value("${cards.audit.enabled:true}") boolean enabled,
+                    @Value("${cards.audit.dir:${java.io.tmpdir}/card-audit}") Path directory,
+                    @Value("${cards.audit.capacity:65536}") int capacity,
+                    @Value("${cards.audit.overflow:DROP}") AuditOverflowPolicy overflowPolicy,
+                    @Value("${cards.audit.file-size:64MB}") DataSize fileSize,
+                    @Value("${cards.audit.retain:10}") int retain,
+                    CoarseClock clock) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.overflowPolicy = overflowPolicy;
+        this.fileSize = Math.max(RECORD_SIZE, fileSize.toBytes());
+        this.retain = Math.max(1, retain);
+        this.clock = clock;
+        this.ring = new AuditRing(enabled ? capacity : 2, RECORD_SIZE);
+        this.writer = new Thread(this::writeRecords, "audit-writer");
+        writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    /**
+     * Queues a record. Returns without waiting unless the queue is full and the overflow policy is BLOCK.
+     *
+     * @param type What happened.
+     * @param subject Who did it, usually the user id, may be null.
+     * @param detail What it concerned, e.g. the request path or client address, may be null.
+     */
+    public void record(AuditRecordType type, String subject, String detail) {
+        record(type, null, subject, detail);
+    }
+
+    /**
+     * Queues the record of a created card.
+     *
+     * @param product The card's product.
+     * @param creator The id of the user who created it, may be null.
+     * @param cardNumber The card number.
+     */
+    public void cardCreated(CardProductType product, String creator, String cardNumber) {
+        record(AuditRecordType.CARD_CREATED, product, creator, cardNumber);
+    }
+
+    /**
+     * @return Records dropped because the queue was full or the writer could not write them.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    /**
+     * @return Records written to the audit files.
+     */
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    /**
+     * Stops accepting records, lets the writer drain the queue and closes the current file.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        closed = true;
+        if (!enabled) {
+            return;
+        }
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        log.info("Audit log {} closed: {} records written, {} dropped", directory, writtenRecords, droppedRecords.sum());
+    }
+
+    private void record(AuditRecordType type, CardProductType product, String subject, String detail) {
+        if (!enabled || closed) {
+            return;
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            droppedRecords.increment();
+            return;
+        }
+        ByteBuffer slots = ring.slots();
+        int offset = ring.offset(sequence);
+        slots.putLong(offset, clock.currentTimeMillis());
+        slots.put(offset + 8, (byte) type.ordinal());
+        slots.put(offset + 9, (byte) (product != null ? product.ordinal() + 1 : 0));
+        slots.put(offset + 10, (byte) putAscii(slots, offset + SUBJECT_OFFSET, SUBJECT_SIZE, subject));
+        slots.put(offset + 11, (byte) putAscii(slots, offset + DETAIL_OFFSET, DETAIL_SIZE, detail));
+        slots.putInt(offset + 12, 0);
+        ring.publish(sequence);
+    }
+
+    private long claim() {
+        long sequence = ring.tryClaim();
+        if (overflowPolicy == AuditOverflowPolicy.BLOCK) {
+            while (sequence < 0 && !closed) {
+                LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+                sequence = ring.tryClaim();
+            }
+        }
+        // A claimed slot is always published, even once the log is closing, so the writer never waits on it forever
+        return sequence;
+    }
+
+    /**
+     * Writes the characters of the text that fit into the field and zero-fills the rest, since slots are reused.
+     *
+     * @return The number of characters written.
+     */
+    private static int putAscii(ByteBuffer slots, int offset, int size, String text) {
+        int length = text != null ? Math.min(text.length(), size) : 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            slots.put(offset + i, (byte) (c < 0x80 ? c : '?'));
+        }
+        for (int i = length; i < size; i++) {
+            slots.put(offset + i, (byte) 0);
+        }
+        return length;
+    }
+
+    /**
+     * Body of the audit-writer thread: gathers published records into the batch until the ring runs dry or the batch
+     * is full, writes the batch, and parks while there is nothing to write.
+     */
+    private void writeRecords() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * RECORD_SIZE);
+        long reportedDrops = 0;
+        long lastDropReport = System.nanoTime() - DROP_REPORT_INTERVAL_NANOS;
+        while (!closed || ring.hasPending()) {
+            int drained = ring.drainTo(batch);
+            if (drained > 0 && batch.hasRemaining()) {
+                continue;
+            }
+            if (batch.position() > 0) {
+                batch.flip();
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            long dropped = droppedRecords.sum();
+            if (dropped > reportedDrops && System.nanoTime() - lastDropReport >= DROP_REPORT_INTERVAL_NANOS) {
+                log.warn("Audit log dropped {} records so far; the writer cannot keep up or failed to write", dropped);
+                reportedDrops = dropped;
+                lastDropReport = System.nanoTime();
+            }
+            if (closed && ring.hasPending()) {
+                // A producer claimed its slot before the log was closed and is still writing it
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        if (batch.position() > 0) {
+            batch.flip();
+            write(batch);
+        }
+        closeFile();
+    }
+
+    private void write(ByteBuffer batch) {
+        int records = batch.remaining() / RECORD_SIZE;
+        try {
+            if (file == null) {
+                openFile();
+            } else if (fileBytes > 0 && fileBytes + batch.remaining() > fileSize) {
+                closeFile();
+                openFile();
+            }
+            while (batch.hasRemaining()) {
+                fileBytes += file.write(batch);
+            }
+            writtenRecords += records;
+        } catch (IOException ex) {
+            log.error("Could not write {} audit records to {}", records, directory, ex);
+            droppedRecords.add(records);
+            closeFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> files = list();
+        if (fileIndex == 0 && !files.isEmpty()) {
+            fileIndex = files.lastKey();
+        }
+        fileIndex++;
+        Path path = directory.resolve(FILE_PREFIX + String.format("%020d", fileIndex) + FILE_SUFFIX);
+        file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = file.size();
+        files.put(fileIndex, path);
+        while (files.size() > retain) {
+            Map.Entry<Long, Path> oldest = files.pollFirstEntry();
+            Files.deleteIfExists(oldest.getValue());
+        }
+    }
+
+    private void closeFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException ex) {
+            log.warn("Could not close audit file in {}", directory, ex);
+        }
+        file = null;
+    }
+
+    private TreeMap<Long, Path> list() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                    try {
+                        files.put(Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length())), path);
+                    } catch (NumberFormatException ex) {
+                        // Not an audit file
+                    }
+                }
+            });
+        }
+        return files;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cardapp.audit;
+
+/**
+ * What a request thread does when the audit queue is full because the writer cannot keep up.
+ */
+public enum AuditOverflowPolicy {
+    /** Discard the record and count it; the request is never delayed. */
+    DROP,
+    /** Wait until the writer has made room; no record is lost, but requests slow down to the disk's pace. */
+    BLOCK
+}
@@ -0,0 +1,21 @@
+package com.example.cardapp.audit;
+
+/**
+ * What an audit record reports. Stored as the ordinal byte of the record, so constants may only be appended.
+ */
+public enum AuditRecordType {
+    /** A login handed out a token; subject is the user id. */
+    LOGIN_SUCCEEDED,
+    /** A login was refused; subject is the user id as sent. */
+    LOGIN_FAILED,
+    /** A request had no bearer token; detail is the request path. */
+    AUTH_MISSING_TOKEN,
+    /** A request had an unknown or expired token; detail is the request path. */
+    AUTH_INVALID_TOKEN,
+    /** A request had a logged out token; detail is the request path. */
+    AUTH_REVOKED_TOKEN,
+    /** A card was created or imported; subject is the creator, detail the card number. */
+    CARD_CREATED,
+    /** A login was refused unchecked after too many failures; subject is the user id as sent. */
+    LOGIN_THROTTLED
+}
@@ -0,0 +1,120 @@
+package com.example.cardapp.audit;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of fixed-size audit records for many producers and one consumer.
+ * <p>
+ * Records live in preallocated slots of one direct buffer, so appending copies bytes and allocates nothing.
+ * A producer claims the next sequence by compare-and-set on the tail, writes its slot and publishes it by storing the
+ * sequence in the slot's marker with release semantics. The consumer copies published slots in sequence order and
+ * then advances the head, which is what frees the slots for reuse; a record claimed but not yet published holds up
+ * the records behind it until it is.
+ */
+final class AuditRing {
+
+    private final ByteBuffer slots;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private final int capacity;
+    private final int mask;
+    private final int recordSize;
+
+    // Written by the consumer only
+    private volatile long head;
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two.
+     * @param recordSize Bytes per record.
+     */
+    AuditRing(int capacity, int recordSize) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = this.capacity - 1;
+        this.recordSize = recordSize;
+        this.slots = ByteBuffer.allocateDirect(this.capacity * recordSize);
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            // Marker of an empty slot: one lap behind the first sequence that uses it
+            published.set(i, i - this.capacity);
+        }
+    }
+
+    /**
+     * @return The number of slots.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The buffer holding the slots; producers write their claimed slot with absolute puts.
+     */
+    ByteBuffer slots() {
+        return slots;
+    }
+
+    /**
+     * Claims the next slot if one is free.
+     *
+     * @return The claimed sequence, or -1 if every slot holds a record the consumer has not taken yet.
+     */
+    long tryClaim() {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head >= capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * @param sequence A claimed sequence.
+     * @return The offset of its slot in slots().
+     */
+    int offset(long sequence) {
+        return (int) (sequence & mask) * recordSize;
+    }
+
+    /**
+     * Hands a written slot to the consumer.
+     *
+     * @param sequence The claimed sequence.
+     */
+    void publish(long sequence) {
+        published.setRelease((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * Copies published records, in sequence order, into the target until it is full or the next record is not
+     * published yet. Consumer only.
+     *
+     * @param target The buffer to fill, at its position.
+     * @return The number of records copied.
+     */
+    int drainTo(ByteBuffer target) {
+        long sequence = head;
+        int drained = 0;
+        while (target.remaining() >= recordSize && published.getAcquire((int) (sequence & mask)) == sequence) {
+            target.put(target.position(), slots, offset(sequence), recordSize);
+            target.position(target.position() + recordSize);
+            sequence++;
+            drained++;
+        }
+        if (drained > 0) {
+            head = sequence;
+        }
+        return drained;
+    }
+
+    /**
+     * @return True if records were claimed that the consumer has not taken yet.
+     */
+    boolean hasPending() {
+        return tail.get() != head;
+    }
+}
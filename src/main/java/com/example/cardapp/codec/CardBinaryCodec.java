@@ -0,0 +1,637 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact length-prefixed binary encoding for card listings and creation requests.
+ *
+ * Every payload starts with a three byte header: 'C', the payload kind and the format version.
+ * Each record is prefixed with a varint bitmask of its non-null fields, followed by those fields in
+ * declaration order:
+ * <ul>
+ *     <li>strings are a varint byte length followed by UTF-8 bytes,</li>
+ *     <li>dates are zigzag varint epoch days, date-times zigzag varint epoch seconds (UTC, no nanos, like the JSON pattern),</li>
+ *     <li>product types are a single ordinal byte,</li>
+ *     <li>amounts are zigzag varint cents when the value is a whole number of cents, otherwise a marker and the raw IEEE-754 bits,</li>
+ *     <li>card creators in listings are indexes into a dictionary written once ahead of the records.</li>
+ * </ul>
+ * Lengths and counts come from the payload, so readers never size an allocation from them alone: strings are limited
+ * to MAX_STRING_BYTES and listings to MAX_LISTING_ENTRIES, a length longer than the bytes left in a payload of known
+ * size is rejected, and buffers grow as bytes actually arrive.
+ */
+@Component
+public class CardBinaryCodec {
+
+    static final int FORMAT_VERSION = 1;
+
+    /** Longest string a payload may contain, in UTF-8 bytes. */
+    public static final int MAX_STRING_BYTES = 64 * 1024;
+
+    /** Most cards, and most creators, a single listing may contain. */
+    public static final int MAX_LISTING_ENTRIES = 1_000_000;
+
+    private static final int INITIAL_LISTING_CAPACITY = 1024;
+
+    private static final int MAGIC = 'C';
+    private static final int KIND_LISTING = 1;
+    private static final int KIND_CREATION_REQUEST = 2;
+
+    private static final CardProductType[] PRODUCT_TYPES = CardProductType.values();
+
+    // Presence bits for CardResponse fields
+    private static final int CARD_NUMBER = 1;
+    private static final int CARD_TITLE = 1 << 1;
+    private static final int CARD_DESCRIPTION = 1 << 2;
+    private static final int ACTIVATION_DATE = 1 << 3;
+    private static final int CARD_PRODUCT = 1 << 4;
+    private static final int LOAD_AMOUNT = 1 << 5;
+    private static final int PROTECTION_REQUIRED = 1 << 6;
+    private static final int RESTRICTIONS = 1 << 7;
+    private static final int CARD_CREATOR = 1 << 8;
+    private static final int CREATION_DATE = 1 << 9;
+    private static final int CURRENT_LOAD = 1 << 10;
+    private static final int CURRENT_SWIPES = 1 << 11;
+    private static final int PROTECTION_VALUE = 1 << 12;
+
+    // Presence bits for Restrictions fields
+    private static final int EXPIRY_DATE = 1;
+    private static final int MAX_SWIPES = 1 << 1;
+    private static final int PER_TRANSACTION_LIMIT = 1 << 2;
+
+    /**
+     * Writes a card listing.
+     *
+     * @param cards The cards to write.
+     * @param out The stream to write to. It is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeCards(List<CardResponse> cards, OutputStream out) throws IOException {
+        Map<String, Integer> creatorIndex = new HashMap<>();
+        List<String> creators = new ArrayList<>();
+        for (CardResponse card : cards) {
+            String creator = card.getCardCreator();
+            if (creator != null && creatorIndex.putIfAbsent(creator, creators.size()) == null) {
+                creators.add(creator);
+            }
+        }
+
+        ByteSink sink = new ByteSink(out);
+        writeHeader(sink, KIND_LISTING);
+        sink.writeVarLong(creators.size());
+        for (String creator : creators) {
+            sink.writeString(creator);
+        }
+        sink.writeVarLong(cards.size());
+        for (CardResponse card : cards) {
+            writeCard(sink, card, creatorIndex);
+        }
+        sink.flush();
+    }
+
+    /**
+     * Reads a card listing written by {@link #writeCards(List, OutputStream)}.
+     *
+     * @param in The stream to read from.
+     * @return The decoded cards.
+     * @throws IOException if the payload is truncated or malformed.
+     */
+    public List<CardResponse> readCards(InputStream in) throws IOException {
+        return readCards(in, -1);
+    }
+
+    /**
+     * Reads a card listing written by {@link #writeCards(List, OutputStream)} from a payload of known size.
+     *
+     * @param in The stream to read from.
+     * @param size The payload size in bytes, or -1 if unknown; lengths beyond it are rejected before reading.
+     * @return The decoded cards.
+     * @throws IOException if the payload is truncated or malformed.
+     */
+    public List<CardResponse> readCards(InputStream in, long size) throws IOException {
+        return readListing(new ByteSource(in, size));
+    }
+
+    /**
+     * Reads consecutive card listings until the end of the stream, as written by calling
+     * {@link #writeCards(List, OutputStream)} once per chunk (e.g. a binary card export).
+     *
+     * @param in The stream to read from.
+     * @param consumer Receives the cards of each listing in turn.
+     * @throws IOException if a listing is truncated or malformed.
+     */
+    public void readListings(InputStream in, Consumer<List<CardResponse>> consumer) throws IOException {
+        readListings(in, -1, consumer);
+    }
+
+    /**
+     * Reads consecutive card listings from a stream of known size, see {@link #readListings(InputStream, Consumer)}.
+     *
+     * @param in The stream to read from.
+     * @param size The stream size in bytes, or -1 if unknown; lengths beyond it are rejected before reading.
+     * @param consumer Receives the cards of each listing in turn.
+     * @throws IOException if a listing is truncated or malformed.
+     */
+    public void readListings(InputStream in, long size, Consumer<List<CardResponse>> consumer) throws IOException {
+        ByteSource source = new ByteSource(in, size);
+        while (!source.atEnd()) {
+            consumer.accept(readListing(source));
+        }
+    }
+
+    private List<CardResponse> readListing(ByteSource source) throws IOException {
+        readHeader(source, KIND_LISTING);
+        // Every creator and every card takes at least one byte, so counts are bounded like lengths
+        int creatorCount = source.readCount();
+        List<String> creatorList = new ArrayList<>(Math.min(creatorCount, INITIAL_LISTING_CAPACITY));
+        for (int i = 0; i < creatorCount; i++) {
+            creatorList.add(source.readString());
+        }
+        String[] creators = creatorList.toArray(new String[0]);
+        int cardCount = source.readCount();
+        List<CardResponse> cards = new ArrayList<>(Math.min(cardCount, INITIAL_LISTING_CAPACITY));
+        for (int i = 0; i < cardCount; i++) {
+            cards.add(readCard(source, creators));
+        }
+        return cards;
+    }
+
+    /**
+     * Writes a single card creation request.
+     *
+     * @param request The request to write.
+     * @param out The stream to write to. It is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeCreationRequest(CardCreationRequest request, OutputStream out) throws IOException {
+        ByteSink sink = new ByteSink(out);
+        writeHeader(sink, KIND_CREATION_REQUEST);
+        int presence = presenceOf(request.getCardTitle(), CARD_TITLE)
+                | presenceOf(request.getCardDescription(), CARD_DESCRIPTION)
+                | presenceOf(request.getActivationDate(), ACTIVATION_DATE)
+                | presenceOf(request.getCardProduct(), CARD_PRODUCT)
+                | presenceOf(request.getLoadAmount(), LOAD_AMOUNT)
+                | presenceOf(request.getProtectionRequired(), PROTECTION_REQUIRED)
+                | presenceOf(request.getRestrictions(), RESTRICTIONS);
+        if (Boolean.TRUE.equals(request.getProtectionRequired())) {
+            presence |= PROTECTION_VALUE;
+        }
+        sink.writeVarLong(presence);
+        if ((presence & CARD_TITLE) != 0) {
+            sink.writeString(request.getCardTitle());
+        }
+        if ((presence & CARD_DESCRIPTION) != 0) {
+            sink.writeString(request.getCardDescription());
+        }
+        if ((presence & ACTIVATION_DATE) != 0) {
+            sink.writeZigZag(request.getActivationDate().toEpochDay());
+        }
+        if ((presence & CARD_PRODUCT) != 0) {
+            sink.writeByte(request.getCardProduct().ordinal());
+        }
+        if ((presence & LOAD_AMOUNT) != 0) {
+            sink.writeAmount(request.getLoadAmount());
+        }
+        if ((presence & RESTRICTIONS) != 0) {
+            writeRestrictions(sink, request.getRestrictions());
+        }
+        sink.flush();
+    }
+
+    /**
+     * Reads a single card creation request written by {@link #writeCreationRequest(CardCreationRequest, OutputStream)}.
+     *
+     * @param in The stream to read from.
+     * @return The decoded request.
+     * @throws IOException if the payload is truncated or malformed.
+     */
+    public CardCreationRequest readCreationRequest(InputStream in) throws IOException {
+        return readCreationRequest(in, -1);
+    }
+
+    /**
+     * Reads a single card creation request from a payload of known size, e.g. a request body with a Content-Length.
+     *
+     * @param in The stream to read from.
+     * @param size The payload size in bytes, or -1 if unknown; lengths beyond it are rejected before reading.
+     * @return The decoded request.
+     * @throws IOException if the payload is truncated or malformed.
+     */
+    public CardCreationRequest readCreationRequest(InputStream in, long size) throws IOException {
+        ByteSource source = new ByteSource(in, size);
+        readHeader(source, KIND_CREATION_REQUEST);
+        int presence = (int) source.readVarLong();
+        CardCreationRequest request = new CardCreationRequest();
+        if ((presence & CARD_TITLE) != 0) {
+            request.setCardTitle(source.readString());
+        }
+        if ((presence & CARD_DESCRIPTION) != 0) {
+            request.setCardDescription(source.readString());
+        }
+        if ((presence & ACTIVATION_DATE) != 0) {
+            request.setActivationDate(LocalDate.ofEpochDay(source.readZigZag()));
+        }
+        if ((presence & CARD_PRODUCT) != 0) {
+            request.setCardProduct(readProduct(source));
+        }
+        if ((presence & LOAD_AMOUNT) != 0) {
+            request.setLoadAmount(source.readAmount());
+        }
+        if ((presence & PROTECTION_REQUIRED) != 0) {
+            request.setProtectionRequired((presence & PROTECTION_VALUE) != 0);
+        }
+        if ((presence & RESTRICTIONS) != 0) {
+            request.setRestrictions(readRestrictions(source));
+        }
+        return request;
+    }
+
+    private void writeCard(ByteSink sink, CardResponse card, Map<String, Integer> creatorIndex) throws IOException {
+        int presence = presenceOf(card.getCardNumber(), CARD_NUMBER)
+                | presenceOf(card.getCardTitle(), CARD_TITLE)
+                | presenceOf(card.getCardDescription(), CARD_DESCRIPTION)
+                | presenceOf(card.getActivationDate(), ACTIVATION_DATE)
+                | presenceOf(card.getCardProduct(), CARD_PRODUCT)
+                | presenceOf(card.getLoadAmount(), LOAD_AMOUNT)
+                | presenceOf(card.getProtectionRequired(), PROTECTION_REQUIRED)
+                | presenceOf(card.getRestrictions(), RESTRICTIONS)
+                | presenceOf(card.getCardCreator(), CARD_CREATOR)
+                | presenceOf(card.getCreationDate(), CREATION_DATE)
+                | presenceOf(card.getCurrentLoad(), CURRENT_LOAD)
+                | presenceOf(card.getCurrentNumberOfSwipes(), CURRENT_SWIPES);
+        if (Boolean.TRUE.equals(card.getProtectionRequired())) {
+            presence |= PROTECTION_VALUE;
+        }
+        sink.writeVarLong(presence);
+        if ((presence & CARD_NUMBER) != 0) {
+            sink.writeString(card.getCardNumber());
+        }
+        if ((presence & CARD_TITLE) != 0) {
+            sink.writeString(card.getCardTitle());
+        }
+        if ((presence & CARD_DESCRIPTION) != 0) {
+            sink.writeString(card.getCardDescription());
+        }
+        if ((presence & ACTIVATION_DATE) != 0) {
+            sink.writeZigZag(card.getActivationDate().toEpochDay());
+        }
+        if ((presence & CARD_PRODUCT) != 0) {
+            sink.writeByte(card.getCardProduct().ordinal());
+        }
+        if ((presence & LOAD_AMOUNT) != 0) {
+            sink.writeAmount(card.getLoadAmount());
+        }
+        if ((presence & RESTRICTIONS) != 0) {
+            writeRestrictions(sink, card.getRestrictions());
+        }
+        if ((presence & CARD_CREATOR) != 0) {
+            sink.writeVarLong(creatorIndex.get(card.getCardCreator()));
+        }
+        if ((presence & CREATION_DATE) != 0) {
+            sink.writeZigZag(card.getCreationDate().toEpochSecond(ZoneOffset.UTC));
+        }
+        if ((presence & CURRENT_LOAD) != 0) {
+            sink.writeAmount(card.getCurrentLoad());
+        }
+        if ((presence & CURRENT_SWIPES) != 0) {
+            sink.writeZigZag(card.getCurrentNumberOfSwipes());
+        }
+    }
+
+    private CardResponse readCard(ByteSource source, String[] creators) throws IOException {
+        int presence = (int) source.readVarLong();
+        CardResponse card = new CardResponse();
+        if ((presence & CARD_NUMBER) != 0) {
+            card.setCardNumber(source.readString());
+        }
+        if ((presence & CARD_TITLE) != 0) {
+            card.setCardTitle(source.readString());
+        }
+        if ((presence & CARD_DESCRIPTION) != 0) {
+            card.setCardDescription(source.readString());
+        }
+        if ((presence & ACTIVATION_DATE) != 0) {
+            card.setActivationDate(LocalDate.ofEpochDay(source.readZigZag()));
+        }
+        if ((presence & CARD_PRODUCT) != 0) {
+            card.setCardProduct(readProduct(source));
+        }
+        if ((presence & LOAD_AMOUNT) != 0) {
+            card.setLoadAmount(source.readAmount());
+        }
+        if ((presence & PROTECTION_REQUIRED) != 0) {
+            card.setProtectionRequired((presence & PROTECTION_VALUE) != 0);
+        }
+        if ((presence & RESTRICTIONS) != 0) {
+            card.setRestrictions(readRestrictions(source));
+        }
+        if ((presence & CARD_CREATOR) != 0) {
+            long index = source.readVarLong();
+            if (index < 0 || index >= creators.length) {
+                throw new IOException("Malformed card payload: creator index " + index + " out of range");
+            }
+            card.setCardCreator(creators[(int) index]);
+        }
+        if ((presence & CREATION_DATE) != 0) {
+            card.setCreationDate(LocalDateTime.ofEpochSecond(source.readZigZag(), 0, ZoneOffset.UTC));
+        }
+        if ((presence & CURRENT_LOAD) != 0) {
+            card.setCurrentLoad(source.readAmount());
+        }
+        if ((presence & CURRENT_SWIPES) != 0) {
+            card.setCurrentNumberOfSwipes((int) source.readZigZag());
+        }
+        return card;
+    }
+
+    private static void writeRestrictions(ByteSink sink, Restrictions restrictions) throws IOException {
+        int presence = presenceOf(restrictions.getExpiryDate(), EXPIRY_DATE)
+                | presenceOf(restrictions.getMaxSwipes(), MAX_SWIPES)
+                | presenceOf(restrictions.getPerTransactionLimit(), PER_TRANSACTION_LIMIT);
+        sink.writeByte(presence);
+        if ((presence & EXPIRY_DATE) != 0) {
+            sink.writeZigZag(restrictions.getExpiryDate().toEpochDay());
+        }
+        if ((presence & MAX_SWIPES) != 0) {
+            sink.writeZigZag(restrictions.getMaxSwipes());
+        }
+        if ((presence & PER_TRANSACTION_LIMIT) != 0) {
+            sink.writeAmount(restrictions.getPerTransactionLimit());
+        }
+    }
+
+    private static Restrictions readRestrictions(ByteSource source) throws IOException {
+        int presence = source.readByte();
+        Restrictions restrictions = new Restrictions();
+        if ((presence & EXPIRY_DATE) != 0) {
+            restrictions.setExpiryDate(LocalDate.ofEpochDay(source.readZigZag()));
+        }
+        if ((presence & MAX_SWIPES) != 0) {
+            restrictions.setMaxSwipes((int) source.readZigZag());
+        }
+        if ((presence & PER_TRANSACTION_LIMIT) != 0) {
+            restrictions.setPerTransactionLimit(source.readAmount());
+        }
+        return restrictions;
+    }
+
+    private static CardProductType readProduct(ByteSource source) throws IOException {
+        int ordinal = source.readByte();
+        if (ordinal >= PRODUCT_TYPES.length) {
+            throw new IOException("Malformed card payload: unknown product type " + ordinal);
+        }
+        return PRODUCT_TYPES[ordinal];
+    }
+
+    private static void writeHeader(ByteSink sink, int kind) throws IOException {
+        sink.writeByte(MAGIC);
+        sink.writeByte(kind);
+        sink.writeByte(FORMAT_VERSION);
+    }
+
+    private static void readHeader(ByteSource source, int expectedKind) throws IOException {
+        int magic = source.readByte();
+        int kind = source.readByte();
+        int version = source.readByte();
+        if (magic != MAGIC || kind != expectedKind) {
+            throw new IOException("Malformed card payload: unexpected header");
+        }
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported card payload version " + version);
+        }
+    }
+
+    private static int presenceOf(Object value, int bit) {
+        return value == null ? 0 : bit;
+    }
+
+    /**
+     * Buffered writer for the varint primitives.
+     */
+    static final class ByteSink {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+
+        ByteSink(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                drain();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeZigZag(long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeAmount(double value) throws IOException {
+            // Whole cents (the common case for card amounts) become a small varint; anything else keeps its exact bits
+            if (Math.abs(value) < 1e15) {
+                long cents = Math.round(value * 100);
+                if (Double.doubleToLongBits(cents / 100.0) == Double.doubleToLongBits(value)) {
+                    writeVarLong(((cents << 1) ^ (cents >> 63)) << 1);
+                    return;
+                }
+            }
+            writeByte(1);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (bits >>> shift));
+            }
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_STRING_BYTES) {
+                // Readers reject it, so fail here rather than write a payload that cannot be read back
+                throw new IOException("String of " + bytes.length + " bytes exceeds the card payload limit of " + MAX_STRING_BYTES);
+            }
+            writeVarLong(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (position == buffer.length) {
+                    drain();
+                }
+                int chunk = Math.min(buffer.length - position, bytes.length - offset);
+                System.arraycopy(bytes, offset, buffer, position, chunk);
+                position += chunk;
+                offset += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Buffered reader for the varint primitives. Knows how many bytes are left when the payload size is known.
+     */
+    static final class ByteSource {
+        private final InputStream in;
+        private final long size;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+        // Bytes read from the stream before the current buffer contents
+        private long consumed;
+
+        /**
+         * @param in The stream to read from.
+         * @param size The payload size in bytes, or -1 if unknown.
+         */
+        ByteSource(InputStream in, long size) {
+            this.in = in;
+            this.size = size < 0 ? Long.MAX_VALUE : size;
+        }
+
+        int readByte() throws IOException {
+            if (position == limit) {
+                fill();
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed card payload: varint too long");
+        }
+
+        long readZigZag() throws IOException {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        /**
+         * @return A string length, at most MAX_STRING_BYTES and the bytes left.
+         */
+        int readLength() throws IOException {
+            return readBounded(MAX_STRING_BYTES, "length");
+        }
+
+        /**
+         * @return A listing entry count, at most MAX_LISTING_ENTRIES and the bytes left.
+         */
+        int readCount() throws IOException {
+            return readBounded(MAX_LISTING_ENTRIES, "count");
+        }
+
+        private int readBounded(int max, String what) throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > max) {
+                throw new IOException("Malformed card payload: invalid " + what + " " + value);
+            }
+            long remaining = size - consumed - position;
+            if (value > remaining) {
+                throw new IOException("Malformed card payload: " + what + " " + value + " exceeds the " + remaining + " bytes left");
+            }
+            return (int) value;
+        }
+
+        double readAmount() throws IOException {
+            long raw = readVarLong();
+            if ((raw & 1) == 0) {
+                long zigzag = raw >>> 1;
+                long cents = (zigzag >>> 1) ^ -(zigzag & 1);
+                return cents / 100.0;
+            }
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | readByte();
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() throws IOException {
+            int length = readLength();
+            if (length <= limit - position) {
+                String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                return value;
+            }
+            // Grown as bytes arrive rather than sized from the length alone
+            byte[] bytes = new byte[Math.min(length, buffer.length)];
+            int offset = 0;
+            while (offset < length) {
+                if (position == limit) {
+                    fill();
+                }
+                int chunk = Math.min(limit - position, length - offset);
+                if (offset + chunk > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.min(length, Math.max(offset + chunk, bytes.length * 2)));
+                }
+                System.arraycopy(buffer, position, bytes, offset, chunk);
+                position += chunk;
+                offset += chunk;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        boolean atEnd() throws IOException {
+            if (position < limit) {
+                return false;
+            }
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return true;
+            }
+            consumed += limit;
+            position = 0;
+            limit = read;
+            return false;
+        }
+
+        private void fill() throws IOException {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                throw new EOFException("Truncated card payload");
+            }
+            consumed += limit;
+            position = 0;
+            limit = read;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardCreationRequest;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * HttpMessageConverter for the compact card binary format (see CardBinaryCodec).
+ * Only selected when the client asks for it via the Accept or Content-Type header;
+ * JSON remains the default representation. It reads CardCreationRequest bodies and writes only CardList bodies,
+ * so other lists asked for in this format get 406 Not Acceptable.
+ */
+public class CardBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String CARD_BINARY_VALUE = "application/x-card-binary";
+    public static final MediaType CARD_BINARY = MediaType.parseMediaType(CARD_BINARY_VALUE);
+
+    private final CardBinaryCodec codec;
+
+    public CardBinaryHttpMessageConverter(CardBinaryCodec codec) {
+        super(CARD_BINARY);
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CardCreationRequest.class == clazz || CardList.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return CardCreationRequest.class == clazz && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return CardList.class == clazz && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return codec.readCreationRequest(inputMessage.getBody(), inputMessage.getHeaders().getContentLength());
+        } catch (IOException ex) {
+            throw new HttpMessageNotReadableException("Card binary parse error: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        codec.writeCards((CardList) body, outputMessage.getBody());
+    }
+}
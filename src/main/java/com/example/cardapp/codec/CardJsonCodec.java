@@ -0,0 +1,339 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+import com.example.cardapp.product.CardProducts;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hand-written streaming JSON codec for the card DTOs.
+ * Produces the same documents as the default Jackson databind setup (field order, null handling and
+ * date patterns from the DTO annotations) but drives the streaming generator and parser directly,
+ * so there is no bean introspection, reflection or DateTimeFormatter work per card.
+ * Generators and parsers draw their byte/char buffers from Jackson's buffer recycler, so the only
+ * per-request allocation is the generator itself.
+ */
+@Component
+public class CardJsonCodec {
+
+    private static final String PRODUCT_NAMES = Arrays.toString(CardProductType.values());
+
+    private final JsonFactory jsonFactory = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    /**
+     * Writes a list of cards as a JSON array.
+     *
+     * @param cards The cards to write.
+     * @param out The stream to write UTF-8 JSON to. It is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeCards(List<CardResponse> cards, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            char[] scratch = new char[DateText.DATE_TIME_LENGTH];
+            generator.writeStartArray();
+            for (CardResponse card : cards) {
+                writeCard(card, generator, scratch);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes a single card as a JSON object.
+     *
+     * @param card The card to write.
+     * @param out The stream to write UTF-8 JSON to. It is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeCard(CardResponse card, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            writeCard(card, generator, new char[DateText.DATE_TIME_LENGTH]);
+        }
+    }
+
+    /**
+     * Reads a CardCreationRequest from a JSON object.
+     * Unknown properties are skipped, matching the application's Jackson configuration.
+     *
+     * @param in The stream containing the JSON document.
+     * @return The parsed request.
+     * @throws IOException if the document is malformed or a value has the wrong type.
+     */
+    public CardCreationRequest readCreationRequest(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            CardCreationRequest request = new CardCreationRequest();
+            readCreationRequest(parser, request);
+            return request;
+        }
+    }
+
+    /**
+     * Reads a CardCreationRequest from a JSON object into an existing instance, so callers parsing many
+     * requests can reuse one object. Every field of the target is overwritten, absent fields become null.
+     *
+     * @param json The JSON object, e.g. one line of an NDJSON document.
+     * @param target The request to fill.
+     * @throws IOException if the document is malformed or a value has the wrong type.
+     */
+    public void readCreationRequest(String json, CardCreationRequest target) throws IOException {
+        target.setCardTitle(null);
+        target.setCardDescription(null);
+        target.setActivationDate(null);
+        target.setCardProduct(null);
+        target.setLoadAmount(null);
+        target.setProtectionRequired(null);
+        target.setRestrictions(null);
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            readCreationRequest(parser, target);
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after the CardCreationRequest object");
+            }
+        }
+    }
+
+    private void readCreationRequest(JsonParser parser, CardCreationRequest request) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object for CardCreationRequest");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "cardTitle" -> request.setCardTitle(readText(parser, token));
+                case "cardDescription" -> request.setCardDescription(readText(parser, token));
+                case "activationDate" -> request.setActivationDate(readDate(parser, token));
+                case "cardProduct" -> request.setCardProduct(readProduct(parser, token));
+                case "loadAmount" -> request.setLoadAmount(readDouble(parser, token));
+                case "protectionRequired" -> request.setProtectionRequired(readBoolean(parser, token));
+                case "restrictions" -> request.setRestrictions(readRestrictions(parser, token));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void writeCard(CardResponse card, JsonGenerator generator, char[] scratch) throws IOException {
+        generator.writeStartObject();
+        writeStringField(generator, "cardNumber", card.getCardNumber());
+        writeStringField(generator, "cardTitle", card.getCardTitle());
+        writeStringField(generator, "cardDescription", card.getCardDescription());
+        writeDateField(generator, "activationDate", card.getActivationDate(), scratch);
+        generator.writeFieldName("cardProduct");
+        if (card.getCardProduct() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(CardProducts.of(card.getCardProduct()).getJsonValue());
+        }
+        writeDoubleField(generator, "loadAmount", card.getLoadAmount());
+        writeBooleanField(generator, "protectionRequired", card.getProtectionRequired());
+        generator.writeFieldName("restrictions");
+        writeRestrictions(generator, card.getRestrictions(), scratch);
+        writeStringField(generator, "cardCreator", card.getCardCreator());
+        generator.writeFieldName("creationDate");
+        LocalDateTime creationDate = card.getCreationDate();
+        if (creationDate == null) {
+            generator.writeNull();
+        } else if (DateText.isFixedWidth(creationDate.toLocalDate())) {
+            generator.writeString(scratch, 0, DateText.writeDateTime(creationDate, scratch, 0));
+        } else {
+            generator.writeString(DateText.formatDateTime(creationDate));
+        }
+        writeDoubleField(generator, "currentLoad", card.getCurrentLoad());
+        generator.writeFieldName("currentNumberOfSwipes");
+        if (card.getCurrentNumberOfSwipes() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(card.getCurrentNumberOfSwipes());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeRestrictions(JsonGenerator generator, Restrictions restrictions, char[] scratch) throws IOException {
+        if (restrictions == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        writeDateField(generator, "expiryDate", restrictions.getExpiryDate(), scratch);
+        generator.writeFieldName("maxSwipes");
+        if (restrictions.getMaxSwipes() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(restrictions.getMaxSwipes());
+        }
+        writeDoubleField(generator, "perTransactionLimit", restrictions.getPerTransactionLimit());
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    private static void writeDoubleField(JsonGenerator generator, String name, Double value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.doubleValue());
+        }
+    }
+
+    private static void writeBooleanField(JsonGenerator generator, String name, Boolean value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(value);
+        }
+    }
+
+    private static void writeDateField(JsonGenerator generator, String name, LocalDate value, char[] scratch) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (DateText.isFixedWidth(value)) {
+            generator.writeString(scratch, 0, DateText.writeDate(value, scratch, 0));
+        } else {
+            generator.writeString(DateText.formatDate(value));
+        }
+    }
+
+    private Restrictions readRestrictions(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object for 'restrictions'");
+        }
+        Restrictions restrictions = new Restrictions();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "expiryDate" -> restrictions.setExpiryDate(readDate(parser, value));
+                case "maxSwipes" -> restrictions.setMaxSwipes(readInteger(parser, value));
+                case "perTransactionLimit" -> restrictions.setPerTransactionLimit(readDouble(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return restrictions;
+    }
+
+    private static String readText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string value for '" + parser.currentName() + "'");
+        }
+        return parser.getText();
+    }
+
+    private static LocalDate readDate(JsonParser parser, JsonToken token) throws IOException {
+        String text = readText(parser, token);
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException ex) {
+            throw new JsonParseException(parser, "Cannot parse '" + parser.currentName() + "' value '" + text + "' as yyyy-MM-dd", ex);
+        }
+    }
+
+    private static CardProductType readProduct(JsonParser parser, JsonToken token) throws IOException {
+        String text = readText(parser, token);
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        try {
+            return CardProductType.valueOf(text);
+        } catch (IllegalArgumentException ex) {
+            throw new JsonParseException(parser, "Cannot deserialize value of type CardProductType from String \"" + text + "\": not one of the values accepted for Enum class: " + PRODUCT_NAMES, ex);
+        }
+    }
+
+    private static Double readDouble(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        String text = readNumberText(parser, token);
+        try {
+            return text == null ? null : Double.valueOf(text);
+        } catch (NumberFormatException ex) {
+            throw new JsonParseException(parser, "Cannot parse '" + parser.currentName() + "' value '" + text + "' as a number", ex);
+        }
+    }
+
+    private static Integer readInteger(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getIntValue();
+        }
+        String text = readNumberText(parser, token);
+        try {
+            return text == null ? null : Integer.valueOf(text);
+        } catch (NumberFormatException ex) {
+            throw new JsonParseException(parser, "Cannot parse '" + parser.currentName() + "' value '" + text + "' as an integer", ex);
+        }
+    }
+
+    private static String readNumberText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Expected a numeric value for '" + parser.currentName() + "'");
+        }
+        String text = parser.getText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static Boolean readBoolean(JsonParser parser, JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> {
+                String text = parser.getText().trim();
+                if ("true".equals(text)) {
+                    yield Boolean.TRUE;
+                }
+                if ("false".equals(text)) {
+                    yield Boolean.FALSE;
+                }
+                if (text.isEmpty()) {
+                    yield null;
+                }
+                throw new JsonParseException(parser, "Cannot parse '" + parser.currentName() + "' value '" + text + "' as a boolean");
+            }
+            default -> throw new JsonParseException(parser, "Expected a boolean value for '" + parser.currentName() + "'");
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.CardResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * HttpMessageConverter that routes the card DTOs through CardJsonCodec.
+ * Registered ahead of the Jackson converter, it reads CardCreationRequest bodies and writes
+ * CardResponse objects and card listings. Lists holding anything other than CardResponse
+ * are handed to the application's ObjectMapper, so other endpoints are unaffected.
+ */
+public class CardJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final CardJsonCodec codec;
+    private final ObjectMapper objectMapper;
+
+    public CardJsonHttpMessageConverter(CardJsonCodec codec, ObjectMapper objectMapper) {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.codec = codec;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CardCreationRequest.class == clazz || CardResponse.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return CardCreationRequest.class == clazz && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return (CardResponse.class == clazz || List.class.isAssignableFrom(clazz)) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return codec.readCreationRequest(inputMessage.getBody());
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof CardResponse card) {
+            codec.writeCard(card, outputMessage.getBody());
+        } else if (isCardList(body)) {
+            @SuppressWarnings("unchecked")
+            List<CardResponse> cards = (List<CardResponse>) body;
+            codec.writeCards(cards, outputMessage.getBody());
+        } else {
+            objectMapper.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), body);
+        }
+    }
+
+    private static boolean isCardList(Object body) {
+        if (!(body instanceof List<?> list)) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!(element instanceof CardResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
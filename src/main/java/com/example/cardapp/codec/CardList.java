@@ -0,0 +1,35 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardResponse;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of a list of cards, returned by endpoints whose body may be written as a card binary listing.
+ * Response bodies are declared as ResponseEntity&lt;?&gt;, so a converter only sees the body's class; this type is
+ * what tells CardBinaryHttpMessageConverter the body is a card listing, and not any other list.
+ * It serializes to JSON like any other list.
+ */
+public final class CardList extends AbstractList<CardResponse> implements RandomAccess {
+
+    private final List<CardResponse> cards;
+
+    /**
+     * @param cards The cards, not copied.
+     */
+    public CardList(List<CardResponse> cards) {
+        this.cards = cards;
+    }
+
+    @Override
+    public CardResponse get(int index) {
+        return cards.get(index);
+    }
+
+    @Override
+    public int size() {
+        return cards.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.cardapp.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP content codings the application can apply to response bodies.
+ * Declaration order is the server preference when a client accepts several codings with the same weight.
+ */
+public enum ContentCoding {
+    GZIP("gzip") {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, 8192);
+        }
+    },
+    DEFLATE("deflate") {
+        @Override
+        OutputStream wrap(OutputStream out) {
+            // HTTP "deflate" is the zlib format, which is what DeflaterOutputStream produces by default
+            return new DeflaterOutputStream(out);
+        }
+    };
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return The token used in the Accept-Encoding and Content-Encoding headers.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Compresses a complete body.
+     *
+     * @param body The uncompressed bytes.
+     * @return The compressed bytes.
+     */
+    public byte[] compress(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (OutputStream out = wrap(buffer)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    abstract OutputStream wrap(OutputStream out) throws IOException;
+
+    /**
+     * Picks the coding to use for a request based on its Accept-Encoding header.
+     * A coding named in the header gets its own weight, so "gzip;q=0" refuses gzip even if "*" is also accepted;
+     * "*" only stands for the supported codings the header does not name.
+     *
+     * @param acceptEncoding The raw Accept-Encoding header, may be null.
+     * @return The preferred supported coding, or null if the body should be sent as-is.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        ContentCoding[] codings = values();
+        double[] weights = new double[codings.length];
+        boolean[] listed = new boolean[codings.length];
+        double wildcardWeight = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        weight = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException ex) {
+                        weight = 0;
+                    }
+                }
+            }
+            if ("*".equals(name)) {
+                wildcardWeight = weight;
+                continue;
+            }
+            ContentCoding coding = forToken(name);
+            if (coding != null) {
+                weights[coding.ordinal()] = weight;
+                listed[coding.ordinal()] = true;
+            }
+        }
+        ContentCoding best = null;
+        double bestWeight = 0;
+        for (ContentCoding coding : codings) {
+            double weight = listed[coding.ordinal()] ? weights[coding.ordinal()] : wildcardWeight;
+            // Declaration order breaks ties, so only a strictly higher weight replaces an earlier coding
+            if (weight > bestWeight) {
+                best = coding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    private static ContentCoding forToken(String token) {
+        for (ContentCoding coding : values()) {
+            if (coding.token.equals(token)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+}
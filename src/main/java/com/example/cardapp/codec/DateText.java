@@ -0,0 +1,86 @@
+package com.example.cardapp.codec;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Allocation-free date rendering for the card codecs.
+ * Writes the same text as the "yyyy-MM-dd" and "yyyy-MM-dd'T'HH:mm:ss" patterns used on the DTOs,
+ * digit by digit into a caller-supplied buffer instead of going through a DateTimeFormatter.
+ */
+final class DateText {
+
+    static final int DATE_LENGTH = 10;
+    static final int DATE_TIME_LENGTH = 19;
+
+    private static final DateTimeFormatter DATE_FALLBACK = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FALLBACK = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private DateText() {
+    }
+
+    /**
+     * Writes a date as "yyyy-MM-dd".
+     *
+     * @param date The date to write.
+     * @param buf The target buffer, at least DATE_LENGTH chars from offset.
+     * @param offset The position to start writing at.
+     * @return The number of chars written.
+     */
+    static int writeDate(LocalDate date, char[] buf, int offset) {
+        writeFourDigits(date.getYear(), buf, offset);
+        buf[offset + 4] = '-';
+        writeTwoDigits(date.getMonthValue(), buf, offset + 5);
+        buf[offset + 7] = '-';
+        writeTwoDigits(date.getDayOfMonth(), buf, offset + 8);
+        return DATE_LENGTH;
+    }
+
+    /**
+     * Writes a date-time as "yyyy-MM-dd'T'HH:mm:ss".
+     *
+     * @param dateTime The date-time to write.
+     * @param buf The target buffer, at least DATE_TIME_LENGTH chars from offset.
+     * @param offset The position to start writing at.
+     * @return The number of chars written.
+     */
+    static int writeDateTime(LocalDateTime dateTime, char[] buf, int offset) {
+        writeDate(dateTime.toLocalDate(), buf, offset);
+        buf[offset + 10] = 'T';
+        writeTwoDigits(dateTime.getHour(), buf, offset + 11);
+        buf[offset + 13] = ':';
+        writeTwoDigits(dateTime.getMinute(), buf, offset + 14);
+        buf[offset + 16] = ':';
+        writeTwoDigits(dateTime.getSecond(), buf, offset + 17);
+        return DATE_TIME_LENGTH;
+    }
+
+    /**
+     * Years outside 0000-9999 do not fit the fixed-width layout and go through the formatter instead.
+     */
+    static boolean isFixedWidth(LocalDate date) {
+        int year = date.getYear();
+        return year >= 0 && year <= 9999;
+    }
+
+    static String formatDate(LocalDate date) {
+        return DATE_FALLBACK.format(date);
+    }
+
+    static String formatDateTime(LocalDateTime dateTime) {
+        return DATE_TIME_FALLBACK.format(dateTime);
+    }
+
+    private static void writeFourDigits(int value, char[] buf, int offset) {
+        buf[offset] = (char) ('0' + value / 1000);
+        buf[offset + 1] = (char) ('0' + (value / 100) % 10);
+        buf[offset + 2] = (char) ('0' + (value / 10) % 10);
+        buf[offset + 3] = (char) ('0' + value % 10);
+    }
+
+    private static void writeTwoDigits(int value, char[] buf, int offset) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+}
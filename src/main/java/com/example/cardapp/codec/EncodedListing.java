@@ -0,0 +1,55 @@
+package com.example.cardapp.codec;
+
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A card listing that has already been serialized, together with any compressed variants of it.
+ * Compressed bodies are computed at most once per coding and kept next to the raw bytes,
+ * so an instance that is cached can be served repeatedly without compressing the same payload twice.
+ */
+public class EncodedListing {
+
+    private final MediaType mediaType;
+    private final byte[] body;
+    private final long version;
+    private final Map<ContentCoding, byte[]> compressedBodies = new ConcurrentHashMap<>(4);
+
+    public EncodedListing(MediaType mediaType, byte[] body, long version) {
+        this.mediaType = mediaType;
+        this.body = body;
+        this.version = version;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return The card store version the listing was read at.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The uncompressed body. Callers must not modify the array.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the body compressed with the given coding, compressing it on first use.
+     *
+     * @param coding The content coding.
+     * @param compressor Produces the compressed bytes from the raw body; only called on a miss.
+     * @return The compressed body. Callers must not modify the array.
+     */
+    public byte[] getCompressedBody(ContentCoding coding, UnaryOperator<byte[]> compressor) {
+        return compressedBodies.computeIfAbsent(coding, c -> compressor.apply(body));
+    }
+}
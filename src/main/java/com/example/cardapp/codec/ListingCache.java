@@ -0,0 +1,140 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.security.AuthUser;
+import com.example.cardapp.service.CardEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps fully encoded card listings, keyed by role, card product type, page and format, so repeated
+ * listings skip both the store scatter-gather and serialization.
+ * <p>
+ * Entries are dropped per card product type when CardService reports a change, so a write to one product
+ * leaves the other product's listings (and their ETags) untouched. Concurrent misses for the same key share
+ * a single computation instead of all encoding the same listing.
+ * <p>
+ * The cache is local to this node. Writes made through other nodes are not reported here, so every lookup
+ * also passes the current store version and a cached listing encoded at another version is reloaded.
+ */
+@Component
+public class ListingCache implements CardEventListener {
+
+    private final Map<Key, CompletableFuture<EncodedListing>> entries = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maxPages;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public ListingCache(MeterRegistry meterRegistry,
+                        @Value("${cards.listing.cache.enabled:true}") boolean enabled,
+                        @Value("${cards.listing.cache.max-pages:10}") int maxPages) {
+        this.enabled = enabled;
+        this.maxPages = maxPages;
+        this.hits = Counter.builder("cards.listing.cache.requests")
+                .description("Card listing requests served from or missing the listing cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cards.listing.cache.requests")
+                .description("Card listing requests served from or missing the listing cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached listing for a key, encoding it with the loader if it is not cached or was
+     * encoded at a different store version than the given one.
+     * Only the first caller for a missing key runs the loader; concurrent callers wait for its result.
+     * A failing loader is not cached, its exception is rethrown to every waiting caller.
+     * Pages at or beyond the configured maximum are never cached.
+     *
+     * @param key The listing key.
+     * @param version The current version of the listed product's cards, read before the listing.
+     * @param loader Reads and encodes the listing at that version.
+     * @return The encoded listing.
+     */
+    public EncodedListing get(Key key, long version, Supplier<EncodedListing> loader) {
+        if (!enabled || key.page() >= maxPages) {
+            return loader.get();
+        }
+        while (true) {
+            CompletableFuture<EncodedListing> cached = entries.get(key);
+            if (cached == null) {
+                CompletableFuture<EncodedListing> created = new CompletableFuture<>();
+                cached = entries.putIfAbsent(key, created);
+                if (cached == null) {
+                    misses.increment();
+                    return load(key, created, loader);
+                }
+            }
+            EncodedListing listing = join(cached);
+            if (listing.getVersion() == version) {
+                hits.increment();
+                return listing;
+            }
+            // Cards changed since the listing was encoded, possibly through another node
+            CompletableFuture<EncodedListing> created = new CompletableFuture<>();
+            if (entries.replace(key, cached, created)) {
+                misses.increment();
+                return load(key, created, loader);
+            }
+        }
+    }
+
+    private EncodedListing join(CompletableFuture<EncodedListing> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private EncodedListing load(Key key, CompletableFuture<EncodedListing> future, Supplier<EncodedListing> loader) {
+        try {
+            EncodedListing listing = loader.get();
+            future.complete(listing);
+            return listing;
+        } catch (RuntimeException | Error ex) {
+            entries.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops every cached listing of the changed card product type.
+     * CardService calls this after the change is stored, so a listing encoded before the change is removed here.
+     *
+     * @param cardProductType The product type of the changed cards.
+     */
+    @Override
+    public void cardsChanged(CardProductType cardProductType) {
+        entries.keySet().removeIf(key -> key.cardProductType() == cardProductType);
+    }
+
+    /**
+     * Identifies one cached listing.
+     *
+     * @param role The role of the requesting user.
+     * @param cardProductType The listed card product type.
+     * @param page The zero-based page number, or -1 for the full listing.
+     * @param size The page size, or 0 for the full listing.
+     * @param format The encoding format.
+     */
+    public record Key(AuthUser.Role role, CardProductType cardProductType, int page, int size, MediaType format) {
+    }
+}
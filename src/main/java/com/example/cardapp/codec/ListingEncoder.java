@@ -0,0 +1,172 @@
+package com.example.cardapp.codec;
+
+import com.example.cardapp.dto.CardResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns card listings into response bodies.
+ * Picks the representation (JSON or card binary) from the Accept header, serializes the listing once,
+ * and compresses it when the client accepts a supported content coding and the body is at least
+ * the configured minimum size. Compression CPU time and bytes before/after are published as metrics.
+ */
+@Component
+public class ListingEncoder {
+
+    private static final List<MediaType> SUPPORTED_FORMATS = List.of(MediaType.APPLICATION_JSON, CardBinaryHttpMessageConverter.CARD_BINARY);
+
+    private final CardJsonCodec jsonCodec;
+    private final CardBinaryCodec binaryCodec;
+    private final boolean compressionEnabled;
+    private final int minCompressSize;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Map<ContentCoding, Timer> compressionCpu = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, Counter> rawBytes = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, Counter> compressedBytes = new EnumMap<>(ContentCoding.class);
+    private final Counter skippedBelowThreshold;
+
+    @Autowired
+    public ListingEncoder(CardJsonCodec jsonCodec,
+                          CardBinaryCodec binaryCodec,
+                          MeterRegistry meterRegistry,
+                          @Value("${cards.listing.compression.enabled:true}") boolean compressionEnabled,
+                          @Value("${cards.listing.compression.min-size:1024}") int minCompressSize) {
+        this.jsonCodec = jsonCodec;
+        this.binaryCodec = binaryCodec;
+        this.compressionEnabled = compressionEnabled;
+        this.minCompressSize = minCompressSize;
+        for (ContentCoding coding : ContentCoding.values()) {
+            compressionCpu.put(coding, Timer.builder("cards.listing.compression.cpu")
+                    .description("CPU time spent compressing card listings")
+                    .tag("coding", coding.getToken())
+                    .register(meterRegistry));
+            rawBytes.put(coding, Counter.builder("cards.listing.compression.bytes.in")
+                    .description("Uncompressed size of compressed card listings")
+                    .baseUnit("bytes")
+                    .tag("coding", coding.getToken())
+                    .register(meterRegistry));
+            compressedBytes.put(coding, Counter.builder("cards.listing.compression.bytes.out")
+                    .description("Compressed size of card listings")
+                    .baseUnit("bytes")
+                    .tag("coding", coding.getToken())
+                    .register(meterRegistry));
+        }
+        this.skippedBelowThreshold = Counter.builder("cards.listing.compression.skipped")
+                .description("Listings sent uncompressed because they were below the size threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Selects the listing representation for a request.
+     *
+     * @param acceptedTypes The media types accepted by the client, most preferred first.
+     * @return The media type to encode with, or null if the client accepts none of the supported formats.
+     */
+    public MediaType selectFormat(List<MediaType> acceptedTypes) {
+        for (MediaType accepted : acceptedTypes) {
+            for (MediaType supported : SUPPORTED_FORMATS) {
+                if (accepted.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The formats a listing can be encoded in.
+     */
+    public List<MediaType> getSupportedFormats() {
+        return SUPPORTED_FORMATS;
+    }
+
+    /**
+     * Builds the entity tag for a listing read at a card store version.
+     * The version is read before the listing, so a listing is never tagged with a newer version than it reflects.
+     * The tag is weak because the same listing may be sent with different content codings.
+     *
+     * @param version The card store version.
+     * @param format The listing format.
+     * @return A weak entity tag, including quotes.
+     */
+    public String eTag(long version, MediaType format) {
+        return "W/\"" + version + "-" + format.getSubtype() + "\"";
+    }
+
+    /**
+     * Serializes a listing in the given format.
+     *
+     * @param cards The cards to encode.
+     * @param format One of the supported formats.
+     * @param version The card store version read before the cards were listed.
+     * @return The encoded listing.
+     */
+    public EncodedListing encode(List<CardResponse> cards, MediaType format, long version) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + cards.size() * 320);
+        try {
+            if (CardBinaryHttpMessageConverter.CARD_BINARY.equals(format)) {
+                binaryCodec.writeCards(cards, out);
+            } else {
+                jsonCodec.writeCards(cards, out);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new EncodedListing(format, out.toByteArray(), version);
+    }
+
+    /**
+     * Builds the HTTP response for an encoded listing, compressing it if the client allows and it is large enough.
+     *
+     * @param listing The encoded listing.
+     * @param acceptEncoding The request's Accept-Encoding header, may be null.
+     * @return A 200 OK response carrying the (possibly compressed) body and its ETag.
+     */
+    public ResponseEntity<byte[]> toResponse(EncodedListing listing, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(listing.getMediaType())
+                .eTag(eTag(listing.getVersion(), listing.getMediaType()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        ContentCoding coding = compressionEnabled ? ContentCoding.negotiate(acceptEncoding) : null;
+        if (coding == null) {
+            return response.body(listing.getBody());
+        }
+        if (listing.getBody().length < minCompressSize) {
+            skippedBelowThreshold.increment();
+            return response.body(listing.getBody());
+        }
+        byte[] compressed = listing.getCompressedBody(coding, body -> compress(coding, body));
+        return response.header(HttpHeaders.CONTENT_ENCODING, coding.getToken()).body(compressed);
+    }
+
+    private byte[] compress(ContentCoding coding, byte[] body) {
+        boolean cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        long start = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime();
+        byte[] compressed = coding.compress(body);
+        long elapsed = (cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : System.nanoTime()) - start;
+
+        compressionCpu.get(coding).record(elapsed, TimeUnit.NANOSECONDS);
+        rawBytes.get(coding).increment(body.length);
+        compressedBytes.get(coding).increment(compressed.length);
+        return compressed;
+    }
+}
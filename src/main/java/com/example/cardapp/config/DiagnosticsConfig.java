@@ -0,0 +1,79 @@
+package com.example.cardapp.config;
+
+import com.example.cardapp.diagnostics.ProfilingHandlerAdapter;
+import com.example.cardapp.diagnostics.ProfilingInterceptor;
+import com.example.cardapp.diagnostics.RequestProfileEndpoint;
+import com.example.cardapp.diagnostics.RequestProfiler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Opt-in request diagnostics, enabled with cards.diagnostics.enabled=true.
+ * Profiles the bytes allocated and CPU time used by every API request per phase (auth, bind, validate,
+ * service, serialize) and exposes the histograms at /actuator/requestprofile (add it to
+ * management.endpoints.web.exposure.include).
+ * <p>
+ * The beans always exist and the property is checked when the MVC infrastructure is set up, because the
+ * AOT-processed startup path fixes the bean definitions at build time. When disabled, neither the interceptor nor
+ * the profiling handler adapter is installed, so requests pay nothing.
+ * The validate phase is marked by WebConfig, which wraps the MVC validator when the RequestProfiler is enabled.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DiagnosticsConfig implements WebMvcConfigurer {
+
+    private final RequestProfiler requestProfiler;
+
+    public DiagnosticsConfig(@Value("${cards.diagnostics.enabled:false}") boolean enabled,
+                             @Value("${cards.diagnostics.jfr.enabled:false}") boolean jfrEnabled,
+                             @Value("${cards.diagnostics.jfr.max-age:10m}") Duration jfrMaxAge,
+                             @Value("${cards.diagnostics.jfr.dump-directory:${java.io.tmpdir}}") Path dumpDirectory) {
+        this.requestProfiler = new RequestProfiler(enabled, jfrEnabled, jfrMaxAge, dumpDirectory);
+    }
+
+    @Bean(destroyMethod = "close")
+    public RequestProfiler requestProfiler() {
+        return requestProfiler;
+    }
+
+    @Bean
+    public RequestProfileEndpoint requestProfileEndpoint() {
+        return new RequestProfileEndpoint(requestProfiler);
+    }
+
+    /**
+     * Replaces the MVC handler adapter with one that marks the bind, service and serialize phases.
+     * When disabled no adapter is returned, so MVC creates its default one.
+     */
+    @Bean
+    public WebMvcRegistrations profilingWebMvcRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return requestProfiler.isEnabled() ? new ProfilingHandlerAdapter(requestProfiler) : null;
+            }
+        };
+    }
+
+    /**
+     * Registers the profiling interceptor ahead of every other interceptor, AuthInterceptor included.
+     * @param registry The InterceptorRegistry to add interceptors to.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!requestProfiler.isEnabled()) {
+            return;
+        }
+        registry.addInterceptor(new ProfilingInterceptor(requestProfiler))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.cardapp.config;
+
+import com.example.cardapp.security.InProcessSessionTransport;
+import com.example.cardapp.security.SessionTransport;
+import com.example.cardapp.security.TokenSessionRegistry;
+import com.example.cardapp.service.CoarseClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Wires the token session registry, which replicates logins and logouts between the nodes listed in
+ * cards.cluster.nodes. Unless another SessionTransport bean is provided, the other nodes' registries are
+ * simulated in-process, as StoreConfig does for their card stores.
+ * Bean methods receive their dependencies as parameters, so the class is not proxied.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SessionConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(SessionTransport.class)
+    public InProcessSessionTransport sessionTransport(CoarseClock clock,
+                                                      @Value("${cards.cluster.nodes:node-1}") String[] nodes,
+                                                      @Value("${cards.cluster.node-id:node-1}") String nodeId,
+                                                      @Value("${cards.sessions.bloom-bits:1048576}") int bloomBits) {
+        InProcessSessionTransport transport = new InProcessSessionTransport();
+        for (String node : nodes) {
+            if (!node.equals(nodeId)) {
+                // Simulated peers only receive pushes and answer pulls; the local registry registers itself
+                transport.register(node, new TokenSessionRegistry(node, Arrays.asList(nodes), transport, clock, bloomBits, Duration.ZERO));
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * This node's registry. It pulls the peers' states on startup and then from one random peer every
+     * cards.sessions.gossip-interval.
+     */
+    @Bean
+    public TokenSessionRegistry tokenSessionRegistry(SessionTransport sessionTransport,
+                                                     CoarseClock clock,
+                                                     @Value("${cards.cluster.nodes:node-1}") String[] nodes,
+                                                     @Value("${cards.cluster.node-id:node-1}") String nodeId,
+                                                     @Value("${cards.sessions.bloom-bits:1048576}") int bloomBits,
+                                                     @Value("${cards.sessions.gossip-interval:30s}") Duration gossipInterval) {
+        TokenSessionRegistry registry = new TokenSessionRegistry(nodeId, Arrays.asList(nodes), sessionTransport, clock, bloomBits, gossipInterval);
+        if (sessionTransport instanceof InProcessSessionTransport inProcess) {
+            inProcess.register(nodeId, registry);
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.cardapp.config;
+
+import com.example.cardapp.codec.CardBinaryCodec;
+import com.example.cardapp.store.CardStore;
+import com.example.cardapp.store.ConsistentHashRing;
+import com.example.cardapp.store.InProcessShardTransport;
+import com.example.cardapp.store.JournaledCardStore;
+import com.example.cardapp.store.PartitionedCardStore;
+import com.example.cardapp.store.ShardTransport;
+import com.example.cardapp.store.ShardedCardStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Wires the card store.
+ * Cards are partitioned by card number over the nodes listed in cards.cluster.nodes; this JVM serves the
+ * shard of cards.cluster.node-id. Unless another ShardTransport bean is provided, the other nodes are
+ * simulated in-process, which is also how a single-node deployment runs.
+ * Within each node, cards are partitioned by card product type (PartitionedCardStore), and optionally journaled
+ * to disk (JournaledCardStore).
+ * Bean methods receive their dependencies as parameters, so the class is not proxied.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StoreConfig {
+
+    @Bean
+    public ConsistentHashRing cardHashRing(@Value("${cards.cluster.nodes:node-1}") String[] nodes,
+                                           @Value("${cards.cluster.virtual-nodes:128}") int virtualNodes) {
+        return new ConsistentHashRing(Arrays.asList(nodes), virtualNodes);
+    }
+
+    /**
+     * The cards of this node. With cards.journal.enabled, writes are journaled to cards.journal.dir and the cards
+     * are restored from there on startup (JournaledCardStore); the bean is closed on shutdown, writing a checkpoint.
+     */
+    @Bean
+    public CardStore localCardStore(CardBinaryCodec cardBinaryCodec,
+                                    @Value("${cards.journal.enabled:false}") boolean journalEnabled,
+                                    @Value("${cards.journal.dir:${java.io.tmpdir}/card-journal}") Path journalDirectory,
+                                    @Value("${cards.journal.segment-size:64MB}") DataSize segmentSize,
+                                    @Value("${cards.journal.fsync:true}") boolean fsync,
+                                    @Value("${cards.journal.checkpoint-records:100000}") long checkpointRecords) throws IOException {
+        PartitionedCardStore cards = new PartitionedCardStore();
+        if (!journalEnabled) {
+            return cards;
+        }
+        return new JournaledCardStore(cards, journalDirectory, cardBinaryCodec, segmentSize.toBytes(), fsync, checkpointRecords);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ShardTransport.class)
+    public InProcessShardTransport shardTransport(ConsistentHashRing cardHashRing,
+                                                  @Qualifier("localCardStore") CardStore localCardStore,
+                                                  @Value("${cards.cluster.node-id:node-1}") String nodeId) {
+        InProcessShardTransport transport = new InProcessShardTransport();
+        for (String node : cardHashRing.getNodes()) {
+            transport.register(node, node.equals(nodeId) ? localCardStore : new PartitionedCardStore());
+        }
+        return transport;
+    }
+
+    @Bean
+    @Primary
+    public CardStore cardStore(ConsistentHashRing cardHashRing,
+                               @Qualifier("localCardStore") CardStore localCardStore,
+                               ShardTransport shardTransport,
+                               @Value("${cards.cluster.node-id:node-1}") String nodeId,
+                               @Value("${cards.cluster.request-timeout-ms:2000}") long timeoutMillis) {
+        return new ShardedCardStore(nodeId, localCardStore, cardHashRing, shardTransport, timeoutMillis);
+    }
+}
@@ -1,23 +1,54 @@
 package com.example.cardapp.config;
 
+import com.example.cardapp.codec.CardBinaryCodec;
+import com.example.cardapp.codec.CardBinaryHttpMessageConverter;
+import com.example.cardapp.codec.CardJsonCodec;
+import com.example.cardapp.codec.CardJsonHttpMessageConverter;
+import com.example.cardapp.diagnostics.ProfilingValidator;
+import com.example.cardapp.diagnostics.RequestProfiler;
 import com.example.cardapp.security.AuthInterceptor;
+import com.example.cardapp.validation.CardRequestValidator;
+import com.example.cardapp.validation.FastPathValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
- * Web configuration to register the AuthInterceptor.
+ * Web configuration to register the AuthInterceptor, the card message converters and the request validator.
  * This ensures the interceptor is applied to all incoming API requests.
  */
-@Configuration
+@Configuration(proxyBeanMethods = false)
 public class WebConfig implements WebMvcConfigurer {
 
     private final AuthInterceptor authInterceptor;
+    private final CardJsonCodec cardJsonCodec;
+    private final CardBinaryCodec cardBinaryCodec;
+    private final ObjectMapper objectMapper;
+    private final CardRequestValidator cardRequestValidator;
+    private final SmartValidator defaultValidator;
+    private final ObjectProvider<RequestProfiler> requestProfiler;
 
     @Autowired
-    public WebConfig(AuthInterceptor authInterceptor) {
+    public WebConfig(AuthInterceptor authInterceptor, CardJsonCodec cardJsonCodec, CardBinaryCodec cardBinaryCodec, ObjectMapper objectMapper,
+                     CardRequestValidator cardRequestValidator,
+                     @Qualifier("defaultValidator") SmartValidator defaultValidator,
+                     ObjectProvider<RequestProfiler> requestProfiler) {
         this.authInterceptor = authInterceptor;
+        this.cardJsonCodec = cardJsonCodec;
+        this.cardBinaryCodec = cardBinaryCodec;
+        this.objectMapper = objectMapper;
+        this.cardRequestValidator = cardRequestValidator;
+        this.defaultValidator = defaultValidator;
+        this.requestProfiler = requestProfiler;
     }
 
     /**
@@ -29,4 +60,28 @@ public class WebConfig implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(authInterceptor).addPathPatterns("/api/**");
     }
-}
\ No newline at end of file
+
+    /**
+     * Puts the streaming card codec in front of the default Jackson converter,
+     * so card DTOs skip databind while every other payload is handled as before.
+     * The binary converter comes second so that JSON stays the default for clients that accept anything.
+     * @param converters The converters configured so far.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new CardJsonHttpMessageConverter(cardJsonCodec, objectMapper));
+        converters.add(1, new CardBinaryHttpMessageConverter(cardBinaryCodec));
+    }
+
+    /**
+     * Validates @Valid request DTOs with the hand-written CardRequestValidator checks, and everything else with the
+     * default bean validator. With request diagnostics enabled, the validator also marks the validate phase.
+     * @return The MVC validator.
+     */
+    @Override
+    public Validator getValidator() {
+        SmartValidator validator = new FastPathValidator(cardRequestValidator, defaultValidator);
+        RequestProfiler profiler = requestProfiler.getIfAvailable();
+        return profiler != null && profiler.isEnabled() ? new ProfilingValidator(validator, profiler) : validator;
+    }
+}
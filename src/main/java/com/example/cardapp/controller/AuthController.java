@@ -1,11 +1,19 @@
 package com.example.cardapp.controller;
 
+import com.example.cardapp.audit.AuditLog;
+import com.example.cardapp.audit.AuditRecordType;
 import com.example.cardapp.dto.ErrorResponse;
 import com.example.cardapp.dto.LoginRequest;
+import com.example.cardapp.security.AuthContext;
+import com.example.cardapp.security.BearerTokenAuthenticator;
+import com.example.cardapp.security.LoginThrottle;
+import com.example.cardapp.security.WarmupTraffic;
+import com.example.cardapp.service.CoarseClock;
 import com.example.cardapp.service.TokenService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -14,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.validation.FieldError;
 
@@ -29,26 +38,66 @@ import java.util.stream.Collectors;
 public class AuthController {
 
     private final TokenService tokenService;
+    private final BearerTokenAuthenticator authenticator;
+    private final CoarseClock clock;
+    private final AuditLog auditLog;
+    private final LoginThrottle loginThrottle;
+    private final WarmupTraffic warmupTraffic;
 
     @Autowired
-    public AuthController(TokenService tokenService) {
+    public AuthController(TokenService tokenService, BearerTokenAuthenticator authenticator, CoarseClock clock, AuditLog auditLog,
+                          LoginThrottle loginThrottle, WarmupTraffic warmupTraffic) {
         this.tokenService = tokenService;
+        this.authenticator = authenticator;
+        this.clock = clock;
+        this.auditLog = auditLog;
+        this.loginThrottle = loginThrottle;
+        this.warmupTraffic = warmupTraffic;
     }
 
     /**
      * Endpoint for user login.
      * Authenticates the user with provided credentials and returns a time-based token.
+     * The outcome is recorded in the audit log with the client address. After too many failed logins for the
+     * user id or from the client address, logins are refused by the LoginThrottle before the credentials are checked.
+     * Warm-up logins bypass the LoginThrottle and are neither audited nor recorded in the TokenSessionRegistry.
      *
      * @param request The LoginRequest DTO containing userId and password.
-     * @return A ResponseEntity containing the generated token or an ErrorResponse.
+     * @return A ResponseEntity containing the generated token or an ErrorResponse (401, or 429 with Retry-After).
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        String clientAddress = httpRequest.getRemoteAddr();
+        boolean warmup = warmupTraffic.isWarmup(httpRequest.getHeader(WarmupTraffic.HEADER));
+        // Warm-up logins are never throttled, so clients failing logins during startup cannot cut the warm-up short
+        long retryAfter = warmup ? 0 : loginThrottle.retryAfterSeconds(request.getUserId(), clientAddress);
+        if (retryAfter > 0) {
+            auditLog.record(AuditRecordType.LOGIN_THROTTLED, request.getUserId(), clientAddress);
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.TOO_MANY_REQUESTS.value(),
+                    HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                    "Too many failed logins. Try again in " + retryAfter + " seconds.",
+                    httpRequest.getRequestURI()
+            );
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                    .body(errorResponse);
+        }
         try {
             String token = tokenService.generateToken(request.getUserId(), request.getPassword());
+            if (!warmup) {
+                authenticator.loggedIn(token, request.getUserId());
+                auditLog.record(AuditRecordType.LOGIN_SUCCEEDED, request.getUserId(), clientAddress);
+            }
             return ResponseEntity.ok(Collections.singletonMap("token", token));
         } catch (IllegalArgumentException ex) {
+            if (!warmup) {
+                loginThrottle.loginFailed(request.getUserId(), clientAddress);
+                auditLog.record(AuditRecordType.LOGIN_FAILED, request.getUserId(), clientAddress);
+            }
             ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
                     HttpStatus.UNAUTHORIZED.value(),
                     HttpStatus.UNAUTHORIZED.getReasonPhrase(),
                     ex.getMessage(),
@@ -58,6 +107,28 @@ public class AuthController {
         }
     }
 
+    /**
+     * Endpoint for user logout.
+     * Revokes the request's bearer token on every node; requests with it are rejected from then on,
+     * until the user logs in again. Static tokens cannot be logged out. Authentication is handled by AuthInterceptor.
+     *
+     * @return An empty 204 No Content response, or an ErrorResponse (400 Bad Request) for a static token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization, HttpServletRequest httpRequest) {
+        if (!authenticator.logout(authorization, AuthContext.getCurrentUser())) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.BAD_REQUEST.value(),
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "Static tokens cannot be logged out.",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Exception handler for @Valid DTO validation errors specific to this controller.
      *
@@ -73,6 +144,7 @@ public class AuthController {
                 .collect(Collectors.joining("; "));
 
         ErrorResponse errorResponse = new ErrorResponse(
+                clock.now(),
                 HttpStatus.BAD_REQUEST.value(),
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 "Validation Error: " + errorMessage,
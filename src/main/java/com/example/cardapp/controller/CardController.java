@@ -1,49 +1,101 @@
 package com.example.cardapp.controller;
 
+import com.example.cardapp.codec.CardList;
+import com.example.cardapp.codec.EncodedListing;
+import com.example.cardapp.codec.ListingCache;
+import com.example.cardapp.codec.ListingEncoder;
+import com.example.cardapp.dto.AmountRequest;
 import com.example.cardapp.dto.CardCreationRequest;
 import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.dto.CardSummary;
 import com.example.cardapp.dto.ErrorResponse;
+import com.example.cardapp.dto.ExportResult;
+import com.example.cardapp.dto.ImportResult;
+import com.example.cardapp.dto.SwipeRequest;
+import com.example.cardapp.export.CardExportFormat;
+import com.example.cardapp.export.CardExportService;
+import com.example.cardapp.export.ExportFileSender;
+import com.example.cardapp.importer.CardImportFormat;
+import com.example.cardapp.importer.CardImportService;
 import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.product.CardProducts;
+import com.example.cardapp.reporting.CardAggregates;
+import com.example.cardapp.search.CardSearchIndex;
+import com.example.cardapp.security.AuthContext;
+import com.example.cardapp.security.AuthUser;
 import com.example.cardapp.service.CardService;
+import com.example.cardapp.service.CoarseClock;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * REST Controller for managing card-related operations.
- * Exposes endpoints for card creation validation and listing all cards.
+ * Exposes endpoints for card creation and listing all cards.
  * Includes exception handling to return standardized ErrorResponse objects.
  */
 @RestController
 @RequestMapping("/api/cards")
 public class CardController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CardService cardService;
+    private final ListingEncoder listingEncoder;
+    private final ListingCache listingCache;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final CardImportService cardImportService;
+    private final CardExportService cardExportService;
+    private final CardAggregates cardAggregates;
+    private final CardSearchIndex cardSearchIndex;
+    private final CoarseClock clock;
 
     @Autowired
-    public CardController(CardService cardService) {
+    public CardController(CardService cardService, ListingEncoder listingEncoder, ListingCache listingCache,
+                          ContentNegotiationManager contentNegotiationManager, CardImportService cardImportService,
+                          CardExportService cardExportService, CardAggregates cardAggregates, CardSearchIndex cardSearchIndex,
+                          CoarseClock clock) {
         this.cardService = cardService;
+        this.listingEncoder = listingEncoder;
+        this.listingCache = listingCache;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.cardImportService = cardImportService;
+        this.cardExportService = cardExportService;
+        this.cardAggregates = cardAggregates;
+        this.cardSearchIndex = cardSearchIndex;
+        this.clock = clock;
     }
 
     /**
      * Endpoint for creating a new card.
-     * This endpoint primarily validates the incoming request payload against business rules.
+     * Validates the incoming request payload against business rules and stores the card.
      * Authentication is handled by AuthInterceptor.
      *
      * @param request The CardCreationRequest DTO containing card details.
@@ -58,6 +110,7 @@ public class CardController {
             // Catch exceptions thrown by the service layer (e.g., business rule violations, forbidden access)
             HttpStatus status = (HttpStatus) ex.getStatusCode();
             ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
                     status.value(),
                     status.getReasonPhrase(),
                     ex.getReason(), // Use the reason from ResponseStatusException as the message
@@ -69,34 +122,456 @@ public class CardController {
 
     /**
      * Endpoint for listing all existing cards.
-     * Returns a hardcoded list of card information, filtered by card product type.
+     * Returns the stored card information, filtered by card product type.
+     * The listing is encoded as JSON or card binary according to the Accept header,
+     * and compressed when the client sends a supported Accept-Encoding.
+     * Responses carry an ETag derived from the version of the product's store partition; a matching If-None-Match yields 304 Not Modified.
+     * When page is given, only that page of the listing is returned.
+     * Encoded listings are served from the ListingCache while the product's store version is unchanged.
      * Authentication is handled by AuthInterceptor.
      *
      * @param cardProduct The type of cards to filter by (PREPAID or LIMITED_USE).
-     * @return A List of CardResponse DTOs.
+     * @param page The optional zero-based page number.
+     * @param size The optional page size (default 20, at most 100), only used with page.
+     * @return The encoded list of CardResponse DTOs.
+     * @throws HttpMediaTypeNotAcceptableException if the client accepts neither JSON nor card binary.
      */
     @GetMapping
-    public ResponseEntity<?> getAllCards(@RequestParam String cardProduct, HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getAllCards(@RequestParam String cardProduct,
+                                         @RequestParam(required = false) Integer page,
+                                         @RequestParam(required = false) Integer size,
+                                         HttpServletRequest httpRequest,
+                                         HttpServletResponse httpResponse) throws HttpMediaTypeNotAcceptableException {
         CardProductType type;
         try {
             type = CardProductType.valueOf(cardProduct.toUpperCase());
         } catch (IllegalArgumentException e) {
             // Handle invalid cardProduct query parameter specifically
             ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.BAD_REQUEST.value(),
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "Invalid cardProduct parameter. Must be " + CardProducts.quotedNames() + ".",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if ((page != null && page < 0) || (size != null && (size < 1 || size > MAX_PAGE_SIZE))) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.BAD_REQUEST.value(),
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "Invalid paging parameters. page must be 0 or greater and size between 1 and " + MAX_PAGE_SIZE + ".",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+
+        MediaType format = listingEncoder.selectFormat(contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(httpRequest)));
+        if (format == null) {
+            throw new HttpMediaTypeNotAcceptableException(listingEncoder.getSupportedFormats());
+        }
+
+        try {
+            cardService.checkListingAccess(type);
+            int pageNumber = page != null ? page : -1;
+            int pageSize = page != null ? (size != null ? size : DEFAULT_PAGE_SIZE) : 0;
+            AuthUser user = AuthContext.getCurrentUser();
+            ListingCache.Key key = new ListingCache.Key(user != null ? user.getRole() : null, type, pageNumber, pageSize, format);
+            long version = cardService.getVersion(type);
+            EncodedListing listing = listingCache.get(key, version, () -> {
+                List<CardResponse> cards = page != null
+                        ? cardService.getCards(type, pageNumber, pageSize)
+                        : cardService.getAllCards(type);
+                return listingEncoder.encode(cards, format, version);
+            });
+            ServletWebRequest webRequest = new ServletWebRequest(httpRequest, httpResponse);
+            if (webRequest.checkNotModified(listingEncoder.eTag(listing.getVersion(), format))) {
+                return null;
+            }
+            return listingEncoder.toResponse(listing, httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for searching cards by words of their title or description.
+     * Every word of the query must start a word of the card's title or description; cards matching more
+     * words in the title rank first. The same user permissions as for listing apply.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardProduct The type of cards to search (PREPAID or LIMITED_USE).
+     * @param q The query, e.g. "trav card".
+     * @param limit The maximum number of cards to return (default 20, at most 100).
+     * @return A ResponseEntity with the matching CardResponse DTOs, best first (200 OK), or an ErrorResponse.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchCards(@RequestParam String cardProduct,
+                                         @RequestParam String q,
+                                         @RequestParam(defaultValue = "20") int limit,
+                                         HttpServletRequest httpRequest) {
+        CardProductType type;
+        try {
+            type = CardProductType.valueOf(cardProduct.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.BAD_REQUEST.value(),
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "Invalid cardProduct parameter. Must be " + CardProducts.quotedNames() + ".",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if (q.chars().noneMatch(Character::isLetterOrDigit) || limit < 1 || limit > MAX_PAGE_SIZE) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.BAD_REQUEST.value(),
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "Invalid search parameters. q must contain a letter or digit and limit be between 1 and " + MAX_PAGE_SIZE + ".",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            cardService.checkListingAccess(type);
+            List<CardResponse> cards = cardSearchIndex.search(type, q, limit);
+            return ResponseEntity.ok(new CardList(cards));
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for reporting totals of a card product type per card creator: cards issued, total load amount,
+     * remaining current load and swipes. Served from running totals, so its cost does not depend on the number of cards.
+     * The same user permissions as for listing apply.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardProduct The type of cards to summarize (PREPAID or LIMITED_USE).
+     * @param cardCreator Optionally restricts the breakdown to one creator.
+     * @return A ResponseEntity with the CardSummary (200 OK) or an ErrorResponse.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary(@RequestParam String cardProduct,
+                                        @RequestParam(required = false) String cardCreator,
+                                        HttpServletRequest httpRequest) {
+        CardProductType type;
+        try {
+            type = CardProductType.valueOf(cardProduct.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.BAD_REQUEST.value(),
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                    "Invalid cardProduct parameter. Must be " + CardProducts.quotedNames() + ".",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            cardService.checkListingAccess(type);
+            CardSummary summary = cardAggregates.summarize(type, cardCreator);
+            return ResponseEntity.ok(summary);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for swiping a card.
+     * Charges the amount against the card's current load and counts the swipe.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardNumber The number of the card to swipe.
+     * @param request The SwipeRequest DTO containing the amount.
+     * @return A ResponseEntity with the updated CardResponse (200 OK) or an ErrorResponse.
+     */
+    @PostMapping("/{cardNumber}/swipe")
+    public ResponseEntity<?> swipeCard(@PathVariable String cardNumber, @Valid @RequestBody SwipeRequest request, HttpServletRequest httpRequest) {
+        try {
+            CardResponse card = cardService.swipe(cardNumber, request.getAmount());
+            return ResponseEntity.ok(card);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for reloading a Prepaid card.
+     * Adds the amount to both the card's load amount and its current load.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardNumber The number of the card to reload.
+     * @param request The AmountRequest DTO containing the amount.
+     * @return A ResponseEntity with the updated CardResponse (200 OK) or an ErrorResponse.
+     */
+    @PostMapping("/{cardNumber}/reload")
+    public ResponseEntity<?> reloadCard(@PathVariable String cardNumber, @Valid @RequestBody AmountRequest request, HttpServletRequest httpRequest) {
+        try {
+            CardResponse card = cardService.reload(cardNumber, request.getAmount());
+            return ResponseEntity.ok(card);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for refunding a charge to a card.
+     * Returns the amount to the card's current load and, for Limited Use cards, gives back one swipe.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardNumber The number of the card to refund.
+     * @param request The AmountRequest DTO containing the amount.
+     * @return A ResponseEntity with the updated CardResponse (200 OK) or an ErrorResponse.
+     */
+    @PostMapping("/{cardNumber}/refund")
+    public ResponseEntity<?> refundCard(@PathVariable String cardNumber, @Valid @RequestBody AmountRequest request, HttpServletRequest httpRequest) {
+        try {
+            CardResponse card = cardService.refund(cardNumber, request.getAmount());
+            return ResponseEntity.ok(card);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for reading a card's balance.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardNumber The number of the card.
+     * @return A ResponseEntity with the CardBalance (200 OK) or an ErrorResponse.
+     */
+    @GetMapping("/{cardNumber}/balance")
+    public ResponseEntity<?> getBalance(@PathVariable String cardNumber, HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(cardService.getBalance(cardNumber));
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for importing cards in bulk.
+     * Streams a CSV (text/csv) or NDJSON (application/x-ndjson) upload, validates every row with the same rules
+     * as card creation and stores the accepted rows. Rejected rows do not fail the import; they are listed in
+     * the error file named in the result.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param httpRequest The HTTP request carrying the upload.
+     * @return A ResponseEntity with the ImportResult (200 OK) or an ErrorResponse if the upload is unreadable.
+     * @throws IOException if the request body cannot be opened.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importCards(HttpServletRequest httpRequest) throws IOException {
+        CardImportFormat format = CardImportFormat.fromContentType(MediaType.parseMediaType(httpRequest.getContentType()));
+        try {
+            ImportResult result = cardImportService.importCards(httpRequest.getInputStream(), format);
+            return ResponseEntity.ok(result);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for listing the current user's running and recently finished imports with their progress.
+     *
+     * @return The user's recent ImportResults, oldest first.
+     */
+    @GetMapping("/import")
+    public List<ImportResult> getImports() {
+        return cardImportService.getRecentImports();
+    }
+
+    /**
+     * Endpoint for the progress or outcome of one import.
+     * Another user's import is reported as not found, so import ids cannot be probed.
+     *
+     * @param importId The import id from the ImportResult.
+     * @return A ResponseEntity with the ImportResult (200 OK) or an ErrorResponse (404 Not Found).
+     */
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<?> getImport(@PathVariable String importId, HttpServletRequest httpRequest) {
+        ImportResult result = cardImportService.getProgress(importId);
+        if (result == null) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    HttpStatus.NOT_FOUND.value(),
+                    HttpStatus.NOT_FOUND.getReasonPhrase(),
+                    "Not Found: Import not found.",
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Endpoint for starting a background export of all cards of a product type to a file.
+     * Returns immediately; the export's progress is available from its Location.
+     * The same user permissions as for listing apply.
+     * Authentication is handled by AuthInterceptor.
+     *
+     * @param cardProduct The type of cards to export (PREPAID or LIMITED_USE).
+     * @param format The file format, NDJSON (default) or BINARY.
+     * @return A ResponseEntity with the ExportResult (202 Accepted) or an ErrorResponse.
+     */
+    @PostMapping("/export")
+    public ResponseEntity<?> startExport(@RequestParam String cardProduct,
+                                         @RequestParam(defaultValue = "NDJSON") String format,
+                                         HttpServletRequest httpRequest) {
+        CardProductType type;
+        CardExportFormat exportFormat;
+        try {
+            type = CardProductType.valueOf(cardProduct.toUpperCase());
+            exportFormat = CardExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
                     HttpStatus.BAD_REQUEST.value(),
                     HttpStatus.BAD_REQUEST.getReasonPhrase(),
-                    "Invalid cardProduct parameter. Must be 'PREPAID' or 'LIMITED_USE'.",
+                    "Invalid export parameters. cardProduct must be " + CardProducts.quotedNames() + " and format 'NDJSON' or 'BINARY'.",
                     httpRequest.getRequestURI()
             );
             return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
         }
+        try {
+            cardService.checkListingAccess(type);
+            ExportResult result = cardExportService.startExport(type, exportFormat);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/cards/export/" + result.getExportId()))
+                    .body(result);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
 
+    /**
+     * Endpoint for the progress or outcome of an export.
+     *
+     * @param exportId The export id from the ExportResult.
+     * @return A ResponseEntity with the ExportResult (200 OK) or an ErrorResponse (404 Not Found).
+     */
+    @GetMapping("/export/{exportId}")
+    public ResponseEntity<?> getExport(@PathVariable String exportId, HttpServletRequest httpRequest) {
+        ExportResult result = cardExportService.getExport(exportId);
+        try {
+            if (result == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Export not found.");
+            }
+            cardService.checkListingAccess(result.getCardProduct());
+            return ResponseEntity.ok(result);
+        } catch (ResponseStatusException ex) {
+            HttpStatus status = (HttpStatus) ex.getStatusCode();
+            ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
+                    status.value(),
+                    status.getReasonPhrase(),
+                    ex.getReason(),
+                    httpRequest.getRequestURI()
+            );
+            return new ResponseEntity<>(errorResponse, status);
+        }
+    }
+
+    /**
+     * Endpoint for downloading a completed export.
+     * The file is sent without copying it through the heap, and a single Range is honoured so downloads can resume.
+     *
+     * @param exportId The export id from the ExportResult.
+     * @return Null when the file was written to the response, otherwise a ResponseEntity with an ErrorResponse
+     *         (404 Not Found, or 409 Conflict while the export is still running or if it failed).
+     * @throws IOException if the file cannot be sent.
+     */
+    @GetMapping("/export/{exportId}/file")
+    public ResponseEntity<?> downloadExport(@PathVariable String exportId, HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        ExportResult result = cardExportService.getExport(exportId);
+        Path file = cardExportService.getExportFile(exportId);
         try {
-            List<CardResponse> cards = cardService.getAllCards(type);
-            return ResponseEntity.ok(cards);
+            if (result == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Export not found.");
+            }
+            cardService.checkListingAccess(result.getCardProduct());
+            if (file == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Export is " + result.getStatus() + ", no file to download.");
+            }
         } catch (ResponseStatusException ex) {
             HttpStatus status = (HttpStatus) ex.getStatusCode();
             ErrorResponse errorResponse = new ErrorResponse(
+                    clock.now(),
                     status.value(),
                     status.getReasonPhrase(),
                     ex.getReason(),
@@ -104,6 +579,9 @@ public class CardController {
             );
             return new ResponseEntity<>(errorResponse, status);
         }
+        CardExportFormat format = CardExportFormat.valueOf(result.getFormat());
+        ExportFileSender.send(file, format.getMediaType(), "\"" + exportId + "\"", httpRequest, httpResponse);
+        return null;
     }
 
     /**
@@ -122,6 +600,7 @@ public class CardController {
                 .collect(Collectors.joining("; "));
 
         ErrorResponse errorResponse = new ErrorResponse(
+                clock.now(),
                 HttpStatus.BAD_REQUEST.value(),
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 "Validation Error: " + errorMessage,
@@ -0,0 +1,49 @@
+package com.example.cardapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one authentication decision of BearerTokenAuthenticator.
+ */
+@Name("com.example.cardapp.Authentication")
+@Label("Authentication")
+@Category({"Card App", "Security"})
+@Description("Authentication of an API request by bearer token")
+@StackTrace(false)
+public class AuthenticationEvent extends Event {
+
+    /**
+     * Outcome of a static token match.
+     */
+    public static final String STATIC_TOKEN = "static-token";
+    /**
+     * Outcome of a valid time-based token.
+     */
+    public static final String TIME_BASED_TOKEN = "time-based-token";
+    /**
+     * Outcome when the Authorization header is missing or not a bearer token.
+     */
+    public static final String MISSING_HEADER = "missing-header";
+    /**
+     * Outcome when the token is unknown or expired.
+     */
+    public static final String INVALID_TOKEN = "invalid-token";
+    /**
+     * Outcome when the token was logged out.
+     */
+    public static final String REVOKED_TOKEN = "revoked-token";
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Role")
+    public String role;
+
+    @Label("Path")
+    public String path;
+}
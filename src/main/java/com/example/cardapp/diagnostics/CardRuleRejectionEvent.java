@@ -0,0 +1,28 @@
+package com.example.cardapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a card creation request rejected by a business rule or permission check.
+ */
+@Name("com.example.cardapp.CardRuleRejection")
+@Label("Card Rule Rejection")
+@Category({"Card App", "Cards"})
+@Description("A card creation request rejected by a business rule or permission check")
+@StackTrace(false)
+public class CardRuleRejectionEvent extends Event {
+
+    @Label("Rule")
+    public String rule;
+
+    @Label("Card Product")
+    public String cardProduct;
+
+    @Label("Status")
+    public int status;
+}
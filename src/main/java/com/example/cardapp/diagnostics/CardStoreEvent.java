@@ -0,0 +1,32 @@
+package com.example.cardapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one card store read or write, with the number of cards it returned or wrote.
+ */
+@Name("com.example.cardapp.CardStore")
+@Label("Card Store Operation")
+@Category({"Card App", "Cards"})
+@Description("A card store read or write")
+@StackTrace(false)
+public class CardStoreEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Card Product")
+    public String cardProduct;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Nodes")
+    @Description("Number of shard nodes the operation touched")
+    public int nodes;
+}
@@ -0,0 +1,64 @@
+package com.example.cardapp.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Allocation and CPU histograms of one endpoint, for whole requests and for each phase.
+ */
+public class EndpointProfile {
+
+    private final Log2Histogram allocatedBytes = new Log2Histogram();
+    private final Log2Histogram cpuNanos = new Log2Histogram();
+    private final Log2Histogram[] phaseAllocatedBytes = new Log2Histogram[RequestPhase.values().length];
+    private final Log2Histogram[] phaseCpuNanos = new Log2Histogram[RequestPhase.values().length];
+
+    public EndpointProfile() {
+        for (int i = 0; i < phaseAllocatedBytes.length; i++) {
+            phaseAllocatedBytes[i] = new Log2Histogram();
+            phaseCpuNanos[i] = new Log2Histogram();
+        }
+    }
+
+    /**
+     * Records one completed request.
+     *
+     * @param phaseBytes Bytes allocated in each phase, indexed by RequestPhase ordinal.
+     * @param phaseCpu CPU nanoseconds used in each phase, indexed by RequestPhase ordinal.
+     * @param phasesEntered Which phases the request reached, indexed by RequestPhase ordinal.
+     */
+    void record(long[] phaseBytes, long[] phaseCpu, boolean[] phasesEntered) {
+        long totalBytes = 0;
+        long totalCpu = 0;
+        for (int i = 0; i < phaseBytes.length; i++) {
+            if (phasesEntered[i]) {
+                phaseAllocatedBytes[i].record(phaseBytes[i]);
+                phaseCpuNanos[i].record(phaseCpu[i]);
+                totalBytes += phaseBytes[i];
+                totalCpu += phaseCpu[i];
+            }
+        }
+        allocatedBytes.record(totalBytes);
+        cpuNanos.record(totalCpu);
+    }
+
+    /**
+     * @return The request and per-phase summaries, keyed by name.
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("allocatedBytes", allocatedBytes.summary());
+        summary.put("cpuNanos", cpuNanos.summary());
+        Map<String, Object> phases = new LinkedHashMap<>();
+        for (RequestPhase phase : RequestPhase.values()) {
+            if (phaseAllocatedBytes[phase.ordinal()].getCount() > 0) {
+                Map<String, Object> phaseSummary = new LinkedHashMap<>();
+                phaseSummary.put("allocatedBytes", phaseAllocatedBytes[phase.ordinal()].summary());
+                phaseSummary.put("cpuNanos", phaseCpuNanos[phase.ordinal()].summary());
+                phases.put(phase.getLabel(), phaseSummary);
+            }
+        }
+        summary.put("phases", phases);
+        return summary;
+    }
+}
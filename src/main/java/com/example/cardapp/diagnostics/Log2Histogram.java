@@ -0,0 +1,85 @@
+package com.example.cardapp.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values with power-of-two buckets.
+ * Bucket i counts values v with 2^(i-1) <= v < 2^i (bucket 0 counts zeros), so recording is a
+ * leading-zero count and one LongAdder increment. Percentiles are reported as the upper bound of
+ * the bucket they fall into, i.e. they are accurate to within a factor of two.
+ */
+public class Log2Histogram {
+
+    private static final int BUCKETS = 65;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Log2Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value. Negative values are counted as zero.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        buckets[64 - Long.numberOfLeadingZeros(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Summarizes the histogram. Concurrent recording may make the figures slightly inconsistent with each other.
+     *
+     * @return count, mean, max, and p50/p90/p99 bucket upper bounds, keyed by name.
+     */
+    public Map<String, Object> summary() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", total);
+        summary.put("mean", total == 0 ? 0 : sum.sum() / total);
+        summary.put("max", max.get());
+        summary.put("p50", percentile(counts, total, 0.50));
+        summary.put("p90", percentile(counts, total, 0.90));
+        summary.put("p99", percentile(counts, total, 0.99));
+        return summary;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : (i == 64 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.cardapp.diagnostics;
+
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+/**
+ * RequestMappingHandlerAdapter that marks the phase boundaries inside handler invocation:
+ * argument resolution is BIND, the controller method is SERVICE and return value handling is SERIALIZE.
+ */
+public class ProfilingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final RequestProfiler profiler;
+
+    public ProfilingHandlerAdapter(RequestProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new ProfilingInvocableHandlerMethod(handlerMethod);
+    }
+
+    private final class ProfilingInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private ProfilingInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer, Object... providedArgs) throws Exception {
+            profiler.enter(RequestPhase.BIND);
+            super.invokeAndHandle(webRequest, mavContainer, providedArgs);
+        }
+
+        @Override
+        protected Object doInvoke(Object... args) throws Exception {
+            profiler.enter(RequestPhase.SERVICE);
+            try {
+                return super.doInvoke(args);
+            } finally {
+                profiler.enter(RequestPhase.SERIALIZE);
+            }
+        }
+    }
+}
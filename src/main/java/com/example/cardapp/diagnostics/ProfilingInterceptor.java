@@ -0,0 +1,47 @@
+package com.example.cardapp.diagnostics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens and closes the profile of each API request. Registered ahead of AuthInterceptor,
+ * so authentication is measured as the AUTH phase.
+ */
+public class ProfilingInterceptor implements HandlerInterceptor {
+
+    private final RequestProfiler profiler;
+
+    public ProfilingInterceptor(RequestProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Starts profiling the request under its endpoint key, e.g. "GET /api/cards".
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param handler The handler that will be executed.
+     * @return Always true.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        profiler.begin(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        return true;
+    }
+
+    /**
+     * Records the finished request. Also called when a later interceptor rejected the request.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param handler The handler that was executed.
+     * @param ex Any exception thrown during handler execution.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        profiler.end();
+    }
+}
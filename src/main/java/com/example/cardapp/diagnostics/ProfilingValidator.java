@@ -0,0 +1,44 @@
+package com.example.cardapp.diagnostics;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Wraps the MVC validator to mark the VALIDATE phase around @Valid argument validation.
+ * A failed validation leaves the request in VALIDATE, so writing the validation error is counted there.
+ */
+public class ProfilingValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+    private final RequestProfiler profiler;
+
+    public ProfilingValidator(SmartValidator delegate, RequestProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        RequestPhase previous = profiler.currentPhase();
+        profiler.enter(RequestPhase.VALIDATE);
+        delegate.validate(target, errors, validationHints);
+        if (previous != null && !errors.hasErrors()) {
+            profiler.enter(previous);
+        }
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors, Object... validationHints) {
+        delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+    }
+}
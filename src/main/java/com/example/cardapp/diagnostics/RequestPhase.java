@@ -0,0 +1,37 @@
+package com.example.cardapp.diagnostics;
+
+/**
+ * The phases a profiled request moves through, in order.
+ * A request that is rejected early (e.g. by authentication) simply ends in an earlier phase.
+ */
+public enum RequestPhase {
+    /**
+     * Interceptors, including token validation in AuthInterceptor.
+     */
+    AUTH,
+    /**
+     * Resolving handler method arguments: reading and deserializing the request body, converting parameters.
+     */
+    BIND,
+    /**
+     * Bean validation of @Valid arguments.
+     */
+    VALIDATE,
+    /**
+     * The controller method, including the service layer.
+     */
+    SERVICE,
+    /**
+     * Handling the return value: content negotiation and writing the response body.
+     */
+    SERIALIZE;
+
+    private final String label = name().toLowerCase();
+
+    /**
+     * @return The lowercase name used in reports and JFR events.
+     */
+    public String getLabel() {
+        return label;
+    }
+}
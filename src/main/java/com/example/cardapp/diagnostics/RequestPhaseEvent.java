@@ -0,0 +1,35 @@
+package com.example.cardapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event covering one phase of a profiled request. The event duration is the wall-clock time of the phase.
+ */
+@Name("com.example.cardapp.RequestPhase")
+@Label("Request Phase")
+@Category({"Card App", "Requests"})
+@Description("One phase of an API request with the bytes it allocated and the CPU time it used")
+@StackTrace(false)
+public class RequestPhaseEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long cpuTime;
+}
@@ -0,0 +1,51 @@
+package com.example.cardapp.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the request profiles at /actuator/requestprofile.
+ * GET returns the per-endpoint histograms, DELETE resets them and POST dumps the JFR recording to a file.
+ */
+@Endpoint(id = "requestprofile")
+public class RequestProfileEndpoint {
+
+    private final RequestProfiler profiler;
+
+    public RequestProfileEndpoint(RequestProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * @return Allocation and CPU histograms per endpoint and phase.
+     */
+    @ReadOperation
+    public Map<String, Object> profiles() {
+        return profiler.summary();
+    }
+
+    /**
+     * Discards the aggregated profiles.
+     */
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+
+    /**
+     * Dumps the in-memory JFR recording of request phase events.
+     *
+     * @return The path of the written recording.
+     * @throws IOException if the file cannot be written.
+     */
+    @WriteOperation
+    public Map<String, String> dump() throws IOException {
+        return Collections.singletonMap("file", profiler.dumpRecording().toString());
+    }
+}
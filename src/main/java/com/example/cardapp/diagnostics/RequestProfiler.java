@@ -0,0 +1,212 @@
+package com.example.cardapp.diagnostics;
+
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the bytes allocated and the CPU time used by each API request, per phase, using the per-thread
+ * counters of com.sun.management.ThreadMXBean. A request runs on one thread from its first interceptor to the
+ * end of response writing, so the counter deltas between phase boundaries belong to that request.
+ * <p>
+ * Results are aggregated per endpoint ("METHOD /pattern") into Log2Histograms. Each phase is also emitted as a
+ * RequestPhaseEvent, which any JFR recording can pick up; with cards.diagnostics.jfr.enabled the profiler keeps
+ * its own in-memory recording that can be dumped to a file on demand.
+ * <p>
+ * Always created by DiagnosticsConfig; unless cards.diagnostics.enabled is true it is disabled, measures nothing
+ * and no request reaches it.
+ */
+public class RequestProfiler {
+
+    private static final DateTimeFormatter DUMP_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final boolean enabled;
+    private final boolean cpuTimeSupported;
+
+    private final ThreadLocal<ActiveRequest> activeRequest = new ThreadLocal<>();
+    private final Map<String, EndpointProfile> endpoints = new ConcurrentHashMap<>();
+
+    private final Recording recording;
+    private final Path dumpDirectory;
+
+    /**
+     * @param enabled Whether requests are profiled at all; when false the JFR recording is not started either.
+     * @param jfrEnabled Whether to keep an in-memory JFR recording of request phase events.
+     * @param jfrMaxAge How long the recording keeps events.
+     * @param dumpDirectory Where dumpRecording writes its files.
+     */
+    public RequestProfiler(boolean enabled, boolean jfrEnabled, Duration jfrMaxAge, Path dumpDirectory) {
+        this.enabled = enabled;
+        if (enabled && threadMXBean.isThreadAllocatedMemorySupported() && !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        this.dumpDirectory = dumpDirectory;
+        if (enabled && jfrEnabled) {
+            recording = new Recording();
+            recording.setName("card-app-request-phases");
+            recording.enable(RequestPhaseEvent.class);
+            recording.setMaxAge(jfrMaxAge);
+            recording.setToDisk(false);
+            recording.start();
+        } else {
+            recording = null;
+        }
+    }
+
+    /**
+     * @return Whether requests are profiled, i.e. cards.diagnostics.enabled is true.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts profiling a request on the current thread, in phase AUTH.
+     *
+     * @param endpoint The endpoint key, e.g. "GET /api/cards".
+     */
+    public void begin(String endpoint) {
+        ActiveRequest request = new ActiveRequest(endpoint);
+        activeRequest.set(request);
+        request.open(RequestPhase.AUTH);
+    }
+
+    /**
+     * Moves the current thread's request into another phase. Does nothing if no request is being profiled
+     * or the request is already in that phase.
+     *
+     * @param phase The phase that starts now.
+     */
+    public void enter(RequestPhase phase) {
+        ActiveRequest request = activeRequest.get();
+        if (request != null && request.phase != phase) {
+            request.close();
+            request.open(phase);
+        }
+    }
+
+    /**
+     * @return The phase of the request on the current thread, or null if none is being profiled.
+     */
+    public RequestPhase currentPhase() {
+        ActiveRequest request = activeRequest.get();
+        return request != null ? request.phase : null;
+    }
+
+    /**
+     * Finishes profiling the current thread's request and adds it to its endpoint's histograms.
+     */
+    public void end() {
+        ActiveRequest request = activeRequest.get();
+        if (request == null) {
+            return;
+        }
+        activeRequest.remove();
+        request.close();
+        endpoints.computeIfAbsent(request.endpoint, key -> new EndpointProfile())
+                .record(request.phaseBytes, request.phaseCpu, request.phasesEntered);
+    }
+
+    /**
+     * @return The summary of every endpoint seen so far, sorted by endpoint.
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new TreeMap<>();
+        endpoints.forEach((endpoint, profile) -> summary.put(endpoint, profile.summary()));
+        return summary;
+    }
+
+    /**
+     * Discards all aggregated results.
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Writes the events currently held by the in-memory JFR recording to a new file.
+     *
+     * @return The path of the written file.
+     * @throws IllegalStateException if the JFR recording is not enabled.
+     * @throws IOException if the file cannot be written.
+     */
+    public Path dumpRecording() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("JFR recording is disabled; set cards.diagnostics.jfr.enabled=true.");
+        }
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve("request-phases-" + LocalDateTime.now().format(DUMP_FILE_TIME) + ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    /**
+     * Stops the in-memory JFR recording, if any.
+     */
+    public void close() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Per-request state, only touched by the thread serving the request.
+     */
+    private final class ActiveRequest {
+        private final String endpoint;
+        private final long[] phaseBytes = new long[RequestPhase.values().length];
+        private final long[] phaseCpu = new long[RequestPhase.values().length];
+        private final boolean[] phasesEntered = new boolean[RequestPhase.values().length];
+
+        private RequestPhase phase;
+        private long phaseStartBytes;
+        private long phaseStartCpu;
+        private RequestPhaseEvent event;
+
+        private ActiveRequest(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void open(RequestPhase next) {
+            phase = next;
+            phasesEntered[next.ordinal()] = true;
+            event = new RequestPhaseEvent();
+            event.begin();
+            phaseStartCpu = cpuTime();
+            phaseStartBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+
+        private void close() {
+            long bytes = threadMXBean.getCurrentThreadAllocatedBytes() - phaseStartBytes;
+            long cpu = cpuTime() - phaseStartCpu;
+            // A phase can be entered more than once (e.g. BIND around VALIDATE), so accumulate
+            phaseBytes[phase.ordinal()] += bytes;
+            phaseCpu[phase.ordinal()] += cpu;
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.phase = phase.getLabel();
+                event.allocatedBytes = bytes;
+                event.cpuTime = cpu;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.cardapp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one time-based token validation in TokenService.
+ */
+@Name("com.example.cardapp.TokenValidation")
+@Label("Token Validation")
+@Category({"Card App", "Security"})
+@Description("Validation of a time-based token, with the number of SHA-256 hashes it computed")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Hashes Computed")
+    public int hashesComputed;
+}
@@ -0,0 +1,56 @@
+package com.example.cardapp.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.Objects;
+
+/**
+ * DTO for the card reload and refund request payloads.
+ * Contains the amount to add to or return to the card.
+ */
+public class AmountRequest {
+
+    @NotNull(message = "Amount cannot be null")
+    @Positive(message = "Amount must be positive")
+    private Double amount;
+
+    // Constructors
+    public AmountRequest() {
+    }
+
+    public AmountRequest(Double amount) {
+        this.amount = amount;
+    }
+
+    // Getters
+    public Double getAmount() {
+        return amount;
+    }
+
+    // Setters
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    // hashCode, equals, toString for good practice
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AmountRequest that = (AmountRequest) o;
+        return Objects.equals(amount, that.amount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(amount);
+    }
+
+    @Override
+    public String toString() {
+        return "AmountRequest{" +
+                "amount=" + amount +
+                '}';
+    }
+}
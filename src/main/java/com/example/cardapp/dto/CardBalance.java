@@ -0,0 +1,99 @@
+package com.example.cardapp.dto;
+
+import com.example.cardapp.model.CardProductType;
+
+import java.util.Objects;
+
+/**
+ * DTO with the balance of one card: its load amount, current load and, for Limited Use cards, swipe count.
+ */
+public class CardBalance {
+
+    private String cardNumber;
+    private CardProductType cardProduct;
+    private Double loadAmount;
+    private Double currentLoad;
+    private Integer currentNumberOfSwipes; // Null for Prepaid
+
+    // Constructors
+    public CardBalance() {
+    }
+
+    public CardBalance(String cardNumber, CardProductType cardProduct, Double loadAmount, Double currentLoad, Integer currentNumberOfSwipes) {
+        this.cardNumber = cardNumber;
+        this.cardProduct = cardProduct;
+        this.loadAmount = loadAmount;
+        this.currentLoad = currentLoad;
+        this.currentNumberOfSwipes = currentNumberOfSwipes;
+    }
+
+    // Getters
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public CardProductType getCardProduct() {
+        return cardProduct;
+    }
+
+    public Double getLoadAmount() {
+        return loadAmount;
+    }
+
+    public Double getCurrentLoad() {
+        return currentLoad;
+    }
+
+    public Integer getCurrentNumberOfSwipes() {
+        return currentNumberOfSwipes;
+    }
+
+    // Setters
+    public void setCardNumber(String cardNumber) {
+        this.cardNumber = cardNumber;
+    }
+
+    public void setCardProduct(CardProductType cardProduct) {
+        this.cardProduct = cardProduct;
+    }
+
+    public void setLoadAmount(Double loadAmount) {
+        this.loadAmount = loadAmount;
+    }
+
+    public void setCurrentLoad(Double currentLoad) {
+        this.currentLoad = currentLoad;
+    }
+
+    public void setCurrentNumberOfSwipes(Integer currentNumberOfSwipes) {
+        this.currentNumberOfSwipes = currentNumberOfSwipes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CardBalance that = (CardBalance) o;
+        return Objects.equals(cardNumber, that.cardNumber) &&
+                cardProduct == that.cardProduct &&
+                Objects.equals(loadAmount, that.loadAmount) &&
+                Objects.equals(currentLoad, that.currentLoad) &&
+                Objects.equals(currentNumberOfSwipes, that.currentNumberOfSwipes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cardNumber, cardProduct, loadAmount, currentLoad, currentNumberOfSwipes);
+    }
+
+    @Override
+    public String toString() {
+        return "CardBalance{" +
+                "cardNumber='" + cardNumber + '\'' +
+                ", cardProduct=" + cardProduct +
+                ", loadAmount=" + loadAmount +
+                ", currentLoad=" + currentLoad +
+                ", currentNumberOfSwipes=" + currentNumberOfSwipes +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.cardapp.dto;
+
+import com.example.cardapp.model.CardProductType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * DTO with the running totals of all cards of a card product type and their breakdown by creator.
+ */
+public class CardSummary {
+
+    private CardProductType cardProduct;
+    private long cardsIssued;
+    private double totalLoadAmount;
+    private double totalCurrentLoad;
+    private long swipes;
+    private List<CreatorSummary> creators;
+
+    // Constructors
+    public CardSummary() {
+    }
+
+    public CardSummary(CardProductType cardProduct, long cardsIssued, double totalLoadAmount, double totalCurrentLoad, long swipes, List<CreatorSummary> creators) {
+        this.cardProduct = cardProduct;
+        this.cardsIssued = cardsIssued;
+        this.totalLoadAmount = totalLoadAmount;
+        this.totalCurrentLoad = totalCurrentLoad;
+        this.swipes = swipes;
+        this.creators = creators;
+    }
+
+    // Getters
+    public CardProductType getCardProduct() {
+        return cardProduct;
+    }
+
+    public long getCardsIssued() {
+        return cardsIssued;
+    }
+
+    public double getTotalLoadAmount() {
+        return totalLoadAmount;
+    }
+
+    public double getTotalCurrentLoad() {
+        return totalCurrentLoad;
+    }
+
+    public long getSwipes() {
+        return swipes;
+    }
+
+    public List<CreatorSummary> getCreators() {
+        return creators;
+    }
+
+    // Setters
+    public void setCardProduct(CardProductType cardProduct) {
+        this.cardProduct = cardProduct;
+    }
+
+    public void setCardsIssued(long cardsIssued) {
+        this.cardsIssued = cardsIssued;
+    }
+
+    public void setTotalLoadAmount(double totalLoadAmount) {
+        this.totalLoadAmount = totalLoadAmount;
+    }
+
+    public void setTotalCurrentLoad(double totalCurrentLoad) {
+        this.totalCurrentLoad = totalCurrentLoad;
+    }
+
+    public void setSwipes(long swipes) {
+        this.swipes = swipes;
+    }
+
+    public void setCreators(List<CreatorSummary> creators) {
+        this.creators = creators;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CardSummary that = (CardSummary) o;
+        return cardsIssued == that.cardsIssued &&
+                Double.compare(that.totalLoadAmount, totalLoadAmount) == 0 &&
+                Double.compare(that.totalCurrentLoad, totalCurrentLoad) == 0 &&
+                swipes == that.swipes &&
+                cardProduct == that.cardProduct &&
+                Objects.equals(creators, that.creators);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cardProduct, cardsIssued, totalLoadAmount, totalCurrentLoad, swipes, creators);
+    }
+
+    @Override
+    public String toString() {
+        return "CardSummary{" +
+                "cardProduct=" + cardProduct +
+                ", cardsIssued=" + cardsIssued +
+                ", totalLoadAmount=" + totalLoadAmount +
+                ", totalCurrentLoad=" + totalCurrentLoad +
+                ", swipes=" + swipes +
+                ", creators=" + creators +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.cardapp.dto;
+
+import java.util.Objects;
+
+/**
+ * DTO with the running totals of the cards one creator issued of a card product type.
+ */
+public class CreatorSummary {
+
+    private String cardCreator;
+    private long cardsIssued;
+    private double totalLoadAmount;
+    private double totalCurrentLoad;
+    private long swipes;
+
+    // Constructors
+    public CreatorSummary() {
+    }
+
+    public CreatorSummary(String cardCreator, long cardsIssued, double totalLoadAmount, double totalCurrentLoad, long swipes) {
+        this.cardCreator = cardCreator;
+        this.cardsIssued = cardsIssued;
+        this.totalLoadAmount = totalLoadAmount;
+        this.totalCurrentLoad = totalCurrentLoad;
+        this.swipes = swipes;
+    }
+
+    // Getters
+    public String getCardCreator() {
+        return cardCreator;
+    }
+
+    public long getCardsIssued() {
+        return cardsIssued;
+    }
+
+    public double getTotalLoadAmount() {
+        return totalLoadAmount;
+    }
+
+    public double getTotalCurrentLoad() {
+        return totalCurrentLoad;
+    }
+
+    public long getSwipes() {
+        return swipes;
+    }
+
+    // Setters
+    public void setCardCreator(String cardCreator) {
+        this.cardCreator = cardCreator;
+    }
+
+    public void setCardsIssued(long cardsIssued) {
+        this.cardsIssued = cardsIssued;
+    }
+
+    public void setTotalLoadAmount(double totalLoadAmount) {
+        this.totalLoadAmount = totalLoadAmount;
+    }
+
+    public void setTotalCurrentLoad(double totalCurrentLoad) {
+        this.totalCurrentLoad = totalCurrentLoad;
+    }
+
+    public void setSwipes(long swipes) {
+        this.swipes = swipes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CreatorSummary that = (CreatorSummary) o;
+        return cardsIssued == that.cardsIssued &&
+                Double.compare(that.totalLoadAmount, totalLoadAmount) == 0 &&
+                Double.compare(that.totalCurrentLoad, totalCurrentLoad) == 0 &&
+                swipes == that.swipes &&
+                Objects.equals(cardCreator, that.cardCreator);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cardCreator, cardsIssued, totalLoadAmount, totalCurrentLoad, swipes);
+    }
+
+    @Override
+    public String toString() {
+        return "CreatorSummary{" +
+                "cardCreator='" + cardCreator + '\'' +
+                ", cardsIssued=" + cardsIssued +
+                ", totalLoadAmount=" + totalLoadAmount +
+                ", totalCurrentLoad=" + totalCurrentLoad +
+                ", swipes=" + swipes +
+                '}';
+    }
+}
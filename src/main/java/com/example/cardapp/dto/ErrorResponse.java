@@ -16,11 +16,17 @@ public class ErrorResponse {
 
     // Constructors
     public ErrorResponse() {
-        this.timestamp = LocalDateTime.now();
     }
 
-    public ErrorResponse(int status, String error, String message, String path) {
-        this(); // Call default constructor to set timestamp
+    /**
+     * @param timestamp When the error occurred, usually CoarseClock.now().
+     * @param status The HTTP status code.
+     * @param error The status's reason phrase.
+     * @param message The error message.
+     * @param path The request path.
+     */
+    public ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
+        this.timestamp = timestamp;
         this.status = status;
         this.error = error;
         this.message = message;
@@ -0,0 +1,133 @@
+package com.example.cardapp.dto;
+
+import com.example.cardapp.model.CardProductType;
+
+import java.util.Objects;
+
+/**
+ * DTO describing the progress or outcome of a background card export.
+ * A completed export can be downloaded from GET /api/cards/export/{exportId}/file.
+ */
+public class ExportResult {
+
+    /**
+     * Lifecycle of an export.
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String exportId;
+    private Status status;
+    private CardProductType cardProduct;
+    private String format;
+    private long cards;
+    private long bytes;
+    private String message;
+
+    // Constructors
+    public ExportResult() {
+    }
+
+    public ExportResult(String exportId, Status status, CardProductType cardProduct, String format, long cards, long bytes, String message) {
+        this.exportId = exportId;
+        this.status = status;
+        this.cardProduct = cardProduct;
+        this.format = format;
+        this.cards = cards;
+        this.bytes = bytes;
+        this.message = message;
+    }
+
+    // Getters
+    public String getExportId() {
+        return exportId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public CardProductType getCardProduct() {
+        return cardProduct;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public long getCards() {
+        return cards;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // Setters
+    public void setExportId(String exportId) {
+        this.exportId = exportId;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public void setCardProduct(CardProductType cardProduct) {
+        this.cardProduct = cardProduct;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public void setCards(long cards) {
+        this.cards = cards;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExportResult that = (ExportResult) o;
+        return cards == that.cards &&
+                bytes == that.bytes &&
+                Objects.equals(exportId, that.exportId) &&
+                status == that.status &&
+                cardProduct == that.cardProduct &&
+                Objects.equals(format, that.format) &&
+                Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(exportId, status, cardProduct, format, cards, bytes, message);
+    }
+
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "exportId='" + exportId + '\'' +
+                ", status=" + status +
+                ", cardProduct=" + cardProduct +
+                ", format='" + format + '\'' +
+                ", cards=" + cards +
+                ", bytes=" + bytes +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.cardapp.dto;
+
+import java.util.Objects;
+
+/**
+ * DTO describing the progress or outcome of a bulk card import.
+ * Rejected rows are listed with their line number and reason in the error file.
+ * Only the user who started an import can see it.
+ */
+public class ImportResult {
+
+    /**
+     * Lifecycle of an import.
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String importId;
+    private String importedBy;
+    private Status status;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private String errorFile;
+    private String message;
+
+    // Constructors
+    public ImportResult() {
+    }
+
+    public ImportResult(String importId, String importedBy, Status status, long rowsRead, long imported, long rejected, String errorFile, String message) {
+        this.importId = importId;
+        this.importedBy = importedBy;
+        this.status = status;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errorFile = errorFile;
+        this.message = message;
+    }
+
+    // Getters
+    public String getImportId() {
+        return importId;
+    }
+
+    public String getImportedBy() {
+        return importedBy;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public String getErrorFile() {
+        return errorFile;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // Setters
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public void setImportedBy(String importedBy) {
+        this.importedBy = importedBy;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public void setErrorFile(String errorFile) {
+        this.errorFile = errorFile;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImportResult that = (ImportResult) o;
+        return rowsRead == that.rowsRead &&
+                imported == that.imported &&
+                rejected == that.rejected &&
+                Objects.equals(importId, that.importId) &&
+                Objects.equals(importedBy, that.importedBy) &&
+                status == that.status &&
+                Objects.equals(errorFile, that.errorFile) &&
+                Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(importId, importedBy, status, rowsRead, imported, rejected, errorFile, message);
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "importId='" + importId + '\'' +
+                ", importedBy='" + importedBy + '\'' +
+                ", status=" + status +
+                ", rowsRead=" + rowsRead +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", errorFile='" + errorFile + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
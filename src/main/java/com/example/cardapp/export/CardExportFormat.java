@@ -0,0 +1,36 @@
+package com.example.cardapp.export;
+
+import com.example.cardapp.codec.CardBinaryHttpMessageConverter;
+import org.springframework.http.MediaType;
+
+/**
+ * File formats of card exports.
+ */
+public enum CardExportFormat {
+    /** Newline-delimited JSON, one card per line, in the JSON listing representation. */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), ".ndjson"),
+    /** A sequence of card binary listings (see CardBinaryCodec), one per chunk of cards, read until end of file. */
+    BINARY(CardBinaryHttpMessageConverter.CARD_BINARY, ".cards");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    CardExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * @return The content type the export file is served with.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return The extension of export files in this format, including the dot.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
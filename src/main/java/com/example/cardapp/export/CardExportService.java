@@ -0,0 +1,233 @@
+package com.example.cardapp.export;
+
+import com.example.cardapp.codec.CardBinaryCodec;
+import com.example.cardapp.codec.CardJsonCodec;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.dto.ExportResult;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.store.CardStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes card store snapshots to local files in the background, so large exports neither hold a request
+ * thread nor build a response body on the heap. Files are written chunk by chunk into a temporary file and
+ * moved into place when complete, so a download never sees a partial export; ExportFileSender serves them.
+ * <p>
+ * Exports run one at a time on a dedicated thread. At most cards.export.max-pending exports may be queued or
+ * running; further requests are refused until one finishes, so neither the queue nor the disk space reserved by
+ * queued exports grows without bound. Only the most recent cards.export.retain finished exports are kept; older
+ * ones are forgotten and their files deleted whenever an export completes or fails.
+ */
+@Service
+public class CardExportService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CardExportService.class);
+
+    private final CardStore cardStore;
+    private final CardJsonCodec jsonCodec;
+    private final CardBinaryCodec binaryCodec;
+    private final Path exportDirectory;
+    private final int chunkSize;
+    private final int retain;
+    private final int maxPending;
+    private final ExecutorService exportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "card-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Export> exports = new LinkedHashMap<>();
+
+    /**
+     * @param cardStore The store to export from.
+     * @param jsonCodec The codec writing NDJSON exports.
+     * @param binaryCodec The codec writing binary exports.
+     * @param exportDirectory Where export files are written.
+     * @param chunkSize Cards written per chunk; binary exports contain one listing per chunk.
+     * @param retain How many finished exports to keep.
+     * @param maxPending How many exports may be queued or running at once.
+     */
+    @Autowired
+    public CardExportService(CardStore cardStore,
+                             CardJsonCodec jsonCodec,
+                             CardBinaryCodec binaryCodec,
+                             @Value("${cards.export.dir:${java.io.tmpdir}/card-exports}") Path exportDirectory,
+                             @Value("${cards.export.chunk-size:1000}") int chunkSize,
+                             @Value("${cards.export.retain:5}") int retain,
+                             @Value("${cards.export.max-pending:4}") int maxPending) {
+        this.cardStore = cardStore;
+        this.jsonCodec = jsonCodec;
+        this.binaryCodec = binaryCodec;
+        this.exportDirectory = exportDirectory;
+        this.chunkSize = chunkSize;
+        this.retain = retain;
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    /**
+     * Queues an export of every card of a product type and returns immediately.
+     * Callers must check that the current user may list the product type; the export itself runs without a user.
+     *
+     * @param cardProductType The product type to export.
+     * @param format The file format.
+     * @return The export in status RUNNING.
+     * @throws ResponseStatusException 429 if cards.export.max-pending exports are already queued or running.
+     */
+    public ExportResult startExport(CardProductType cardProductType, CardExportFormat format) {
+        String exportId = UUID.randomUUID().toString();
+        Export export = new Export(exportId, cardProductType, format, exportDirectory.resolve("export-" + exportId + format.getFileExtension()));
+        synchronized (exports) {
+            long pending = exports.values().stream().filter(existing -> existing.status == ExportResult.Status.RUNNING).count();
+            if (pending >= maxPending) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many exports in progress (" + pending + "). Try again once one has finished.");
+            }
+            exports.put(exportId, export);
+        }
+        exportExecutor.execute(() -> run(export));
+        return export.snapshot();
+    }
+
+    /**
+     * @param exportId The id returned by startExport.
+     * @return The state of the export, or null if it is unknown or was removed by retention.
+     */
+    public ExportResult getExport(String exportId) {
+        Export export = find(exportId);
+        return export != null ? export.snapshot() : null;
+    }
+
+    /**
+     * @param exportId The id returned by startExport.
+     * @return The file of a completed export, or null if the export is unknown or not completed.
+     */
+    public Path getExportFile(String exportId) {
+        Export export = find(exportId);
+        return export != null && export.status == ExportResult.Status.COMPLETED ? export.file : null;
+    }
+
+    @Override
+    public void destroy() {
+        exportExecutor.shutdownNow();
+    }
+
+    private Export find(String exportId) {
+        synchronized (exports) {
+            return exports.get(exportId);
+        }
+    }
+
+    private void run(Export export) {
+        Path temporary = export.file.resolveSibling(export.file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(exportDirectory);
+            List<CardResponse> cards = cardStore.findByProduct(export.cardProductType);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024)) {
+                for (int from = 0; from < cards.size(); from += chunkSize) {
+                    List<CardResponse> chunk = cards.subList(from, Math.min(cards.size(), from + chunkSize));
+                    writeChunk(chunk, export.format, out);
+                    export.cards += chunk.size();
+                }
+            }
+            Files.move(temporary, export.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            export.bytes = Files.size(export.file);
+            export.status = ExportResult.Status.COMPLETED;
+            log.info("Card export {} completed: {} {} cards, {} bytes", export.exportId, export.cards, export.cardProductType, export.bytes);
+        } catch (IOException | RuntimeException ex) {
+            export.message = ex.getMessage();
+            export.status = ExportResult.Status.FAILED;
+            log.warn("Card export {} failed: {}", export.exportId, ex.toString());
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // Best effort, the next export to the directory does not depend on it
+            }
+        } finally {
+            applyRetention();
+        }
+    }
+
+    private void writeChunk(List<CardResponse> chunk, CardExportFormat format, OutputStream out) throws IOException {
+        if (format == CardExportFormat.BINARY) {
+            binaryCodec.writeCards(chunk, out);
+            return;
+        }
+        for (CardResponse card : chunk) {
+            jsonCodec.writeCard(card, out);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Forgets the oldest finished exports beyond the retention count and deletes their files.
+     */
+    private void applyRetention() {
+        List<Export> expired = new ArrayList<>();
+        synchronized (exports) {
+            long finished = exports.values().stream().filter(export -> export.status != ExportResult.Status.RUNNING).count();
+            Iterator<Export> iterator = exports.values().iterator();
+            while (finished > retain && iterator.hasNext()) {
+                Export export = iterator.next();
+                if (export.status != ExportResult.Status.RUNNING) {
+                    iterator.remove();
+                    expired.add(export);
+                    finished--;
+                }
+            }
+        }
+        for (Export export : expired) {
+            try {
+                Files.deleteIfExists(export.file);
+            } catch (IOException ex) {
+                log.warn("Could not delete expired card export {}: {}", export.file, ex.toString());
+            }
+        }
+    }
+
+    /**
+     * State of one export. Written only by the export thread, read by request threads.
+     */
+    private static final class Export {
+        private final String exportId;
+        private final CardProductType cardProductType;
+        private final CardExportFormat format;
+        private final Path file;
+        private volatile ExportResult.Status status = ExportResult.Status.RUNNING;
+        private volatile long cards;
+        private volatile long bytes;
+        private volatile String message;
+
+        private Export(String exportId, CardProductType cardProductType, CardExportFormat format, Path file) {
+            this.exportId = exportId;
+            this.cardProductType = cardProductType;
+            this.format = format;
+            this.file = file;
+        }
+
+        private ExportResult snapshot() {
+            return new ExportResult(exportId, status, cardProductType, format.name(), cards, bytes, message);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.cardapp.export;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sends export files without copying them through the heap.
+ * <p>
+ * When the connector supports it (Tomcat's NIO connector does by default), the file is handed to Tomcat's
+ * sendfile support through request attributes, and Tomcat transfers it with the sendfile system call after the
+ * handler returns. Otherwise the file is written with FileChannel.transferTo onto the response stream.
+ * <p>
+ * A single byte range (Range: bytes=...) is honoured so interrupted downloads can resume; If-Range is compared
+ * with the file's entity tag. Requests for several ranges get the whole file.
+ */
+public final class ExportFileSender {
+
+    // Request attributes of Tomcat's sendfile support, see org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private ExportFileSender() {
+    }
+
+    /**
+     * Writes a file, or the requested range of it, as the response.
+     *
+     * @param file The file to send.
+     * @param mediaType The content type.
+     * @param eTag The file's strong entity tag, including quotes.
+     * @param request The HTTP request, possibly carrying Range and If-Range.
+     * @param response The HTTP response, not committed yet.
+     * @throws IOException if the file cannot be read or the response cannot be written.
+     */
+    public static void send(Path file, MediaType mediaType, String eTag, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length; // exclusive
+
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setContentType(mediaType.toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"");
+
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals(eTag))) {
+                List<HttpRange> ranges;
+                try {
+                    ranges = HttpRange.parseRanges(rangeHeader);
+                } catch (IllegalArgumentException ex) {
+                    ranges = List.of();
+                }
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length) + 1;
+                    if (start >= length || end <= start) {
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        return;
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+                }
+            }
+            response.setContentLengthLong(end - start);
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && end > start) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.cardapp.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Upload formats accepted by the card import.
+ */
+public enum CardImportFormat {
+    /** Comma-separated values with a header row naming the columns. */
+    CSV("text/csv"),
+    /** Newline-delimited JSON, one CardCreationRequest object per line. */
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    CardImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * @return The content type of uploads in this format.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Finds the format of an upload by its content type, ignoring parameters such as charset.
+     *
+     * @param contentType The request's content type, may be null.
+     * @return The format, or null if the content type is not an import format.
+     */
+    public static CardImportFormat fromContentType(MediaType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (CardImportFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.cardapp.importer;
+
+import com.example.cardapp.codec.CardJsonCodec;
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.ImportResult;
+import com.example.cardapp.security.AuthContext;
+import com.example.cardapp.security.AuthUser;
+import com.example.cardapp.service.CardService;
+import com.example.cardapp.validation.CardRequestValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports cards in bulk from a CSV or NDJSON upload.
+ * <p>
+ * The upload is streamed: rows are parsed into a fixed set of reusable ImportRow slots, one chunk at a time,
+ * so memory use does not grow with the size of the upload. Each chunk is validated in parallel slices with the
+ * same bean validation constraints and CardService.validateCreation rules as POST /api/cards/create, under the
+ * importing user's AuthContext, and the accepted rows are stored with one batched store write per chunk.
+ * Rejected rows are appended to a per-import error file (line, status, message), and progress is published
+ * after every chunk, see getProgress. Imports are only visible to the user who started them.
+ */
+@Service
+public class CardImportService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CardImportService.class);
+    private static final int MAX_TRACKED_IMPORTS = 100;
+
+    private final CardService cardService;
+    private final CardJsonCodec jsonCodec;
+    private final CardRequestValidator requestValidator;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Path errorDirectory;
+    private final ExecutorService validationExecutor;
+
+    private final Map<String, ImportResult> imports = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportResult> eldest) {
+            return size() > MAX_TRACKED_IMPORTS && eldest.getValue().getStatus() != ImportResult.Status.RUNNING;
+        }
+    };
+
+    /**
+     * @param cardService The service storing validated cards.
+     * @param jsonCodec The codec parsing NDJSON rows.
+     * @param requestValidator The validator applying the CardCreationRequest constraints.
+     * @param chunkSize Rows per chunk; a chunk is validated in parallel and stored in one batch.
+     * @param parallelism Validation threads, 0 for one per available processor.
+     * @param errorDirectory Where error files are written.
+     */
+    @Autowired
+    public CardImportService(CardService cardService,
+                             CardJsonCodec jsonCodec,
+                             CardRequestValidator requestValidator,
+                             @Value("${cards.import.chunk-size:1000}") int chunkSize,
+                             @Value("${cards.import.parallelism:0}") int parallelism,
+                             @Value("${cards.import.error-dir:${java.io.tmpdir}/card-imports}") Path errorDirectory) {
+        this.cardService = cardService;
+        this.jsonCodec = jsonCodec;
+        this.requestValidator = requestValidator;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.errorDirectory = errorDirectory;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validationExecutor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "card-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Imports every row of an upload on the calling thread. The calling thread's AuthContext user is the
+     * creator of the imported cards and is subject to the same permission rules as for single cards.
+     *
+     * @param in The upload, read to the end but not closed.
+     * @param format The upload format.
+     * @return The outcome of the import.
+     * @throws ResponseStatusException 400 if the upload cannot be read as the given format (e.g. a CSV without header).
+     */
+    public ImportResult importCards(InputStream in, CardImportFormat format) {
+        AuthUser user = AuthContext.getCurrentUser();
+        String importId = UUID.randomUUID().toString();
+        Progress progress = new Progress(importId, user != null ? user.getUserId() : null);
+        publish(progress.snapshot(ImportResult.Status.RUNNING, null));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        try (ErrorFile errors = new ErrorFile(errorDirectory.resolve("import-" + importId + "-errors.csv"))) {
+            CardRowReader rows = format == CardImportFormat.CSV
+                    ? new CsvCardRowReader(reader)
+                    : new NdjsonCardRowReader(reader, jsonCodec);
+            importChunks(rows, user, progress, errors);
+            ImportResult result = progress.snapshot(ImportResult.Status.COMPLETED, null);
+            publish(result);
+            log.info("Card import {} completed: {} rows read, {} imported, {} rejected",
+                    importId, result.getRowsRead(), result.getImported(), result.getRejected());
+            return result;
+        } catch (IllegalArgumentException | IOException | UncheckedIOException ex) {
+            publish(progress.snapshot(ImportResult.Status.FAILED, ex.getMessage()));
+            log.warn("Card import {} failed after {} rows: {}", importId, progress.rowsRead, ex.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import failed after " + progress.rowsRead + " rows: " + ex.getMessage(), ex);
+        } catch (RuntimeException ex) {
+            publish(progress.snapshot(ImportResult.Status.FAILED, ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    /**
+     * @param importId The id returned by importCards.
+     * @return The progress of a running import or the outcome of a recent one, or null if unknown or if it was
+     *         started by another user than the calling thread's AuthContext user.
+     */
+    public ImportResult getProgress(String importId) {
+        AuthUser user = AuthContext.getCurrentUser();
+        ImportResult result;
+        synchronized (imports) {
+            result = imports.get(importId);
+        }
+        return result != null && isImportedBy(result, user) ? result : null;
+    }
+
+    /**
+     * @return Running and recently finished imports of the calling thread's AuthContext user, oldest first.
+     */
+    public List<ImportResult> getRecentImports() {
+        AuthUser user = AuthContext.getCurrentUser();
+        List<ImportResult> results = new ArrayList<>();
+        synchronized (imports) {
+            for (ImportResult result : imports.values()) {
+                if (isImportedBy(result, user)) {
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        validationExecutor.shutdownNow();
+    }
+
+    private void importChunks(CardRowReader rows, AuthUser user, Progress progress, ErrorFile errors) throws IOException {
+        ImportRow[] chunk = new ImportRow[chunkSize];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = new ImportRow();
+        }
+        List<CardCreationRequest> accepted = new ArrayList<>(chunkSize);
+        while (true) {
+            int size = 0;
+            while (size < chunk.length && rows.next(chunk[size])) {
+                size++;
+            }
+            if (size == 0) {
+                return;
+            }
+
+            validateChunk(chunk, size, user);
+
+            accepted.clear();
+            for (int i = 0; i < size; i++) {
+                ImportRow row = chunk[i];
+                if (row.isRejected()) {
+                    errors.write(row);
+                } else {
+                    accepted.add(row.request);
+                }
+            }
+            cardService.createValidatedCards(accepted, user);
+
+            progress.errorFile = errors.path();
+            progress.rowsRead += size;
+            progress.imported += accepted.size();
+            progress.rejected += size - accepted.size();
+            publish(progress.snapshot(ImportResult.Status.RUNNING, null));
+            log.debug("Card import {}: {} rows read, {} imported, {} rejected",
+                    progress.importId, progress.rowsRead, progress.imported, progress.rejected);
+            if (size < chunk.length) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Validates the rows of a chunk in parallel slices. Each row is only touched by one validation thread,
+     * and all slices finish before the chunk is read again.
+     */
+    private void validateChunk(ImportRow[] chunk, int size, AuthUser user) {
+        int sliceSize = Math.max(1, (size + parallelism - 1) / parallelism);
+        List<Future<?>> slices = new ArrayList<>(parallelism);
+        for (int from = 0; from < size; from += sliceSize) {
+            int start = from;
+            int end = Math.min(size, from + sliceSize);
+            slices.add(validationExecutor.submit(() -> validateSlice(chunk, start, end, user)));
+        }
+        try {
+            for (Future<?> slice : slices) {
+                slice.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating import rows", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private void validateSlice(ImportRow[] chunk, int start, int end, AuthUser user) {
+        AuthContext.setCurrentUser(user);
+        try {
+            for (int i = start; i < end; i++) {
+                validateRow(chunk[i]);
+            }
+        } finally {
+            AuthContext.clear();
+        }
+    }
+
+    private void validateRow(ImportRow row) {
+        if (row.isRejected()) {
+            return;
+        }
+        List<CardRequestValidator.Violation> violations = requestValidator.validate(row.request);
+        if (!violations.isEmpty()) {
+            row.reject(HttpStatus.BAD_REQUEST.value(), CardRequestValidator.validationError(violations));
+            return;
+        }
+        try {
+            cardService.validateCreation(row.request);
+        } catch (ResponseStatusException ex) {
+            row.reject(ex.getStatusCode().value(), ex.getReason());
+        }
+    }
+
+    private static boolean isImportedBy(ImportResult result, AuthUser user) {
+        return user != null && user.getUserId().equals(result.getImportedBy());
+    }
+
+    private void publish(ImportResult result) {
+        synchronized (imports) {
+            imports.put(result.getImportId(), result);
+        }
+    }
+
+    /**
+     * Running totals of one import, only touched by the importing thread.
+     */
+    private static final class Progress {
+        private final String importId;
+        private final String importedBy;
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private String errorFile;
+
+        private Progress(String importId, String importedBy) {
+            this.importId = importId;
+            this.importedBy = importedBy;
+        }
+
+        private ImportResult snapshot(ImportResult.Status status, String message) {
+            return new ImportResult(importId, importedBy, status, rowsRead, imported, rejected, errorFile, message);
+        }
+    }
+
+    /**
+     * CSV file of rejected rows, created when the first row is rejected.
+     */
+    private static final class ErrorFile implements AutoCloseable {
+        private final Path file;
+        private BufferedWriter writer;
+
+        private ErrorFile(Path file) {
+            this.file = file;
+        }
+
+        private void write(ImportRow row) throws IOException {
+            if (writer == null) {
+                Files.createDirectories(file.getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                writer.write("line,status,message");
+                writer.newLine();
+            }
+            writer.write(Long.toString(row.line));
+            writer.write(',');
+            writer.write(Integer.toString(row.errorStatus));
+            writer.write(",\"");
+            writer.write(row.errorMessage.replace("\"", "\"\""));
+            writer.write('"');
+            writer.newLine();
+        }
+
+        /**
+         * @return The file's path, or null if no row was rejected.
+         */
+        private String path() {
+            return writer != null ? file.toString() : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.cardapp.importer;
+
+import java.io.IOException;
+
+/**
+ * Streams card creation rows out of an upload, one row at a time.
+ */
+interface CardRowReader {
+
+    /**
+     * Reads the next row into a reusable slot. A row that cannot be parsed is returned rejected
+     * with status 400 rather than ending the import.
+     *
+     * @param row The slot to fill.
+     * @return False if the input is exhausted, in which case the slot is left untouched.
+     * @throws IOException if reading the input fails.
+     */
+    boolean next(ImportRow row) throws IOException;
+}
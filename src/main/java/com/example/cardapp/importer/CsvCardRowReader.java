@@ -0,0 +1,238 @@
+package com.example.cardapp.importer;
+
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+import com.example.cardapp.product.CardProducts;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Reads comma-separated card rows (RFC 4180: fields may be quoted, quotes inside quoted fields are doubled,
+ * and quoted fields may span lines). The first record is a header naming the columns:
+ * cardTitle, cardDescription, activationDate, cardProduct, loadAmount, protectionRequired,
+ * expiryDate, maxSwipes and perTransactionLimit. Column order is free, unknown columns are ignored and
+ * empty fields are read as null. A row gets restrictions if any of the last three columns is filled.
+ * <p>
+ * The field array, the field builder and the character buffer are reused for every record.
+ */
+final class CsvCardRowReader implements CardRowReader {
+
+    private enum Column {
+        cardTitle, cardDescription, activationDate, cardProduct, loadAmount, protectionRequired,
+        expiryDate, maxSwipes, perTransactionLimit
+    }
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private final int[] columnIndex = new int[Column.values().length];
+    private final StringBuilder field = new StringBuilder(128);
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private int pushedBack = Integer.MIN_VALUE;
+    private long lineNumber = 1;
+    private long recordLine;
+
+    /**
+     * @param in The upload; the reader does its own buffering.
+     * @throws IOException if the header cannot be read.
+     * @throws IllegalArgumentException if the header is missing.
+     */
+    CsvCardRowReader(Reader in) throws IOException {
+        this.in = in;
+        if (!readRecord()) {
+            throw new IllegalArgumentException("CSV import is empty; expected a header row.");
+        }
+        Arrays.fill(columnIndex, -1);
+        for (int i = 0; i < fieldCount; i++) {
+            for (Column column : Column.values()) {
+                if (column.name().equalsIgnoreCase(fields[i].replace("\uFEFF", "").strip())) {
+                    columnIndex[column.ordinal()] = i;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean next(ImportRow row) throws IOException {
+        do {
+            if (!readRecord()) {
+                return false;
+            }
+        } while (fieldCount == 1 && fields[0].isEmpty());
+
+        row.reset(recordLine);
+        CardCreationRequest request = row.request;
+        try {
+            request.setCardTitle(text(Column.cardTitle));
+            request.setCardDescription(text(Column.cardDescription));
+            request.setActivationDate(date(Column.activationDate));
+            request.setCardProduct(product());
+            request.setLoadAmount(decimal(Column.loadAmount));
+            request.setProtectionRequired(bool(Column.protectionRequired));
+            LocalDate expiryDate = date(Column.expiryDate);
+            Integer maxSwipes = integer(Column.maxSwipes);
+            Double perTransactionLimit = decimal(Column.perTransactionLimit);
+            // Stored cards keep the restrictions object, so it is never reused between rows
+            request.setRestrictions(expiryDate != null || maxSwipes != null || perTransactionLimit != null
+                    ? new Restrictions(expiryDate, maxSwipes, perTransactionLimit)
+                    : null);
+        } catch (IllegalArgumentException ex) {
+            row.reject(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        }
+        return true;
+    }
+
+    private String text(Column column) {
+        int index = columnIndex[column.ordinal()];
+        if (index < 0 || index >= fieldCount || fields[index].isEmpty()) {
+            return null;
+        }
+        return fields[index];
+    }
+
+    private LocalDate date(Column column) {
+        String value = text(column);
+        try {
+            return value != null ? LocalDate.parse(value.strip()) : null;
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'. Must be yyyy-MM-dd.");
+        }
+    }
+
+    private CardProductType product() {
+        String value = text(Column.cardProduct);
+        try {
+            return value != null ? CardProductType.valueOf(value.strip().toUpperCase()) : null;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cardProduct '" + value + "'. Must be " + CardProducts.quotedNames() + ".");
+        }
+    }
+
+    private Double decimal(Column column) {
+        String value = text(column);
+        try {
+            return value != null ? Double.valueOf(value.strip()) : null;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'. Must be a number.");
+        }
+    }
+
+    private Integer integer(Column column) {
+        String value = text(column);
+        try {
+            return value != null ? Integer.valueOf(value.strip()) : null;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'. Must be an integer.");
+        }
+    }
+
+    private Boolean bool(Column column) {
+        String value = text(column);
+        if (value == null) {
+            return null;
+        }
+        if (value.strip().equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (value.strip().equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Invalid " + column + " '" + value + "'. Must be true or false.");
+    }
+
+    /**
+     * Reads one record into fields/fieldCount.
+     *
+     * @return False at end of input.
+     */
+    private boolean readRecord() throws IOException {
+        int c = read();
+        if (c == EOF) {
+            return false;
+        }
+        recordLine = lineNumber;
+        fieldCount = 0;
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Unterminated quoted field in CSV record starting at line " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                addField();
+                fieldStart = true;
+            } else if (c == '\n' || c == '\r' || c == EOF) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != EOF) {
+                    lineNumber++;
+                }
+                addField();
+                return true;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    private void addField() {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fieldCount * 2);
+        }
+        fields[fieldCount++] = field.toString();
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != Integer.MIN_VALUE) {
+            int c = pushedBack;
+            pushedBack = Integer.MIN_VALUE;
+            return c;
+        }
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cardapp.importer;
+
+import com.example.cardapp.dto.CardCreationRequest;
+
+/**
+ * One slot of an import chunk. Readers fill the same slots chunk after chunk, so parsing allocates
+ * no per-row holder objects; only the values that end up in stored cards are new.
+ */
+final class ImportRow {
+
+    final CardCreationRequest request = new CardCreationRequest();
+
+    /** Line of the input where the row starts, 1-based. */
+    long line;
+
+    /** HTTP status of the rejection, 0 while the row is accepted. */
+    int errorStatus;
+
+    /** Why the row was rejected, null while it is accepted. */
+    String errorMessage;
+
+    void reset(long line) {
+        this.line = line;
+        this.errorStatus = 0;
+        this.errorMessage = null;
+    }
+
+    void reject(int status, String message) {
+        this.errorStatus = status;
+        this.errorMessage = message;
+    }
+
+    boolean isRejected() {
+        return errorMessage != null;
+    }
+}
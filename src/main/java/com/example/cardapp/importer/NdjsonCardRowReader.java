@@ -0,0 +1,44 @@
+package com.example.cardapp.importer;
+
+import com.example.cardapp.codec.CardJsonCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads newline-delimited JSON, one CardCreationRequest object per line. Blank lines are skipped.
+ * Each line is parsed on its own, so a malformed line only rejects that row.
+ */
+final class NdjsonCardRowReader implements CardRowReader {
+
+    private final BufferedReader in;
+    private final CardJsonCodec jsonCodec;
+    private long lineNumber;
+
+    NdjsonCardRowReader(BufferedReader in, CardJsonCodec jsonCodec) {
+        this.in = in;
+        this.jsonCodec = jsonCodec;
+    }
+
+    @Override
+    public boolean next(ImportRow row) throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return false;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        row.reset(lineNumber);
+        try {
+            jsonCodec.readCreationRequest(line, row.request);
+        } catch (JsonProcessingException ex) {
+            row.reject(HttpStatus.BAD_REQUEST.value(), "Malformed JSON: " + ex.getOriginalMessage());
+        }
+        return true;
+    }
+}
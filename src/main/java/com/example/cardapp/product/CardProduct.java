@@ -0,0 +1,209 @@
+package com.example.cardapp.product;
+
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.time.LocalDate;
+
+/**
+ * Everything that differs between card products: rules for creating, swiping, reloading and refunding cards,
+ * the restriction schema, and the product's pre-encoded JSON value.
+ * <p>
+ * A product is described by data rather than by a subclass, and the rules below read that data. Every call site
+ * therefore sees this one final class, and the JIT can inline it however many products there are. Services get a
+ * product from CardProducts by the type's ordinal instead of comparing types inline.
+ */
+public final class CardProduct {
+
+    /**
+     * Whether cards of a product carry a Restrictions object.
+     */
+    public enum RestrictionSchema {
+        /** Restrictions are rejected. */
+        NONE,
+        /** Restrictions are required; their expiry date, swipe count and per-transaction limit are enforced. */
+        REQUIRED
+    }
+
+    private final CardProductType type;
+    private final String label;
+    private final boolean protectionRequired;
+    private final RestrictionSchema restrictionSchema;
+    private final int loadAmountMultiple;
+    private final int maxExpiryDays;
+    private final boolean reloadable;
+    private final boolean countsSwipes;
+    private final SerializedString jsonValue;
+
+    private final ProductRule protectionRule;
+    private final ProductRule restrictionsRequiredRule;
+    private final ProductRule noRestrictionsRule;
+    private final ProductRule expiryInFutureRule;
+    private final ProductRule expiryWithinRule;
+    private final ProductRule loadAmountMultipleRule;
+    private final String reloadDenial;
+
+    /**
+     * @param type The product type.
+     * @param label The name used in messages, e.g. "Limited Use".
+     * @param protectionRequired True if protectionRequired must be true.
+     * @param restrictionSchema Whether cards carry restrictions.
+     * @param loadAmountMultiple The number load amounts must be a multiple of, 0 for any amount.
+     * @param maxExpiryDays How many days from today restrictions may expire at most; only used with REQUIRED restrictions.
+     * @param reloadable True if cards can be reloaded.
+     * @param countsSwipes True if cards count their swipes, which refunds give back.
+     */
+    CardProduct(CardProductType type, String label, boolean protectionRequired, RestrictionSchema restrictionSchema,
+                int loadAmountMultiple, int maxExpiryDays, boolean reloadable, boolean countsSwipes) {
+        this.type = type;
+        this.label = label;
+        this.protectionRequired = protectionRequired;
+        this.restrictionSchema = restrictionSchema;
+        this.loadAmountMultiple = loadAmountMultiple;
+        this.maxExpiryDays = maxExpiryDays;
+        this.reloadable = reloadable;
+        this.countsSwipes = countsSwipes;
+        this.jsonValue = new SerializedString(type.name());
+
+        // Rules the product does not have are left null
+        String ruleLabel = type.name().toLowerCase().replace('_', '-');
+        boolean restricted = restrictionSchema == RestrictionSchema.REQUIRED;
+        this.protectionRule = !protectionRequired ? null : new ProductRule(ruleLabel + "-protection-required",
+                "For " + label + " cards, 'protectionRequired' must be true.");
+        this.restrictionsRequiredRule = !restricted ? null : new ProductRule(ruleLabel + "-restrictions-required",
+                "For " + label + " cards, 'restrictions' object must be provided.");
+        this.noRestrictionsRule = restricted ? null : new ProductRule(ruleLabel + "-no-restrictions",
+                label + " cards cannot have 'restrictions'.");
+        this.expiryInFutureRule = !restricted ? null : new ProductRule("expiry-date-future",
+                "For " + label + " cards, 'expiryDate' must be in the future.");
+        this.expiryWithinRule = !restricted ? null : new ProductRule("expiry-date-within-" + maxExpiryDays + "-days",
+                "For " + label + " cards, 'expiryDate' must be at maximum " + maxExpiryDays + " days from today.");
+        this.loadAmountMultipleRule = loadAmountMultiple == 0 ? null : new ProductRule(ruleLabel + "-load-multiple-of-" + loadAmountMultiple,
+                "For " + label + " cards, 'loadAmount' must be a multiple of " + loadAmountMultiple + ".");
+        this.reloadDenial = label + " cards cannot be reloaded.";
+    }
+
+    /**
+     * @return The product type.
+     */
+    public CardProductType getType() {
+        return type;
+    }
+
+    /**
+     * @return The name used in messages, e.g. "Limited Use".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return Whether cards of the product carry restrictions.
+     */
+    public RestrictionSchema getRestrictionSchema() {
+        return restrictionSchema;
+    }
+
+    /**
+     * @return The product type as a JSON string value, quoted and encoded once.
+     */
+    public SerializableString getJsonValue() {
+        return jsonValue;
+    }
+
+    /**
+     * Checks the shape of a creation request: protection and restrictions.
+     * Runs before the activation date check that applies to all products.
+     *
+     * @param request A request for a card of this product.
+     * @return The first violated rule, or null.
+     */
+    public ProductRule checkCreationShape(CardCreationRequest request) {
+        if (protectionRequired && !request.getProtectionRequired()) {
+            return protectionRule;
+        }
+        if (restrictionSchema == RestrictionSchema.REQUIRED && request.getRestrictions() == null) {
+            return restrictionsRequiredRule;
+        }
+        if (restrictionSchema == RestrictionSchema.NONE && request.getRestrictions() != null) {
+            return noRestrictionsRule;
+        }
+        return null;
+    }
+
+    /**
+     * Checks the dates and amounts of a creation request. Runs after the activation date check.
+     *
+     * @param request A request for a card of this product that passed checkCreationShape.
+     * @param today The current date.
+     * @return The first violated rule, or null.
+     */
+    public ProductRule checkCreationValues(CardCreationRequest request, LocalDate today) {
+        if (restrictionSchema == RestrictionSchema.REQUIRED && request.getRestrictions() != null
+                && request.getRestrictions().getExpiryDate() != null) {
+            LocalDate expiryDate = request.getRestrictions().getExpiryDate();
+            if (expiryDate.isBefore(today)) {
+                return expiryInFutureRule;
+            }
+            if (expiryDate.isAfter(today.plusDays(maxExpiryDays))) {
+                return expiryWithinRule;
+            }
+        }
+        if (loadAmountMultiple != 0 && request.getLoadAmount() % loadAmountMultiple != 0) {
+            return loadAmountMultipleRule;
+        }
+        return null;
+    }
+
+    /**
+     * @return The swipe count of a new card: 0 if the product counts swipes, null otherwise.
+     */
+    public Integer initialSwipes() {
+        return countsSwipes ? 0 : null;
+    }
+
+    /**
+     * Checks a swipe against the card's restrictions. Activation and balance apply to all products and are checked
+     * by the caller.
+     *
+     * @param card A card of this product.
+     * @param amount The amount to charge.
+     * @param today The current date.
+     * @return The message of the 400 response, or null if the restrictions permit the swipe.
+     */
+    public String swipeDenial(CardResponse card, double amount, LocalDate today) {
+        Restrictions restrictions = card.getRestrictions();
+        if (restrictionSchema != RestrictionSchema.REQUIRED || restrictions == null) {
+            return null;
+        }
+        if (restrictions.getExpiryDate() != null && restrictions.getExpiryDate().isBefore(today)) {
+            return "Card has expired.";
+        }
+        int swipes = card.getCurrentNumberOfSwipes() != null ? card.getCurrentNumberOfSwipes() : 0;
+        if (restrictions.getMaxSwipes() != null && swipes >= restrictions.getMaxSwipes()) {
+            return "Maximum number of swipes reached.";
+        }
+        if (restrictions.getPerTransactionLimit() != null && amount > restrictions.getPerTransactionLimit()) {
+            return "Amount exceeds the per-transaction limit.";
+        }
+        return null;
+    }
+
+    /**
+     * @return The message of the 400 response to a reload, or null if cards of the product can be reloaded.
+     */
+    public String reloadDenial() {
+        return reloadable ? null : reloadDenial;
+    }
+
+    /**
+     * @return True if cards count their swipes, so a refund gives one back.
+     */
+    public boolean countsSwipes() {
+        return countsSwipes;
+    }
+}
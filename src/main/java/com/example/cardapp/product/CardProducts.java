@@ -0,0 +1,54 @@
+package com.example.cardapp.product;
+
+import com.example.cardapp.model.CardProductType;
+
+/**
+ * Registry of the card products, indexed by CardProductType ordinal, so finding a type's product is one array load.
+ * A product type is added by adding its enum constant and its case below; the switch does not compile until every
+ * type has a product. Messages listing the accepted product types follow the enum.
+ */
+public final class CardProducts {
+
+    private static final CardProduct[] PRODUCTS = new CardProduct[CardProductType.values().length];
+    private static final String QUOTED_NAMES = quote(CardProductType.values());
+
+    static {
+        for (CardProductType type : CardProductType.values()) {
+            PRODUCTS[type.ordinal()] = switch (type) {
+                case PREPAID -> new CardProduct(type, "Prepaid", true, CardProduct.RestrictionSchema.NONE,
+                        5, 0, true, false);
+                case LIMITED_USE -> new CardProduct(type, "Limited Use", false, CardProduct.RestrictionSchema.REQUIRED,
+                        0, 32, false, true);
+            };
+        }
+    }
+
+    private CardProducts() {
+    }
+
+    /**
+     * @param type A product type, not null.
+     * @return The type's product.
+     */
+    public static CardProduct of(CardProductType type) {
+        return PRODUCTS[type.ordinal()];
+    }
+
+    /**
+     * @return The product type names for messages listing the accepted values, e.g. "'PREPAID' or 'LIMITED_USE'".
+     */
+    public static String quotedNames() {
+        return QUOTED_NAMES;
+    }
+
+    private static String quote(CardProductType[] types) {
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                names.append(i == types.length - 1 ? " or " : ", ");
+            }
+            names.append('\'').append(types[i].name()).append('\'');
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cardapp.product;
+
+/**
+ * A business rule of a card product that rejected a creation request.
+ * Instances are built once per product, so rejecting a request allocates no message.
+ *
+ * @param name The rule name reported in the CardRuleRejection JFR event, e.g. "prepaid-load-multiple-of-5".
+ * @param message The message of the 400 response.
+ */
+public record ProductRule(String name, String message) {
+}
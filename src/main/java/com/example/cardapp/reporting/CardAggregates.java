@@ -0,0 +1,145 @@
+package com.example.cardapp.reporting;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.dto.CardSummary;
+import com.example.cardapp.dto.CreatorSummary;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.service.CardEventListener;
+import com.example.cardapp.service.CardUpdateType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals per card creator and card product type, maintained incrementally from the CardEventListener
+ * callbacks so reports never scan the store: a summary costs the same for ten cards as for ten million.
+ * <p>
+ * Every total is a LongAdder, so concurrent creates and swipes of different cards add to separate cells instead
+ * of contending on one counter. Amounts are kept in cents. A summary read while cards are being written may
+ * include part of a concurrent update (e.g. the swipe count but not yet the balance change); it is exact once
+ * writes settle. Swipe totals are the sum of the cards' currentNumberOfSwipes, which only Limited Use cards keep.
+ * <p>
+ * Like the listing cache, the totals are local to this node and only follow writes made through this node's
+ * CardService, on top of the cards found in the store at startup.
+ */
+@Component
+public class CardAggregates implements CardEventListener {
+
+    private final Map<Key, Totals> byCreator = new ConcurrentHashMap<>();
+    private final Map<CardProductType, Totals> byProduct = new EnumMap<>(CardProductType.class);
+
+    public CardAggregates() {
+        for (CardProductType cardProductType : CardProductType.values()) {
+            byProduct.put(cardProductType, new Totals(null));
+        }
+    }
+
+    @Override
+    public void cardsAdded(Collection<CardResponse> cards) {
+        for (CardResponse card : cards) {
+            long load = toCents(card.getLoadAmount());
+            long current = toCents(card.getCurrentLoad());
+            long swipes = swipesOf(card);
+            for (Totals totals : totalsOf(card)) {
+                totals.cards.increment();
+                totals.loadAmountCents.add(load);
+                totals.currentLoadCents.add(current);
+                totals.swipes.add(swipes);
+            }
+        }
+    }
+
+    @Override
+    public void cardUpdated(CardUpdateType type, CardResponse previous, CardResponse updated) {
+        long loadDelta = toCents(updated.getLoadAmount()) - toCents(previous.getLoadAmount());
+        long currentDelta = toCents(updated.getCurrentLoad()) - toCents(previous.getCurrentLoad());
+        // Swipes come only from the card's own count, as when the totals are rebuilt from the store at startup;
+        // Prepaid cards keep no count, so their swipes are not totalled
+        long swipeDelta = swipesOf(updated) - swipesOf(previous);
+        for (Totals totals : totalsOf(updated)) {
+            totals.loadAmountCents.add(loadDelta);
+            totals.currentLoadCents.add(currentDelta);
+            totals.swipes.add(swipeDelta);
+        }
+    }
+
+    @Override
+    public void cardsChanged(CardProductType cardProductType) {
+        // The totals were already updated by cardsAdded and cardUpdated
+    }
+
+    /**
+     * Summarizes a card product type, broken down by creator.
+     *
+     * @param cardProductType The product type.
+     * @param cardCreator Restricts the breakdown to one creator, or null for all creators.
+     * @return The product totals with the matching creators' totals, ordered by creator.
+     */
+    public CardSummary summarize(CardProductType cardProductType, String cardCreator) {
+        List<CreatorSummary> creators = new ArrayList<>();
+        if (cardCreator != null) {
+            Totals totals = byCreator.get(new Key(cardCreator, cardProductType));
+            if (totals != null) {
+                creators.add(totals.toCreatorSummary());
+            }
+        } else {
+            for (Map.Entry<Key, Totals> entry : byCreator.entrySet()) {
+                if (entry.getKey().cardProduct() == cardProductType) {
+                    creators.add(entry.getValue().toCreatorSummary());
+                }
+            }
+            creators.sort(Comparator.comparing(CreatorSummary::getCardCreator, Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        Totals totals = byProduct.get(cardProductType);
+        return new CardSummary(cardProductType, totals.cards.sum(), fromCents(totals.loadAmountCents.sum()),
+                fromCents(totals.currentLoadCents.sum()), totals.swipes.sum(), creators);
+    }
+
+    private Totals[] totalsOf(CardResponse card) {
+        Totals creator = byCreator.computeIfAbsent(new Key(card.getCardCreator(), card.getCardProduct()),
+                key -> new Totals(key.cardCreator()));
+        return new Totals[]{creator, byProduct.get(card.getCardProduct())};
+    }
+
+    private static long swipesOf(CardResponse card) {
+        return card.getCurrentNumberOfSwipes() != null ? card.getCurrentNumberOfSwipes() : 0;
+    }
+
+    private static long toCents(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0;
+    }
+
+    private static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    private record Key(String cardCreator, CardProductType cardProduct) {
+    }
+
+    /**
+     * Striped totals of one creator and product, or of a whole product.
+     */
+    private static final class Totals {
+        private final String cardCreator;
+        private final LongAdder cards = new LongAdder();
+        private final LongAdder loadAmountCents = new LongAdder();
+        private final LongAdder currentLoadCents = new LongAdder();
+        private final LongAdder swipes = new LongAdder();
+
+        private Totals(String cardCreator) {
+            this.cardCreator = cardCreator;
+        }
+
+        private CreatorSummary toCreatorSummary() {
+            return new CreatorSummary(cardCreator, cards.sum(), fromCents(loadAmountCents.sum()),
+                    fromCents(currentLoadCents.sum()), swipes.sum());
+        }
+    }
+}
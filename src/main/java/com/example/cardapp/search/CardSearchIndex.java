@@ -0,0 +1,317 @@
+package com.example.cardapp.search;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.service.CardEventListener;
+import com.example.cardapp.store.CardStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over the words of card titles and descriptions, one per card product type,
+ * maintained incrementally from the CardEventListener callbacks.
+ * <p>
+ * Each card gets a dense int document id in the order it was added. Terms are kept in a sorted dictionary, so
+ * a query word matches every term it is a prefix of with one range lookup, and each term's postings are an int
+ * array of document ids, or a bitmap for frequent terms. A query is answered by OR-ing the postings of each query
+ * word's terms into a bitmap and AND-ing the bitmaps of the words, 64 documents per operation.
+ * <p>
+ * Writes are serialized per product; searches take no lock. Titles and descriptions never change after a card
+ * is created, so updates need no reindexing. Like the listing cache, the index is local to this node and
+ * only follows writes made through this node's CardService, on top of the cards found in the store at startup.
+ */
+@Component
+public class CardSearchIndex implements CardEventListener {
+
+    private static final int TITLE_SCORE = 2;
+    private static final int DESCRIPTION_SCORE = 1;
+
+    private final CardStore cardStore;
+    private final Map<CardProductType, ProductIndex> indexes = new EnumMap<>(CardProductType.class);
+
+    /**
+     * @param cardStore The store the cards of search results are read from, so they show the current balance.
+     */
+    @Autowired
+    public CardSearchIndex(CardStore cardStore) {
+        this.cardStore = cardStore;
+        for (CardProductType cardProductType : CardProductType.values()) {
+            indexes.put(cardProductType, new ProductIndex());
+        }
+    }
+
+    @Override
+    public void cardsAdded(Collection<CardResponse> cards) {
+        for (CardResponse card : cards) {
+            indexes.get(card.getCardProduct()).add(card);
+        }
+    }
+
+    @Override
+    public void cardsChanged(CardProductType cardProductType) {
+        // Indexed fields never change, cardsAdded already indexed new cards
+    }
+
+    /**
+     * Finds the cards of a product type whose title or description contain a word starting with each word of
+     * the query, case-insensitively. Cards matching more query words in the title rank first, then older cards.
+     *
+     * @param cardProductType The product type to search.
+     * @param query The query, e.g. "trav card".
+     * @param limit The maximum number of cards to return.
+     * @return The best matching cards, best first; empty if the query contains no words.
+     */
+    public List<CardResponse> search(CardProductType cardProductType, String query, int limit) {
+        List<String> words = tokenize(query);
+        ProductIndex index = indexes.get(cardProductType);
+        int[] docs = index.search(words, limit);
+        List<CardResponse> cards = new ArrayList<>(docs.length);
+        for (int doc : docs) {
+            cardStore.findByCardNumber(cardProductType, index.cardNumber(doc)).ifPresent(cards::add);
+        }
+        return cards;
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     *
+     * @param text The text, may be null.
+     * @return The words in order, with duplicates.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Term dictionaries and postings of one card product type.
+     */
+    private static final class ProductIndex {
+        private final NavigableMap<String, Postings> titleTerms = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Postings> descriptionTerms = new ConcurrentSkipListMap<>();
+        private volatile String[] cardNumbers = new String[64];
+        private volatile int docCount;
+
+        private synchronized void add(CardResponse card) {
+            int doc = docCount;
+            if (doc == cardNumbers.length) {
+                cardNumbers = Arrays.copyOf(cardNumbers, doc * 2);
+            }
+            cardNumbers[doc] = card.getCardNumber();
+            docCount = doc + 1;
+            // Postings are published after the card number, so a search never finds a document it cannot resolve
+            for (String term : tokenize(card.getCardTitle())) {
+                titleTerms.computeIfAbsent(term, key -> new Postings()).append(doc);
+            }
+            for (String term : tokenize(card.getCardDescription())) {
+                descriptionTerms.computeIfAbsent(term, key -> new Postings()).append(doc);
+            }
+        }
+
+        private String cardNumber(int doc) {
+            return cardNumbers[doc];
+        }
+
+        private int[] search(List<String> words, int limit) {
+            if (words.isEmpty() || limit <= 0) {
+                return new int[0];
+            }
+            // Postings may already hold documents added after this read; the mask drops them from the last word,
+            // so every returned document has a card number published before docCount
+            int count = docCount;
+            int wordCount = (count + 63) >>> 6;
+            long lastWordMask = (count & 63) == 0 ? -1L : (1L << count) - 1;
+            long[] matches = null;
+            long[] allInTitle = null;
+            long[][] inTitle = new long[words.size()][];
+            for (int i = 0; i < words.size(); i++) {
+                inTitle[i] = new long[wordCount];
+                long[] word = new long[wordCount];
+                collect(titleTerms, words.get(i), inTitle[i]);
+                collect(descriptionTerms, words.get(i), word);
+                if (wordCount > 0) {
+                    inTitle[i][wordCount - 1] &= lastWordMask;
+                    word[wordCount - 1] &= lastWordMask;
+                }
+                boolean any = false;
+                for (int w = 0; w < wordCount; w++) {
+                    word[w] |= inTitle[i][w];
+                    if (matches != null) {
+                        word[w] &= matches[w];
+                    }
+                    any |= word[w] != 0;
+                }
+                if (!any) {
+                    return new int[0];
+                }
+                matches = word;
+                allInTitle = i == 0 ? inTitle[i].clone() : and(allInTitle, inTitle[i]);
+            }
+            // Fast path: enough cards match every word in the title, and the oldest of them are the best matches
+            int[] best = firstDocs(and(allInTitle, matches), limit);
+            if (best.length == limit) {
+                return best;
+            }
+            return topDocs(matches, inTitle, limit);
+        }
+
+        /**
+         * ORs the documents of every term starting with the prefix into the bitmap.
+         */
+        private static void collect(NavigableMap<String, Postings> terms, String prefix, long[] target) {
+            for (Postings postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                postings.orInto(target);
+            }
+        }
+
+        private static long[] and(long[] left, long[] right) {
+            for (int w = 0; w < left.length; w++) {
+                left[w] &= right[w];
+            }
+            return left;
+        }
+
+        private static int[] firstDocs(long[] bitmap, int limit) {
+            int[] docs = new int[limit];
+            int count = 0;
+            for (int w = 0; w < bitmap.length && count < limit; w++) {
+                long bits = bitmap[w];
+                while (bits != 0 && count < limit) {
+                    docs[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            return count == limit ? docs : Arrays.copyOf(docs, count);
+        }
+
+        /**
+         * Picks the best documents in one pass: the first documents seen of each score are the oldest,
+         * so only the first limit documents of each score need to be kept.
+         */
+        private static int[] topDocs(long[] matches, long[][] inTitle, int limit) {
+            int maxScore = inTitle.length * TITLE_SCORE;
+            int[][] byScore = new int[maxScore + 1][];
+            int[] counts = new int[maxScore + 1];
+            int total = 0;
+            for (int w = 0; w < matches.length; w++) {
+                long bits = matches[w];
+                while (bits != 0) {
+                    long bit = bits & -bits;
+                    bits ^= bit;
+                    int score = 0;
+                    for (long[] title : inTitle) {
+                        score += (title[w] & bit) != 0 ? TITLE_SCORE : DESCRIPTION_SCORE;
+                    }
+                    if (counts[score] < limit) {
+                        if (byScore[score] == null) {
+                            byScore[score] = new int[limit];
+                        }
+                        byScore[score][counts[score]++] = (w << 6) + Long.numberOfTrailingZeros(bit);
+                        total++;
+                    }
+                }
+            }
+            int[] top = new int[Math.min(limit, total)];
+            int filled = 0;
+            for (int score = maxScore; score >= 0 && filled < top.length; score--) {
+                int take = Math.min(counts[score], top.length - filled);
+                if (take > 0) {
+                    System.arraycopy(byScore[score], 0, top, filled, take);
+                    filled += take;
+                }
+            }
+            return top;
+        }
+    }
+
+    /**
+     * Ascending document ids of one term, in one of two containers like a roaring bitmap's: a sorted int array
+     * while the term is rare, and a bitmap once it occurs in more than one of every 16 documents, where the bitmap
+     * is smaller and can be OR-ed a 64-bit word at a time.
+     * Appended to by the single writer of the product index; size is written last, so a reader that read it
+     * sees at least size documents in whichever container is current.
+     */
+    private static final class Postings {
+        private static final int MIN_BITMAP_SIZE = 64;
+        private static final int BITMAP_DENSITY = 16;
+
+        private volatile int[] docs = new int[4];
+        private volatile long[] bitmap;
+        private volatile int size;
+        private int lastDoc = -1;
+
+        private void append(int doc) {
+            if (doc == lastDoc) {
+                return; // Term repeated within the same field
+            }
+            lastDoc = doc;
+            int n = size;
+            long[] words = bitmap;
+            if (words == null && n >= MIN_BITMAP_SIZE && n * BITMAP_DENSITY > doc) {
+                words = new long[Math.max(1, (doc >>> 6) + 1) * 2];
+                int[] ids = docs;
+                for (int i = 0; i < n; i++) {
+                    words[ids[i] >>> 6] |= 1L << ids[i];
+                }
+            }
+            if (words != null) {
+                if ((doc >>> 6) >= words.length) {
+                    words = Arrays.copyOf(words, Math.max(words.length * 2, (doc >>> 6) + 1));
+                }
+                words[doc >>> 6] |= 1L << doc;
+                bitmap = words;
+            } else {
+                if (n == docs.length) {
+                    docs = Arrays.copyOf(docs, n * 2);
+                }
+                docs[n] = doc;
+            }
+            size = n + 1;
+        }
+
+        private void orInto(long[] target) {
+            if (size == 0) {
+                return;
+            }
+            long[] words = bitmap;
+            if (words != null) {
+                int length = Math.min(words.length, target.length);
+                for (int w = 0; w < length; w++) {
+                    target[w] |= words[w];
+                }
+                return;
+            }
+            int n = size;
+            int[] ids = docs;
+            for (int i = 0; i < n; i++) {
+                int doc = ids[i];
+                if ((doc >>> 6) < target.length) {
+                    target[doc >>> 6] |= 1L << doc;
+                }
+            }
+        }
+    }
+}
@@ -1,50 +1,31 @@
 package com.example.cardapp.security;
 
-import com.example.cardapp.service.TokenService;
-import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Interceptor to simulate authentication based on a Bearer token.
- * It validates static hardcoded tokens and dynamically generated time-based tokens.
+ * Tokens are checked by the BearerTokenAuthenticator.
  * It sets the AuthContext with the authenticated user's information.
  */
 @Component
 public class AuthInterceptor implements HandlerInterceptor {
 
-    @Value("${auth.token.static.prepaid-user}")
-    private String staticPrepaidUserToken;
-
-    @Value("${auth.token.static.limited-user}")
-    private String staticLimitedUserToken;
-
-    private final Map<String, AuthUser> staticValidTokens = new ConcurrentHashMap<>();
-
-    private final TokenService tokenService;
-
-    @Autowired
-    public AuthInterceptor(TokenService tokenService) {
-        this.tokenService = tokenService;
-    }
+    private final BearerTokenAuthenticator authenticator;
+    private final WarmupTraffic warmupTraffic;
 
     /**
-     * Initializes the staticValidTokens map after properties are set.
-     * Using @PostConstruct to ensure properties are injected before this runs.
+     * @param authenticator The authenticator validating static and time-based tokens.
+     * @param warmupTraffic Recognizes warm-up requests, whose rejections are not audited.
      */
-    @PostConstruct
-    public void initStaticTokens() {
-        staticValidTokens.put(staticPrepaidUserToken, new AuthUser("static_prepaid_user", AuthUser.Role.PREPAID_ONLY));
-        staticValidTokens.put(staticLimitedUserToken, new AuthUser("static_limited_user", AuthUser.Role.LIMITED_USE_ONLY));
+    @Autowired
+    public AuthInterceptor(BearerTokenAuthenticator authenticator, WarmupTraffic warmupTraffic) {
+        this.authenticator = authenticator;
+        this.warmupTraffic = warmupTraffic;
     }
 
     /**
@@ -62,29 +43,15 @@ public class AuthInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        String authorizationHeader = request.getHeader("Authorization");
-
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Unauthorized: Missing or invalid Authorization header.");
+        BearerTokenAuthenticator.Authentication authentication =
+                authenticator.authenticate(request.getHeader("Authorization"), request.getRequestURI(),
+                        warmupTraffic.isWarmup(request.getHeader(WarmupTraffic.HEADER)));
+        if (!authentication.isAuthenticated()) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), authentication.failure());
             return false;
         }
-
-        String token = authorizationHeader.substring(7);
-
-        AuthUser authUser = staticValidTokens.get(token);
-        if (authUser != null) {
-            AuthContext.setCurrentUser(authUser);
-            return true;
-        }
-
-        Optional<AuthUser> timeBasedAuthUser = tokenService.validateTimeBasedToken(token);
-        if (timeBasedAuthUser.isPresent()) {
-            AuthContext.setCurrentUser(timeBasedAuthUser.get());
-            return true;
-        }
-
-        response.sendError(HttpStatus.UNAUTHORIZED.value(), "Unauthorized: Invalid or expired token.");
-        return false;
+        AuthContext.setCurrentUser(authentication.user());
+        return true;
     }
 
     /**
@@ -100,4 +67,4 @@ public class AuthInterceptor implements HandlerInterceptor {
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
         AuthContext.clear();
     }
-}
\ No newline at end of file
+}
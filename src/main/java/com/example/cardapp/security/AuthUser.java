@@ -2,14 +2,17 @@ package com.example.cardapp.security;
 
 /**
  * Represents an authenticated user with their ID and assigned role.
+ * The user's CardCapability is derived from the role when the user is created, i.e. once per token.
  */
 public class AuthUser {
     private String userId;
     private Role role;
+    private CardCapability capability;
 
     public AuthUser(String userId, Role role) {
         this.userId = userId;
         this.role = role;
+        this.capability = CardCapability.forRole(role);
     }
 
     public String getUserId() {
@@ -20,6 +23,10 @@ public class AuthUser {
         return role;
     }
 
+    public CardCapability getCapability() {
+        return capability;
+    }
+
     /**
      * Defines the roles available in the simulated authentication system.
      */
@@ -27,4 +34,4 @@ public class AuthUser {
         PREPAID_ONLY,
         LIMITED_USE_ONLY
     }
-}
\ No newline at end of file
+}
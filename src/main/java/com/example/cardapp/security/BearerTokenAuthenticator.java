@@ -0,0 +1,166 @@
+package com.example.cardapp.security;
+
+import com.example.cardapp.audit.AuditLog;
+import com.example.cardapp.audit.AuditRecordType;
+import com.example.cardapp.diagnostics.AuthenticationEvent;
+import com.example.cardapp.service.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Simulates authentication based on a Bearer token.
+ * It validates static hardcoded tokens and dynamically generated time-based tokens, and rejects tokens that were
+ * logged out on any node according to the TokenSessionRegistry. Rejected requests are recorded in the AuditLog,
+ * except those of the warm-up.
+ * Shared by the servlet AuthInterceptor and the reactive authentication filter, so both stacks accept
+ * the same tokens and answer with the same messages; each stack decides where to keep the user.
+ */
+@Component
+public class BearerTokenAuthenticator {
+
+    private final Map<String, AuthUser> staticValidTokens = new ConcurrentHashMap<>();
+
+    private final TokenService tokenService;
+    private final TokenSessionRegistry sessionRegistry;
+    private final AuditLog auditLog;
+
+    /**
+     * @param tokenService The service validating time-based tokens.
+     * @param sessionRegistry The cluster-wide record of logged in and logged out tokens.
+     * @param auditLog The audit trail rejected requests are recorded in.
+     * @param staticPrepaidUserToken The static token of the prepaid user.
+     * @param staticLimitedUserToken The static token of the limited use user.
+     */
+    @Autowired
+    public BearerTokenAuthenticator(TokenService tokenService,
+                                    TokenSessionRegistry sessionRegistry,
+                                    AuditLog auditLog,
+                                    @Value("${auth.token.static.prepaid-user}") String staticPrepaidUserToken,
+                                    @Value("${auth.token.static.limited-user}") String staticLimitedUserToken) {
+        this.tokenService = tokenService;
+        this.sessionRegistry = sessionRegistry;
+        this.auditLog = auditLog;
+        staticValidTokens.put(staticPrepaidUserToken, new AuthUser("static_prepaid_user", AuthUser.Role.PREPAID_ONLY));
+        staticValidTokens.put(staticLimitedUserToken, new AuthUser("static_limited_user", AuthUser.Role.LIMITED_USE_ONLY));
+    }
+
+    /**
+     * Authenticates a request by its Authorization header and records the decision as a JFR event,
+     * and rejections also in the audit log unless the request is warm-up traffic.
+     *
+     * @param authorizationHeader The Authorization header, may be null.
+     * @param path The request path, reported in the JFR event.
+     * @param warmup Whether the request was sent by the warm-up, see WarmupTraffic.
+     * @return The authenticated user, or the reason the request is unauthorized.
+     */
+    public Authentication authenticate(String authorizationHeader, String path, boolean warmup) {
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            commit(event, AuthenticationEvent.MISSING_HEADER, null, path);
+            if (!warmup) {
+                auditLog.record(AuditRecordType.AUTH_MISSING_TOKEN, null, path);
+            }
+            return Authentication.failed("Unauthorized: Missing or invalid Authorization header.");
+        }
+
+        String token = authorizationHeader.substring(7);
+
+        if (sessionRegistry.isRevoked(token)) {
+            commit(event, AuthenticationEvent.REVOKED_TOKEN, null, path);
+            if (!warmup) {
+                auditLog.record(AuditRecordType.AUTH_REVOKED_TOKEN, null, path);
+            }
+            return Authentication.failed("Unauthorized: Token has been logged out.");
+        }
+
+        AuthUser authUser = staticValidTokens.get(token);
+        if (authUser != null) {
+            commit(event, AuthenticationEvent.STATIC_TOKEN, authUser, path);
+            return Authentication.succeeded(authUser);
+        }
+
+        Optional<AuthUser> timeBasedAuthUser = tokenService.validateTimeBasedToken(token);
+        if (timeBasedAuthUser.isPresent()) {
+            commit(event, AuthenticationEvent.TIME_BASED_TOKEN, timeBasedAuthUser.get(), path);
+            return Authentication.succeeded(timeBasedAuthUser.get());
+        }
+
+        commit(event, AuthenticationEvent.INVALID_TOKEN, null, path);
+        if (!warmup) {
+            auditLog.record(AuditRecordType.AUTH_INVALID_TOKEN, null, path);
+        }
+        return Authentication.failed("Unauthorized: Invalid or expired token.");
+    }
+
+    /**
+     * Records a token handed out by login, lifting an earlier logout of the same token on every node.
+     * Time-based tokens are the same for every login of a user within an hour.
+     *
+     * @param token The token.
+     * @param userId The user who logged in.
+     */
+    public void loggedIn(String token, String userId) {
+        sessionRegistry.recordLogin(token, userId, tokenService.tokenExpiry());
+    }
+
+    /**
+     * Revokes a token on every node until it expires. Static tokens never expire and cannot log in again, so a
+     * logout would lock them out on every node for good; they are refused instead.
+     *
+     * @param authorizationHeader The Authorization header of the authenticated request.
+     * @param user The user it authenticated.
+     * @return True if the token was revoked, false if it is a static token.
+     */
+    public boolean logout(String authorizationHeader, AuthUser user) {
+        String token = authorizationHeader.substring(7);
+        if (staticValidTokens.containsKey(token)) {
+            return false;
+        }
+        sessionRegistry.revoke(token, user.getUserId(), tokenService.tokenExpiry());
+        return true;
+    }
+
+    /**
+     * Commits the authentication event if JFR is recording it. Fields are only filled in when it is.
+     */
+    private static void commit(AuthenticationEvent event, String outcome, AuthUser user, String path) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.role = user != null ? user.getRole().name() : null;
+            event.path = path;
+            event.commit();
+        }
+    }
+
+    /**
+     * Outcome of an authentication: either the user or the message of the 401 response.
+     *
+     * @param user The authenticated user, null if the request is unauthorized.
+     * @param failure The reason the request is unauthorized, null if it is authenticated.
+     */
+    public record Authentication(AuthUser user, String failure) {
+
+        static Authentication succeeded(AuthUser user) {
+            return new Authentication(user, null);
+        }
+
+        static Authentication failed(String failure) {
+            return new Authentication(null, failure);
+        }
+
+        /**
+         * @return True if a user was authenticated.
+         */
+        public boolean isAuthenticated() {
+            return user != null;
+        }
+    }
+}
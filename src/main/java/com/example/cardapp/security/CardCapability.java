@@ -0,0 +1,102 @@
+package com.example.cardapp.security;
+
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.product.CardProducts;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The card products a user may list, create and swipe, derived once from the role when the user's token is
+ * authenticated and carried on the AuthUser. Services ask the capability which store partitions a request may
+ * reach instead of comparing roles with product types on every call.
+ * Capabilities are immutable and shared by all users with the same role.
+ */
+public final class CardCapability {
+
+    /**
+     * Capability of calls made without an authenticated user, e.g. startup seeding: every product.
+     */
+    public static final CardCapability UNRESTRICTED =
+            new CardCapability(EnumSet.allOf(CardProductType.class), null, null);
+
+    private static final Map<AuthUser.Role, CardCapability> BY_ROLE = new EnumMap<>(Map.of(
+            AuthUser.Role.PREPAID_ONLY, forProduct(CardProductType.PREPAID),
+            AuthUser.Role.LIMITED_USE_ONLY, forProduct(CardProductType.LIMITED_USE)));
+
+    private final Set<CardProductType> products;
+    private final String userLabel;
+    private final String ruleLabel;
+
+    private CardCapability(Set<CardProductType> products, String userLabel, String ruleLabel) {
+        this.products = Collections.unmodifiableSet(products);
+        this.userLabel = userLabel;
+        this.ruleLabel = ruleLabel;
+    }
+
+    private static CardCapability forProduct(CardProductType cardProductType) {
+        return new CardCapability(EnumSet.of(cardProductType), CardProducts.of(cardProductType).getLabel(), kebabCase(cardProductType));
+    }
+
+    /**
+     * @param role The user's role.
+     * @return The shared capability of that role.
+     */
+    public static CardCapability forRole(AuthUser.Role role) {
+        return BY_ROLE.get(role);
+    }
+
+    /**
+     * @param user The authenticated user, may be null.
+     * @return The user's capability, or UNRESTRICTED if there is no user.
+     */
+    public static CardCapability of(AuthUser user) {
+        return user != null ? user.getCapability() : UNRESTRICTED;
+    }
+
+    /**
+     * @param cardProductType A card product type.
+     * @return True if the user may list, create and swipe cards of the product type.
+     */
+    public boolean permits(CardProductType cardProductType) {
+        return products.contains(cardProductType);
+    }
+
+    /**
+     * @return The product types, and therefore store partitions, the user may reach.
+     */
+    public Set<CardProductType> getProducts() {
+        return products;
+    }
+
+    /**
+     * @param cardProductType A product type the user may not reach.
+     * @return The message for a refused listing, e.g. "Not Found: Prepaid users cannot view Limited Use cards."
+     */
+    public String listingDenial(CardProductType cardProductType) {
+        return "Not Found: " + userLabel + " users cannot view " + CardProducts.of(cardProductType).getLabel() + " cards.";
+    }
+
+    /**
+     * @param cardProductType A product type the user may not reach.
+     * @return The message for a refused creation, e.g. "Forbidden: Prepaid users cannot create Limited Use cards."
+     */
+    public String creationDenial(CardProductType cardProductType) {
+        return "Forbidden: " + userLabel + " users cannot create " + CardProducts.of(cardProductType).getLabel() + " cards.";
+    }
+
+    /**
+     * @param cardProductType A product type the user may not reach.
+     * @return The rule name reported for a refused creation, e.g. "prepaid-user-creates-limited-use".
+     */
+    public String creationRule(CardProductType cardProductType) {
+        return ruleLabel + "-user-creates-" + kebabCase(cardProductType);
+    }
+
+    private static String kebabCase(CardProductType cardProductType) {
+        return cardProductType.name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.cardapp.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate per-key failure counts over a sliding window, in constant memory however many keys are seen.
+ * <p>
+ * Failures are counted in a count-min sketch per fixed window: DEPTH rows of width counters, each key adding one to
+ * a counter per row, and a key's count being the smallest of its counters. Collisions can only inflate a count, never
+ * hide failures. The sliding count is the current window's count plus the previous window's weighted by how much
+ * of it still overlaps the sliding window, so counts decay smoothly instead of resetting at window boundaries.
+ * <p>
+ * Counters are atomic, so adds and lookups need no lock; only starting a new window is synchronized, once per window.
+ */
+final class FailureSketch {
+
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final int mask;
+    private final long windowMillis;
+    private final int seed = ThreadLocalRandom.current().nextInt();
+    private final AtomicIntegerArray empty;
+
+    private volatile Window window;
+
+    /**
+     * @param width Counters per row, rounded up to a power of two.
+     * @param windowMillis Length of the sliding window.
+     * @param now The current time in milliseconds; the first window starts here.
+     */
+    FailureSketch(int width, long windowMillis, long now) {
+        this.width = width <= 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.windowMillis = Math.max(1, windowMillis);
+        this.empty = new AtomicIntegerArray(DEPTH * this.width);
+        this.window = new Window(now, new AtomicIntegerArray(DEPTH * this.width), empty);
+    }
+
+    /**
+     * Counts one failure of the key.
+     *
+     * @param key The key, e.g. a user id.
+     * @param now The current time in milliseconds.
+     */
+    void add(String key, long now) {
+        AtomicIntegerArray counts = window(now).current;
+        int hash = key.hashCode();
+        int h1 = mix(hash ^ seed);
+        int h2 = mix(hash ^ seed ^ 0x9E3779B9) | 1;
+        for (int row = 0; row < DEPTH; row++) {
+            counts.incrementAndGet(row * width + ((h1 + row * h2) & mask));
+        }
+    }
+
+    /**
+     * @param key The key, e.g. a user id.
+     * @param limit The number of failures in the sliding window at which the key is blocked.
+     * @param now The current time in milliseconds.
+     * @return 0 if the key has fewer failures than the limit, otherwise the milliseconds until its count decays
+     *         below the limit, provided it has no more failures.
+     */
+    long blockedMillis(String key, int limit, long now) {
+        Window current = window(now);
+        int hash = key.hashCode();
+        int h1 = mix(hash ^ seed);
+        int h2 = mix(hash ^ seed ^ 0x9E3779B9) | 1;
+        int failures = Integer.MAX_VALUE;
+        int previousFailures = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            failures = Math.min(failures, current.current.get(index));
+            previousFailures = Math.min(previousFailures, current.previous.get(index));
+        }
+
+        double elapsed = (now - current.start) / (double) windowMillis;
+        if (failures + previousFailures * (1 - elapsed) < limit) {
+            return 0;
+        }
+        double decayed;
+        if (failures < limit) {
+            // The previous window's share falls below what is left of the limit within this window
+            decayed = 1 - (limit - failures) / (double) previousFailures;
+        } else {
+            // This window's failures become the previous window's, and decay within the next window
+            decayed = 2 - limit / (double) failures;
+        }
+        return (long) Math.ceil((decayed - elapsed) * windowMillis) + 1;
+    }
+
+    /**
+     * @return The window containing now, starting a new one if the current window has ended.
+     */
+    private Window window(long now) {
+        Window current = window;
+        if (now - current.start < windowMillis) {
+            return current;
+        }
+        synchronized (this) {
+            current = window;
+            long ended = (now - current.start) / windowMillis;
+            if (ended > 0) {
+                current = new Window(current.start + ended * windowMillis, new AtomicIntegerArray(DEPTH * width),
+                        ended == 1 ? current.current : empty);
+                window = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Murmur3's 32-bit finalizer, spreading String.hashCode's weak low bits over the whole word.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * @param start When the current window started, in milliseconds.
+     * @param current Counters of the current window.
+     * @param previous Counters of the window before it, no longer written.
+     */
+    private record Window(long start, AtomicIntegerArray current, AtomicIntegerArray previous) {
+    }
+}
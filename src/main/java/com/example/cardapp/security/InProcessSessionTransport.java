@@ -0,0 +1,55 @@
+package com.example.cardapp.security;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SessionTransport whose "remote" nodes are registries living in the same JVM.
+ * Calls still complete asynchronously on their own threads, so replication behaves as it would over a network.
+ * Used as the default transport and as the stand-in for multi-node tests.
+ */
+public class InProcessSessionTransport implements SessionTransport {
+
+    private final Map<String, TokenSessionRegistry> nodes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Makes a registry reachable under a node id.
+     *
+     * @param nodeId The node id.
+     * @param registry The registry of that node.
+     */
+    public void register(String nodeId, TokenSessionRegistry registry) {
+        nodes.put(nodeId, registry);
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String nodeId, Collection<TokenSession> sessions) {
+        return CompletableFuture.runAsync(() -> node(nodeId).merge(sessions), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<TokenSession>> fetch(String nodeId) {
+        return CompletableFuture.supplyAsync(() -> node(nodeId).snapshot(), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private TokenSessionRegistry node(String nodeId) {
+        TokenSessionRegistry registry = nodes.get(nodeId);
+        if (registry == null) {
+            throw new IllegalStateException("No session registry registered for node '" + nodeId + "'.");
+        }
+        return registry;
+    }
+}
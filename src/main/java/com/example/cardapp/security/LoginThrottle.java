@@ -0,0 +1,96 @@
+package com.example.cardapp.security;
+
+import com.example.cardapp.service.CoarseClock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Slows down password guessing and credential stuffing on login.
+ * <p>
+ * Failed logins are counted per user id and per client address over a sliding window, in FailureSketches whose size
+ * does not grow with the number of user ids or addresses an attacker sends. Once either count reaches its limit,
+ * logins for that user id or from that address are refused with a retry delay until the count has decayed.
+ * The check runs before the credentials are checked, so a refused login costs a few counter reads, however expensive
+ * checking credentials becomes.
+ * <p>
+ * The login endpoints do not report the warm-up's failed logins, see WarmupTraffic; they come from the local address
+ * and would otherwise throttle the warm-up's own successful logins and every other client on this host.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final int maxUserFailures;
+    private final int maxClientFailures;
+    private final CoarseClock clock;
+    private final FailureSketch userFailures;
+    private final FailureSketch clientFailures;
+
+    /**
+     * @param enabled Whether logins are throttled at all.
+     * @param window The sliding window failures are counted over.
+     * @param maxUserFailures Failed logins of one user id in the window after which its logins are refused.
+     * @param maxClientFailures Failed logins from one client address in the window after which its logins are refused.
+     * @param sketchWidth Counters per row of each sketch; wider sketches confuse fewer keys.
+     * @param clock The clock failures are timed with.
+     */
+    @Autowired
+    public LoginThrottle(@Value("${cards.auth.throttle.enabled:true}") boolean enabled,
+                         @Value("${cards.auth.throttle.window:1m}") Duration window,
+                         @Value("${cards.auth.throttle.max-user-failures:5}") int maxUserFailures,
+                         @Value("${cards.auth.throttle.max-client-failures:20}") int maxClientFailures,
+                         @Value("${cards.auth.throttle.sketch-width:16384}") int sketchWidth,
+                         CoarseClock clock) {
+        this.enabled = enabled;
+        this.maxUserFailures = maxUserFailures;
+        this.maxClientFailures = maxClientFailures;
+        this.clock = clock;
+        long now = clock.currentTimeMillis();
+        this.userFailures = new FailureSketch(sketchWidth, window.toMillis(), now);
+        this.clientFailures = new FailureSketch(sketchWidth, window.toMillis(), now);
+    }
+
+    /**
+     * Checks whether a login may be attempted, before its credentials are checked.
+     *
+     * @param userId The user id of the login, may be null.
+     * @param clientAddress The address of the client, may be null.
+     * @return 0 if the login may go ahead, otherwise the seconds until the user id and address may try again.
+     */
+    public long retryAfterSeconds(String userId, String clientAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = clock.currentTimeMillis();
+        long blockedMillis = 0;
+        if (userId != null) {
+            blockedMillis = userFailures.blockedMillis(userId, maxUserFailures, now);
+        }
+        if (clientAddress != null) {
+            blockedMillis = Math.max(blockedMillis, clientFailures.blockedMillis(clientAddress, maxClientFailures, now));
+        }
+        return (blockedMillis + 999) / 1000;
+    }
+
+    /**
+     * Counts a login refused for wrong credentials.
+     *
+     * @param userId The user id of the login, may be null.
+     * @param clientAddress The address of the client, may be null.
+     */
+    public void loginFailed(String userId, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.currentTimeMillis();
+        if (userId != null) {
+            userFailures.add(userId, now);
+        }
+        if (clientAddress != null) {
+            clientFailures.add(clientAddress, now);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.cardapp.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Carries token session states between the TokenSessionRegistry instances of the cluster nodes.
+ * Implementations decide how nodes are reached (HTTP, a broadcast bus, or in-process for tests and single-JVM setups).
+ * Delivery may be lost, duplicated or reordered; registries converge through periodic pulls anyway.
+ */
+public interface SessionTransport {
+
+    /**
+     * Pushes session states to a node, which merges them into its registry.
+     *
+     * @param nodeId The receiving node.
+     * @param sessions The states to merge.
+     * @return A future completing once the node has merged them.
+     */
+    CompletableFuture<Void> send(String nodeId, Collection<TokenSession> sessions);
+
+    /**
+     * Pulls every session state a node currently knows.
+     *
+     * @param nodeId The node to ask.
+     * @return A future of the node's states.
+     */
+    CompletableFuture<List<TokenSession>> fetch(String nodeId);
+}
@@ -0,0 +1,69 @@
+package com.example.cardapp.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over tokens, answering "certainly not added" with the first probe that finds its bit clear.
+ * While few tokens are added, nearly every lookup of another token stops after one bit test.
+ * Bits are only ever set, so adds need no lock and lookups may run concurrently with them.
+ */
+final class TokenBloomFilter {
+
+    private static final int PROBES = 3;
+
+    private final AtomicLongArray words;
+    private final int mask;
+
+    /**
+     * @param bits Number of bits, rounded up to a power of two of at least 64.
+     */
+    TokenBloomFilter(int bits) {
+        int size = bits <= 64 ? 64 : Integer.highestOneBit(bits - 1) << 1;
+        this.words = new AtomicLongArray(size >>> 6);
+        this.mask = size - 1;
+    }
+
+    void add(String token) {
+        int hash = token.hashCode();
+        int h1 = mix(hash);
+        int h2 = mix(hash ^ 0x9E3779B9) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            long bitMask = 1L << bit;
+            int word = bit >>> 6;
+            long current = words.get(word);
+            while ((current & bitMask) == 0 && !words.compareAndSet(word, current, current | bitMask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * @param token A token.
+     * @return False if the token was certainly never added, true if it may have been.
+     */
+    boolean mightContain(String token) {
+        int hash = token.hashCode();
+        int h1 = mix(hash);
+        int h2 = mix(hash ^ 0x9E3779B9) | 1;
+        for (int i = 0; i < PROBES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Murmur3's 32-bit finalizer, spreading String.hashCode's weak low bits over the whole word.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
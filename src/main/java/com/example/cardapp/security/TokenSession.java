@@ -0,0 +1,26 @@
+package com.example.cardapp.security;
+
+/**
+ * The replicated state of one bearer token: logged in (active) or logged out (revoked).
+ * Nodes merge states by last writer wins on updatedAt, and a revocation wins a tie, so every node ends up with the
+ * same state no matter in which order, or how often, it receives them.
+ *
+ * @param token The bearer token.
+ * @param userId The user the token authenticates.
+ * @param revoked True once the token was logged out.
+ * @param updatedAt When the state was recorded, in milliseconds since the epoch.
+ * @param expiresAt When the token stops being valid anyway and the state can be forgotten, in milliseconds since the epoch.
+ */
+public record TokenSession(String token, String userId, boolean revoked, long updatedAt, long expiresAt) {
+
+    /**
+     * @param other Another state of the same token.
+     * @return True if this state replaces the other one.
+     */
+    public boolean supersedes(TokenSession other) {
+        if (updatedAt != other.updatedAt) {
+            return updatedAt > other.updatedAt;
+        }
+        return revoked && !other.revoked;
+    }
+}
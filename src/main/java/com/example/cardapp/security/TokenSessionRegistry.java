@@ -0,0 +1,218 @@
+package com.example.cardapp.security;
+
+import com.example.cardapp.service.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This node's copy of the cluster-wide token sessions: which tokens were logged in and which were logged out.
+ * Tokens themselves are validated statelessly on any node; the registry only vetoes revoked ones.
+ * <p>
+ * Every node keeps the full set and answers isRevoked locally. A Bloom filter over the revoked tokens guards the
+ * map, so the common case, a token that was never revoked, costs one bit test. Local changes are pushed to every
+ * peer, and every gossip interval each node pulls the full set from one random peer, which repairs lost pushes and
+ * brings restarted nodes up to date. There is no coordinator, so adding nodes adds no shared bottleneck.
+ * <p>
+ * States expire with their tokens and are then dropped on the next gossip round, rebuilding the Bloom filter.
+ */
+public class TokenSessionRegistry implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSessionRegistry.class);
+
+    private final String nodeId;
+    private final List<String> peers;
+    private final SessionTransport transport;
+    private final CoarseClock clock;
+    private final int bloomBits;
+    private final Duration gossipInterval;
+    private final Map<String, TokenSession> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService gossip = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-session-gossip");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile TokenBloomFilter revokedTokens;
+    private boolean bloomStale;
+
+    /**
+     * @param nodeId This node's id.
+     * @param nodes Ids of all cluster nodes; all but nodeId are peers.
+     * @param transport How peers are reached.
+     * @param clock The clock session states are timestamped and expired with.
+     * @param bloomBits Size of the Bloom filter over revoked tokens.
+     * @param gossipInterval How often a random peer's states are pulled.
+     */
+    public TokenSessionRegistry(String nodeId, Collection<String> nodes, SessionTransport transport, CoarseClock clock,
+                                int bloomBits, Duration gossipInterval) {
+        this.nodeId = nodeId;
+        this.peers = nodes.stream().filter(node -> !node.equals(nodeId)).distinct().toList();
+        this.transport = transport;
+        this.clock = clock;
+        this.bloomBits = bloomBits;
+        this.gossipInterval = gossipInterval;
+        this.revokedTokens = new TokenBloomFilter(bloomBits);
+    }
+
+    /**
+     * Pulls the states of every peer once, then starts the periodic gossip rounds.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        for (String peer : peers) {
+            pull(peer);
+        }
+        if (gossipInterval.isPositive()) {
+            gossip.scheduleWithFixedDelay(this::gossipRound, gossipInterval.toMillis(), gossipInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        gossip.shutdownNow();
+    }
+
+    /**
+     * @param token A bearer token.
+     * @return True if the token was logged out on any node, as far as this node knows.
+     */
+    public boolean isRevoked(String token) {
+        if (!revokedTokens.mightContain(token)) {
+            return false;
+        }
+        TokenSession session = sessions.get(token);
+        return session != null && session.revoked() && session.expiresAt() > clock.currentTimeMillis();
+    }
+
+    /**
+     * Records a login, which lifts an earlier revocation of the same token, and replicates it.
+     *
+     * @param token The token handed out.
+     * @param userId The user it authenticates.
+     * @param expiresAt When the token stops being valid, in milliseconds since the epoch.
+     */
+    public void recordLogin(String token, String userId, long expiresAt) {
+        record(new TokenSession(token, userId, false, clock.currentTimeMillis(), expiresAt));
+    }
+
+    /**
+     * Records a logout and replicates it; the token is rejected on every node once the state reaches it.
+     *
+     * @param token The token to revoke.
+     * @param userId The user it authenticates.
+     * @param expiresAt When the token stops being valid anyway, in milliseconds since the epoch.
+     */
+    public void revoke(String token, String userId, long expiresAt) {
+        record(new TokenSession(token, userId, true, clock.currentTimeMillis(), expiresAt));
+    }
+
+    /**
+     * Merges states received from another node, keeping the newer state of each token.
+     *
+     * @param received The states.
+     */
+    public synchronized void merge(Collection<TokenSession> received) {
+        long now = clock.currentTimeMillis();
+        for (TokenSession session : received) {
+            if (session.expiresAt() <= now) {
+                continue;
+            }
+            TokenSession current = sessions.get(session.token());
+            if (current != null && !session.supersedes(current)) {
+                continue;
+            }
+            if (session.revoked()) {
+                // Set the bits before the state is visible, so a reader that finds the state also passes the filter
+                revokedTokens.add(session.token());
+            } else if (current != null && current.revoked()) {
+                bloomStale = true;
+            }
+            sessions.put(session.token(), session);
+        }
+    }
+
+    /**
+     * @return Every state this node knows, for peers pulling them.
+     */
+    public List<TokenSession> snapshot() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * @return The number of revoked tokens that have not expired yet.
+     */
+    public long revokedCount() {
+        long now = clock.currentTimeMillis();
+        return sessions.values().stream().filter(session -> session.revoked() && session.expiresAt() > now).count();
+    }
+
+    private void record(TokenSession session) {
+        merge(List.of(session));
+        for (String peer : peers) {
+            transport.send(peer, List.of(session)).whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    log.debug("Could not push token session to node '{}'; it catches up by gossip", peer, ex);
+                }
+            });
+        }
+    }
+
+    private void gossipRound() {
+        try {
+            if (!peers.isEmpty()) {
+                pull(peers.get(ThreadLocalRandom.current().nextInt(peers.size())));
+            }
+            purgeExpired();
+        } catch (RuntimeException ex) {
+            log.warn("Token session gossip round on node '{}' failed", nodeId, ex);
+        }
+    }
+
+    private void pull(String peer) {
+        transport.fetch(peer).whenComplete((received, ex) -> {
+            if (ex != null) {
+                log.debug("Could not pull token sessions from node '{}'", peer, ex);
+            } else {
+                merge(received);
+            }
+        });
+    }
+
+    /**
+     * Drops expired states and, if revoked tokens were dropped or reinstated, rebuilds the Bloom filter from the
+     * remaining revocations so stale bits do not accumulate.
+     */
+    private synchronized void purgeExpired() {
+        long now = clock.currentTimeMillis();
+        boolean rebuild = bloomStale;
+        for (TokenSession session : sessions.values()) {
+            if (session.expiresAt() <= now) {
+                sessions.remove(session.token());
+                rebuild |= session.revoked();
+            }
+        }
+        if (rebuild) {
+            TokenBloomFilter rebuilt = new TokenBloomFilter(bloomBits);
+            for (TokenSession session : sessions.values()) {
+                if (session.revoked()) {
+                    rebuilt.add(session.token());
+                }
+            }
+            revokedTokens = rebuilt;
+            bloomStale = false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cardapp.security;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Recognizes the synthetic requests the warm-up sends to this node, so they are kept out of the audit log, the
+ * TokenSessionRegistry and the LoginThrottle.
+ * <p>
+ * Warm-up requests carry a key drawn at random when the warm-up starts in the X-Warmup-Key header. The key never
+ * leaves this node and is dropped when the warm-up ends, so no other client can pass its requests off as warm-up.
+ */
+@Component
+public class WarmupTraffic {
+
+    /** The request header carrying the warm-up key. */
+    public static final String HEADER = "X-Warmup-Key";
+
+    private static final SecureRandom KEYS = new SecureRandom();
+
+    private volatile String key;
+
+    /**
+     * Draws a new key for a starting warm-up.
+     *
+     * @return The value warm-up requests send in the X-Warmup-Key header.
+     */
+    public String start() {
+        byte[] bytes = new byte[32];
+        KEYS.nextBytes(bytes);
+        String started = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        key = started;
+        return started;
+    }
+
+    /**
+     * Drops the key, so requests are no longer recognized as warm-up traffic.
+     */
+    public void finish() {
+        key = null;
+    }
+
+    /**
+     * @param headerValue The X-Warmup-Key header of a request, may be null.
+     * @return True if the request was sent by the running warm-up.
+     */
+    public boolean isWarmup(String headerValue) {
+        String current = key;
+        return current != null && headerValue != null
+                && MessageDigest.isEqual(current.getBytes(StandardCharsets.US_ASCII), headerValue.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cardapp.service;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.Collection;
+
+/**
+ * Callback for components that derive data from stored cards and must follow their changes.
+ * CardService notifies every listener bean after a card is created or its balance changes.
+ * At startup every stored card is reported once through cardsAdded, so listeners can build their initial state.
+ */
+public interface CardEventListener {
+
+    /**
+     * Called after cards of a product type were created or updated through this node's CardService.
+     *
+     * @param cardProductType The product type of the changed cards.
+     */
+    void cardsChanged(CardProductType cardProductType);
+
+    /**
+     * Called after cards were stored, before cardsChanged.
+     *
+     * @param cards The new cards.
+     */
+    default void cardsAdded(Collection<CardResponse> cards) {
+    }
+
+    /**
+     * Called after a stored card was replaced by an updated copy, before cardsChanged.
+     *
+     * @param type The kind of update.
+     * @param previous The card before the update.
+     * @param updated The card after the update.
+     */
+    default void cardUpdated(CardUpdateType type, CardResponse previous, CardResponse updated) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.cardapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed table of StampedLocks guarding card updates, indexed by a hash of the card number.
+ * Updates that read a card, check rules and write a new balance hold the card's stripe write lock, so concurrent
+ * updates of the same card queue instead of failing their compare-and-set and starting over, while updates of cards
+ * on other stripes run in parallel. Cards sharing a stripe only contend when they are updated at the same time.
+ * <p>
+ * Balance queries read optimistically: they take no lock and only retry under the read lock if an update held the
+ * stripe meanwhile. A query therefore never returns a balance whose update has not returned yet.
+ * <p>
+ * Locks are not reentrant: a guarded action must not lock another card.
+ */
+@Component
+public class CardLockTable {
+
+    private final StampedLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes Number of locks, rounded up to a power of two.
+     */
+    @Autowired
+    public CardLockTable(@Value("${cards.locks.stripes:1024}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new StampedLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new StampedLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs an update of a card while holding the card's stripe write lock.
+     *
+     * @param cardNumber The number of the card to update.
+     * @param update The update; exceptions are passed through after the lock is released.
+     * @return The update's result.
+     */
+    public <T> T update(String cardNumber, Supplier<T> update) {
+        StampedLock lock = stripe(cardNumber);
+        long stamp = lock.writeLock();
+        try {
+            return update.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Runs a read of a card without locking, and again under the card's stripe read lock if an update of the stripe
+     * was running or completed meanwhile. The read may therefore run twice and must not have side effects.
+     *
+     * @param cardNumber The number of the card to read.
+     * @param read The read.
+     * @return The read's result.
+     */
+    public <T> T read(String cardNumber, Supplier<T> read) {
+        StampedLock lock = stripe(cardNumber);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = read.get();
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return The number of stripes.
+     */
+    public int size() {
+        return stripes.length;
+    }
+
+    private StampedLock stripe(String cardNumber) {
+        int hash = cardNumber.hashCode();
+        // Spread the high bits, as card numbers that differ only in their last characters are common
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -1,114 +1,372 @@
 package com.example.cardapp.service;
 
+import com.example.cardapp.audit.AuditLog;
+import com.example.cardapp.diagnostics.CardRuleRejectionEvent;
+import com.example.cardapp.dto.CardBalance;
 import com.example.cardapp.dto.CardCreationRequest;
 import com.example.cardapp.dto.CardResponse;
 import com.example.cardapp.model.CardProductType;
 import com.example.cardapp.model.Restrictions;
+import com.example.cardapp.product.CardProduct;
+import com.example.cardapp.product.CardProducts;
+import com.example.cardapp.product.ProductRule;
 import com.example.cardapp.security.AuthContext;
 import com.example.cardapp.security.AuthUser;
+import com.example.cardapp.security.CardCapability;
+import com.example.cardapp.store.CardStore;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.UnaryOperator;
 
 /**
  * Service layer for card operations.
- * Handles business logic for card creation validation and provides hardcoded card data.
+ * Handles business logic for card creation validation and serves cards from the CardStore,
+ * which is seeded with hardcoded card data on startup.
  */
 @Service
-public class CardService {
+public class CardService implements InitializingBean {
+
+    private static final int MAX_UPDATE_ATTEMPTS = 8;
+
+    private final CardStore cardStore;
+    private final CardLockTable cardLocks;
+    private final List<CardEventListener> cardEventListeners;
+    private final CoarseClock clock;
+    private final AuditLog auditLog;
+
+    @Autowired
+    public CardService(CardStore cardStore, CardLockTable cardLocks, List<CardEventListener> cardEventListeners, CoarseClock clock,
+                       AuditLog auditLog) {
+        this.cardStore = cardStore;
+        this.cardLocks = cardLocks;
+        this.cardEventListeners = cardEventListeners;
+        this.clock = clock;
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * Seeds the store with the hardcoded demonstration cards if it is empty, then builds the sorted
+     * listing of every product so the first listing request does not pay for it, and reports the stored
+     * cards to the CardEventListeners.
+     * Implemented as InitializingBean rather than @PostConstruct so the container calls it directly,
+     * also in the AOT-processed startup path.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (cardStore.count() == 0) {
+            cardStore.saveAll(hardcodedCards());
+        }
+        for (CardProductType cardProductType : CardProductType.values()) {
+            notifyCardsAdded(cardStore.findByProduct(cardProductType));
+            notifyCardsChanged(cardProductType);
+        }
+    }
 
     /**
-     * Validates a card creation request based on defined business rules.
+     * Validates a card creation request based on defined business rules and stores the new card.
      *
      * @param request The CardCreationRequest DTO.
      * @return A success message if validation passes.
      * @throws ResponseStatusException if validation fails, with a 400 Bad Request status.
      */
     public String createCard(CardCreationRequest request) {
-        // Business Rule 1: ProtectionRequired must be true if cardProduct is Prepaid.
-        if (request.getCardProduct() == CardProductType.PREPAID && !request.getProtectionRequired()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "For Prepaid cards, 'protectionRequired' must be true.");
+        validateCreation(request);
+
+        // If all validations and authorization pass
+        CardResponse card = newCard(request, AuthContext.getCurrentUser(), creationTime());
+        cardStore.save(card);
+        auditLog.cardCreated(card.getCardProduct(), card.getCardCreator(), card.getCardNumber());
+        notifyCardsAdded(List.of(card));
+        notifyCardsChanged(request.getCardProduct());
+        return "Card Created";
+    }
+
+    /**
+     * Stores a batch of creation requests that already passed validateCreation, in one store write.
+     * Used by the bulk import, which validates rows in parallel before storing them.
+     * Stored cards keep the requests' restrictions objects, but the requests themselves may be reused afterwards.
+     *
+     * @param requests The validated requests.
+     * @param creator The user importing the cards, may be null.
+     */
+    public void createValidatedCards(List<CardCreationRequest> requests, AuthUser creator) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        LocalDateTime creationDate = creationTime();
+        EnumSet<CardProductType> changed = EnumSet.noneOf(CardProductType.class);
+        List<CardResponse> cards = new ArrayList<>(requests.size());
+        for (CardCreationRequest request : requests) {
+            cards.add(newCard(request, creator, creationDate));
+            changed.add(request.getCardProduct());
+        }
+        cardStore.saveAll(cards);
+        for (CardResponse card : cards) {
+            auditLog.cardCreated(card.getCardProduct(), card.getCardCreator(), card.getCardNumber());
+        }
+        notifyCardsAdded(cards);
+        for (CardProductType cardProductType : changed) {
+            notifyCardsChanged(cardProductType);
+        }
+    }
+
+    private CardResponse newCard(CardCreationRequest request, AuthUser creator, LocalDateTime creationDate) {
+        return new CardResponse(
+                generateCardNumber(),
+                request.getCardTitle(),
+                request.getCardDescription(),
+                request.getActivationDate(),
+                request.getCardProduct(),
+                request.getLoadAmount(),
+                request.getProtectionRequired(),
+                request.getRestrictions(),
+                creator != null ? creator.getUserId() : null,
+                creationDate,
+                request.getLoadAmount(),
+                CardProducts.of(request.getCardProduct()).initialSwipes()
+        );
+    }
+
+    /**
+     * Checks a card creation request against the business rules and the current user's permissions
+     * without storing anything.
+     *
+     * @param request The CardCreationRequest DTO.
+     * @throws ResponseStatusException 400 if a business rule is violated, 403 if the user may not create the card product.
+     */
+    public void validateCreation(CardCreationRequest request) {
+        CardProduct product = CardProducts.of(request.getCardProduct());
+
+        // Product rules on protection and restrictions, e.g. Prepaid cards require protection and have no restrictions
+        ProductRule violated = product.checkCreationShape(request);
+        if (violated != null) {
+            throw reject(request, violated.name(), HttpStatus.BAD_REQUEST, violated.message());
         }
 
-        // Business Rule 2: Limited Use cards MUST have restrictions defined.
-        if (request.getCardProduct() == CardProductType.LIMITED_USE && request.getRestrictions() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "For Limited Use cards, 'restrictions' object must be provided.");
+        // All cards activation date must be in the future.
+        LocalDate today = clock.today();
+        if (request.getActivationDate() != null && request.getActivationDate().isBefore(today)) {
+            throw reject(request, "activation-date-future", HttpStatus.BAD_REQUEST, "Activation date must be in the future.");
         }
 
-        // Business Rule 3: Prepaid cards MUST NOT have restrictions.
-        if (request.getCardProduct() == CardProductType.PREPAID && request.getRestrictions() != null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Prepaid cards cannot have 'restrictions'.");
+        // Product rules on dates and amounts, e.g. Limited Use expiry within 32 days, Prepaid load a multiple of 5
+        violated = product.checkCreationValues(request, today);
+        if (violated != null) {
+            throw reject(request, violated.name(), HttpStatus.BAD_REQUEST, violated.message());
         }
 
-        // NEW RULE 1: All cards activation date must be in the future.
-        // This is already covered by @Future annotation in DTO, but adding a redundant check here
-        // for emphasis on business rule validation within the service layer.
-        if (request.getActivationDate() != null && request.getActivationDate().isBefore(LocalDate.now())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Activation date must be in the future.");
+        // Authorization check for card creation: the product's partition must be reachable with the user's capability
+        CardCapability capability = CardCapability.of(AuthContext.getCurrentUser());
+        if (!capability.permits(request.getCardProduct())) {
+            throw reject(request, capability.creationRule(request.getCardProduct()), HttpStatus.FORBIDDEN, capability.creationDenial(request.getCardProduct()));
         }
+    }
 
+    /**
+     * Builds the exception for a rejected creation request and records the rejection as a JFR event.
+     *
+     * @param request The rejected request.
+     * @param rule The name of the rule that rejected it.
+     * @param status The response status.
+     * @param reason The error message.
+     * @return The exception to throw.
+     */
+    private static ResponseStatusException reject(CardCreationRequest request, String rule, HttpStatus status, String reason) {
+        CardRuleRejectionEvent event = new CardRuleRejectionEvent();
+        if (event.shouldCommit()) {
+            event.rule = rule;
+            event.cardProduct = request.getCardProduct() != null ? request.getCardProduct().name() : null;
+            event.status = status.value();
+            event.commit();
+        }
+        return new ResponseStatusException(status, reason);
+    }
 
-        // Business Rule 4: For Limited Use cards, expiryDate must be in the future.
-        // NEW RULE 2: Also, expiry date must be at maximum 32 days after current date.
-        if (request.getCardProduct() == CardProductType.LIMITED_USE && request.getRestrictions() != null &&
-                request.getRestrictions().getExpiryDate() != null) {
-            LocalDate expiryDate = request.getRestrictions().getExpiryDate();
-            if (expiryDate.isBefore(LocalDate.now())) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "For Limited Use cards, 'expiryDate' must be in the future.");
+    /**
+     * Charges an amount against a card's current load and counts the swipe.
+     * Only the store partitions of the user's capability are searched, so cards of other products are not found.
+     *
+     * @param cardNumber The number of the card to swipe.
+     * @param amount The amount to charge.
+     * @return The card after the swipe.
+     * @throws ResponseStatusException 404 if the card does not exist or the user may not see it, 400 if a rule rejects the swipe.
+     */
+    public CardResponse swipe(String cardNumber, double amount) {
+        return update(cardNumber, CardUpdateType.SWIPE, card -> {
+            LocalDate today = clock.today();
+            if (card.getActivationDate() != null && card.getActivationDate().isAfter(today)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card is not active yet.");
             }
-            if (expiryDate.isAfter(LocalDate.now().plusDays(32))) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "For Limited Use cards, 'expiryDate' must be at maximum 32 days from today.");
+            String denial = CardProducts.of(card.getCardProduct()).swipeDenial(card, amount, today);
+            if (denial != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, denial);
+            }
+            if (card.getCurrentLoad() == null || amount > card.getCurrentLoad()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient balance.");
             }
-        }
 
-        // Business Rule 5: Load amount must be a multiple of 5 for Prepaid cards.
-        if (request.getCardProduct() == CardProductType.PREPAID && request.getLoadAmount() % 5 != 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "For Prepaid cards, 'loadAmount' must be a multiple of 5.");
-        }
+            Integer swipes = card.getCurrentNumberOfSwipes() != null ? card.getCurrentNumberOfSwipes() + 1 : null; // Stays null for Prepaid
+            return withBalance(card, card.getLoadAmount(), roundToCents(card.getCurrentLoad() - amount), swipes);
+        });
+    }
+
+    /**
+     * Adds an amount to a Prepaid card: both its load amount and its current load grow by the amount.
+     * Limited Use cards have a fixed load and cannot be reloaded.
+     *
+     * @param cardNumber The number of the card to reload.
+     * @param amount The amount to add.
+     * @return The card after the reload.
+     * @throws ResponseStatusException 404 if the card does not exist or the user may not see it, 400 if a rule rejects the reload.
+     */
+    public CardResponse reload(String cardNumber, double amount) {
+        return update(cardNumber, CardUpdateType.RELOAD, card -> {
+            String denial = CardProducts.of(card.getCardProduct()).reloadDenial();
+            if (denial != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, denial);
+            }
+            double loadAmount = card.getLoadAmount() != null ? card.getLoadAmount() : 0;
+            double currentLoad = card.getCurrentLoad() != null ? card.getCurrentLoad() : 0;
+            return withBalance(card, roundToCents(loadAmount + amount), roundToCents(currentLoad + amount), card.getCurrentNumberOfSwipes());
+        });
+    }
 
-        // Authorization check for card creation
-        if (AuthContext.getCurrentUser() != null) {
-            if (request.getCardProduct() == CardProductType.PREPAID && AuthContext.getCurrentUser().getRole() == AuthUser.Role.LIMITED_USE_ONLY) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Forbidden: Limited Use users cannot create Prepaid cards.");
+    /**
+     * Returns a charged amount to a card's current load and, for Limited Use cards, gives back one swipe.
+     * The current load cannot grow beyond the load amount, i.e. more than was charged cannot be refunded.
+     *
+     * @param cardNumber The number of the card to refund.
+     * @param amount The amount to return.
+     * @return The card after the refund.
+     * @throws ResponseStatusException 404 if the card does not exist or the user may not see it, 400 if a rule rejects the refund.
+     */
+    public CardResponse refund(String cardNumber, double amount) {
+        return update(cardNumber, CardUpdateType.REFUND, card -> {
+            double loadAmount = card.getLoadAmount() != null ? card.getLoadAmount() : 0;
+            double currentLoad = card.getCurrentLoad() != null ? card.getCurrentLoad() : 0;
+            if (roundToCents(currentLoad + amount) > loadAmount) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Refund exceeds the amount charged.");
             }
-            if (request.getCardProduct() == CardProductType.LIMITED_USE && AuthContext.getCurrentUser().getRole() == AuthUser.Role.PREPAID_ONLY) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Forbidden: Prepaid users cannot create Limited Use cards.");
+            Integer swipes = card.getCurrentNumberOfSwipes();
+            if (CardProducts.of(card.getCardProduct()).countsSwipes()) {
+                if (swipes == null || swipes == 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Card has no swipe to refund.");
+                }
+                swipes = swipes - 1;
             }
-        }
+            return withBalance(card, card.getLoadAmount(), roundToCents(currentLoad + amount), swipes);
+        });
+    }
 
+    /**
+     * Reads a card's balance without blocking, unless an update of the card, or of a card sharing its lock stripe,
+     * is running; see CardLockTable.read.
+     *
+     * @param cardNumber The number of the card.
+     * @return The card's balance.
+     * @throws ResponseStatusException 404 if the card does not exist or the user may not see it.
+     */
+    public CardBalance getBalance(String cardNumber) {
+        return cardLocks.read(cardNumber, () -> findPermittedCard(cardNumber)
+                .map(card -> new CardBalance(card.getCardNumber(), card.getCardProduct(), card.getLoadAmount(),
+                        card.getCurrentLoad(), card.getCurrentNumberOfSwipes()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Card not found.")));
+    }
 
-        // If all validations and authorization pass
-        return "Card Created";
+    /**
+     * Applies a balance update to a card under the card's CardLockTable write lock, so concurrent updates of the card
+     * on this node run one after the other. The store write is still a compare-and-set, retried if the card was
+     * changed by another node, e.g. a card of this node's shard updated through a peer.
+     */
+    private CardResponse update(String cardNumber, CardUpdateType type, UnaryOperator<CardResponse> rule) {
+        return cardLocks.update(cardNumber, () -> {
+            for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+                CardResponse card = findPermittedCard(cardNumber)
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Card not found."));
+                CardResponse updated = rule.apply(card);
+                if (cardStore.replace(card, updated)) {
+                    notifyCardUpdated(type, card, updated);
+                    notifyCardsChanged(card.getCardProduct());
+                    return updated;
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Card was updated concurrently, please retry.");
+        });
     }
 
     /**
-     * Returns a hardcoded list of CardResponse objects, filtered by card product type.
-     * This simulates retrieving card data from a database.
+     * @param cardProductType The product type.
+     * @return The data version of the product type's partition, which changes whenever a card of that type changes.
+     */
+    public long getVersion(CardProductType cardProductType) {
+        return cardStore.version(cardProductType);
+    }
+
+    /**
+     * Returns the stored CardResponse objects of a card product type,
+     * ordered by creation date across all shards.
      *
      * @param cardProductType The type of cards to filter by (PREPAID or LIMITED_USE).
      * @return A list of CardResponse objects.
      * @throws ResponseStatusException if the user is not authorized to view the requested card type.
      */
     public List<CardResponse> getAllCards(CardProductType cardProductType) {
-        // Authorization check for listing cards
-        if (AuthContext.getCurrentUser() != null) {
-            if (cardProductType == CardProductType.PREPAID && AuthContext.getCurrentUser().getRole() == AuthUser.Role.LIMITED_USE_ONLY) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Limited Use users cannot view Prepaid cards.");
-            }
-            if (cardProductType == CardProductType.LIMITED_USE && AuthContext.getCurrentUser().getRole() == AuthUser.Role.PREPAID_ONLY) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found: Prepaid users cannot view Limited Use cards.");
-            }
+        checkListingAccess(cardProductType);
+        return cardStore.findByProduct(cardProductType);
+    }
+
+    /**
+     * Returns one page of the stored cards of a card product type, in the same order as getAllCards.
+     *
+     * @param cardProductType The type of cards to filter by (PREPAID or LIMITED_USE).
+     * @param page The zero-based page number.
+     * @param size The number of cards per page.
+     * @return The cards of the page, empty if the page is past the end.
+     * @throws ResponseStatusException if the user is not authorized to view the requested card type.
+     */
+    public List<CardResponse> getCards(CardProductType cardProductType, int page, int size) {
+        List<CardResponse> cards = getAllCards(cardProductType);
+        long from = (long) page * size;
+        if (from >= cards.size()) {
+            return List.of();
         }
+        return cards.subList((int) from, (int) Math.min(from + size, cards.size()));
+    }
 
-        // Simulating hardcoded card data
-        List<CardResponse> allCards = Arrays.asList(
+    /**
+     * Checks that the current user may list cards of a product type.
+     *
+     * @param cardProductType The type of cards to be listed.
+     * @throws ResponseStatusException 404 if the user is not authorized to view the requested card type.
+     */
+    public void checkListingAccess(CardProductType cardProductType) {
+        // Authorization check for listing cards: the product's partition must be reachable with the user's capability
+        CardCapability capability = CardCapability.of(AuthContext.getCurrentUser());
+        if (!capability.permits(cardProductType)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, capability.listingDenial(cardProductType));
+        }
+    }
+
+    /**
+     * Builds the hardcoded card data used to seed the store.
+     * This simulates the contents of a database.
+     *
+     * @return The demonstration cards of all product types.
+     */
+    private List<CardResponse> hardcodedCards() {
+        return Arrays.asList(
                 new CardResponse(
                         generateCardNumber(),
                         "Travel Buddy Card",
@@ -183,13 +441,13 @@ public class CardService {
                         generateCardNumber(),
                         "Gift Voucher Card",
                         "A simple prepaid gift card.",
-                        LocalDate.now().plusDays(5), // Future date
+                        clock.today().plusDays(5), // Future date
                         CardProductType.PREPAID,
                         20.00,
                         true,
                         null,
                         "Frank Green",
-                        LocalDateTime.now().minusDays(2),
+                        creationTime().minusDays(2),
                         20.00,
                         null
                 ),
@@ -197,22 +455,77 @@ public class CardService {
                         generateCardNumber(),
                         "Subscription Card",
                         "Limited use card for monthly subscriptions.",
-                        LocalDate.now().plusDays(10), // Future date
+                        clock.today().plusDays(10), // Future date
                         CardProductType.LIMITED_USE,
                         30.00,
                         false,
-                        new Restrictions(LocalDate.now().plusDays(20), 1, 30.00), // Expiry within 32 days
+                        new Restrictions(clock.today().plusDays(20), 1, 30.00), // Expiry within 32 days
                         "Grace Hopper",
-                        LocalDateTime.now().minusDays(1),
+                        creationTime().minusDays(1),
                         30.00,
                         0
                 )
         );
+    }
+
+    private void notifyCardsAdded(List<CardResponse> cards) {
+        for (CardEventListener listener : cardEventListeners) {
+            listener.cardsAdded(cards);
+        }
+    }
+
+    private void notifyCardUpdated(CardUpdateType type, CardResponse previous, CardResponse updated) {
+        for (CardEventListener listener : cardEventListeners) {
+            listener.cardUpdated(type, previous, updated);
+        }
+    }
+
+    private void notifyCardsChanged(CardProductType cardProductType) {
+        for (CardEventListener listener : cardEventListeners) {
+            listener.cardsChanged(cardProductType);
+        }
+    }
+
+    private Optional<CardResponse> findPermittedCard(String cardNumber) {
+        for (CardProductType cardProductType : CardCapability.of(AuthContext.getCurrentUser()).getProducts()) {
+            Optional<CardResponse> card = cardStore.findByCardNumber(cardProductType, cardNumber);
+            if (card.isPresent()) {
+                return card;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The current time at the precision cards are serialized with (JSON and CardBinaryCodec), so a card restored
+     * from the card journal sorts exactly like the card that was stored.
+     */
+    private LocalDateTime creationTime() {
+        return clock.currentSecond();
+    }
+
+    /**
+     * Copies a card with a new balance. Stored cards are shared with concurrent readers and must not be modified.
+     */
+    private static CardResponse withBalance(CardResponse card, Double loadAmount, Double currentLoad, Integer currentNumberOfSwipes) {
+        return new CardResponse(
+                card.getCardNumber(),
+                card.getCardTitle(),
+                card.getCardDescription(),
+                card.getActivationDate(),
+                card.getCardProduct(),
+                loadAmount,
+                card.getProtectionRequired(),
+                card.getRestrictions(),
+                card.getCardCreator(),
+                card.getCreationDate(),
+                currentLoad,
+                currentNumberOfSwipes
+        );
+    }
 
-        // Filter based on cardProductType query parameter
-        return allCards.stream()
-                .filter(card -> card.getCardProduct() == cardProductType)
-                .collect(Collectors.toList());
+    private static double roundToCents(double value) {
+        return Math.round(value * 100) / 100.0;
     }
 
     /**
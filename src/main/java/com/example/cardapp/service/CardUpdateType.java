@@ -0,0 +1,19 @@
+package com.example.cardapp.service;
+
+/**
+ * The balance updates CardService applies to stored cards, reported to CardEventListener.cardUpdated.
+ */
+public enum CardUpdateType {
+    /**
+     * An amount was charged against the current load and the swipe counted.
+     */
+    SWIPE,
+    /**
+     * An amount was added to both the load amount and the current load of a Prepaid card.
+     */
+    RELOAD,
+    /**
+     * A charged amount was returned to the current load and, for Limited Use cards, the swipe given back.
+     */
+    REFUND
+}
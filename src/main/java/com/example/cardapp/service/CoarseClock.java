@@ -0,0 +1,154 @@
+package com.example.cardapp.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's notion of the current time for business rules, tokens and error responses.
+ * A background ticker reads the underlying Clock once per tick and publishes the current day, hour, second and
+ * millisecond as one snapshot, so callers neither look up the time zone nor allocate, and all readers see the same
+ * day change at the same moment. Values lag the real time by up to one tick.
+ * <p>
+ * The day, hour and second objects are reused for as long as they do not change, so callers may compare them
+ * by equals cheaply. With a zero tick no ticker is started and the clock only moves when refresh is called;
+ * together with a fixed or adjustable Clock this steps time-dependent code across hour and day boundaries.
+ */
+@Component
+public class CoarseClock implements DisposableBean {
+
+    private final Clock source;
+    private final ScheduledExecutorService ticker;
+
+    private volatile Tick tick;
+
+    /**
+     * @param tick How often the system clock is read, e.g. 10ms.
+     */
+    @Autowired
+    public CoarseClock(@Value("${cards.clock.tick:10ms}") Duration tick) {
+        this(Clock.systemDefaultZone(), tick);
+    }
+
+    /**
+     * @param source The clock to read, including the time zone days and hours are taken in.
+     * @param tick How often the source is read; zero or negative to read it only on refresh.
+     */
+    public CoarseClock(Clock source, Duration tick) {
+        this.source = source;
+        this.tick = read(null);
+        if (tick.isPositive()) {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "coarse-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.ticker.scheduleAtFixedRate(this::refresh, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+        } else {
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * @return The current date.
+     */
+    public LocalDate today() {
+        return tick.today;
+    }
+
+    /**
+     * @return The current time truncated to hours.
+     */
+    public LocalDateTime currentHour() {
+        return tick.hour;
+    }
+
+    /**
+     * @return The current time truncated to seconds.
+     */
+    public LocalDateTime currentSecond() {
+        return tick.second;
+    }
+
+    /**
+     * @return The current time truncated to milliseconds.
+     */
+    public LocalDateTime now() {
+        return tick.now;
+    }
+
+    /**
+     * @return The current time in milliseconds since the epoch, like System.currentTimeMillis.
+     */
+    public long currentTimeMillis() {
+        return tick.millis;
+    }
+
+    /**
+     * Reads the underlying clock now instead of waiting for the next tick.
+     */
+    public void refresh() {
+        tick = read(tick);
+    }
+
+    @Override
+    public void destroy() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the source, reusing the previous snapshot's values that did not change.
+     *
+     * @param previous The current snapshot, or null on construction.
+     * @return The new snapshot.
+     */
+    private Tick read(Tick previous) {
+        long millis = source.millis();
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), source.getZone());
+        if (previous == null) {
+            return new Tick(now.toLocalDate(), now.truncatedTo(ChronoUnit.HOURS), now.truncatedTo(ChronoUnit.SECONDS), now, millis);
+        }
+        LocalDateTime second = now.truncatedTo(ChronoUnit.SECONDS);
+        if (second.equals(previous.second)) {
+            return new Tick(previous.today, previous.hour, previous.second, now, millis);
+        }
+        LocalDateTime hour = now.truncatedTo(ChronoUnit.HOURS);
+        if (hour.equals(previous.hour)) {
+            return new Tick(previous.today, previous.hour, second, now, millis);
+        }
+        LocalDate today = now.toLocalDate();
+        return new Tick(today.equals(previous.today) ? previous.today : today, hour, second, now, millis);
+    }
+
+    /**
+     * One reading of the clock.
+     */
+    private static final class Tick {
+        private final LocalDate today;
+        private final LocalDateTime hour;
+        private final LocalDateTime second;
+        private final LocalDateTime now;
+        private final long millis;
+
+        private Tick(LocalDate today, LocalDateTime hour, LocalDateTime second, LocalDateTime now, long millis) {
+            this.today = today;
+            this.hour = hour;
+            this.second = second;
+            this.now = now;
+            this.millis = millis;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.cardapp.service;
 
+import com.example.cardapp.diagnostics.TokenValidationEvent;
 import com.example.cardapp.security.AuthUser;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
@@ -21,22 +23,34 @@ import java.util.Optional;
 @Service
 public class TokenService {
 
-    @Value("${auth.credentials.prepaid.userId}")
-    private String prepaidUserId;
-    @Value("${auth.credentials.prepaid.password}")
-    private String prepaidPassword;
-
-    @Value("${auth.credentials.limited.userId}")
-    private String limitedUserId;
-    @Value("${auth.credentials.limited.password}")
-    private String limitedPassword;
+    // A token of hour H validates during H and H + 1
+    private static final long TOKEN_LIFETIME_MILLIS = ChronoUnit.HOURS.getDuration().toMillis() * 2;
 
     private final Map<String, AuthUser.Role> validCredentials = new HashMap<>();
+    private final CoarseClock clock;
+
+    private volatile TokenIndex tokenIndex;
 
-    @jakarta.annotation.PostConstruct
-    public void init() {
+    /**
+     * Registers the configured credentials and pre-computes the tokens for the current validity window,
+     * so the first authenticated request does not pay for hashing.
+     *
+     * @param prepaidUserId The user ID of the prepaid user.
+     * @param prepaidPassword The password of the prepaid user.
+     * @param limitedUserId The user ID of the limited use user.
+     * @param limitedPassword The password of the limited use user.
+     * @param clock The clock whose current hour tokens are generated and validated for.
+     */
+    @Autowired
+    public TokenService(@Value("${auth.credentials.prepaid.userId}") String prepaidUserId,
+                        @Value("${auth.credentials.prepaid.password}") String prepaidPassword,
+                        @Value("${auth.credentials.limited.userId}") String limitedUserId,
+                        @Value("${auth.credentials.limited.password}") String limitedPassword,
+                        CoarseClock clock) {
         validCredentials.put(prepaidUserId + ":" + prepaidPassword, AuthUser.Role.PREPAID_ONLY);
         validCredentials.put(limitedUserId + ":" + limitedPassword, AuthUser.Role.LIMITED_USE_ONLY);
+        this.clock = clock;
+        this.tokenIndex = buildTokenIndex(clock.currentHour());
     }
 
     /**
@@ -52,54 +66,78 @@ public class TokenService {
         if (role == null) {
             throw new IllegalArgumentException("Invalid userId or password.");
         }
-        return buildTimeBasedToken(userId, password, role, LocalDateTime.now());
+        return buildTimeBasedToken(userId, password, role, clock.currentHour());
+    }
+
+    /**
+     * @return A time by which every time-based token valid now has expired, in milliseconds since the epoch.
+     */
+    public long tokenExpiry() {
+        return clock.currentTimeMillis() + TOKEN_LIFETIME_MILLIS;
     }
 
     /**
      * Validates a given time-based token.
      * The token is considered valid if it matches a hash generated for the current hour
      * or the previous hour (to handle requests spanning hour boundaries).
+     * The expected tokens are computed once per hour, so validation is a single lookup.
      *
      * @param token The token string to validate.
      * @return An Optional containing the AuthUser if the token is valid, empty otherwise.
      */
     public Optional<AuthUser> validateTimeBasedToken(String token) {
-        LocalDateTime now = LocalDateTime.now();
-
-        Optional<AuthUser> user = tryValidateTokenForTime(token, now);
-        if (user.isPresent()) {
-            return user;
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+
+        LocalDateTime currentHour = clock.currentHour();
+        TokenIndex index = tokenIndex;
+        int hashesComputed = 0;
+        // The clock hands out the same hour object until the hour changes, so this is usually an identity check
+        if (!index.hour.equals(currentHour)) {
+            // First request of a new hour; concurrent callers may rebuild too, which is harmless
+            index = buildTokenIndex(currentHour);
+            tokenIndex = index;
+            hashesComputed = 2 * validCredentials.size();
         }
+        AuthUser user = index.users.get(token);
 
-        LocalDateTime oneHourAgo = now.minus(1, ChronoUnit.HOURS);
-        user = tryValidateTokenForTime(token, oneHourAgo);
-        if (user.isPresent()) {
-            return user;
+        event.end();
+        if (event.shouldCommit()) {
+            event.valid = user != null;
+            event.hashesComputed = hashesComputed;
+            event.commit();
         }
+        return Optional.ofNullable(user);
+    }
 
-        return Optional.empty();
+    /**
+     * Computes the tokens of every known user for an hour and the hour before it.
+     *
+     * @param hour The current hour, truncated.
+     * @return An index from token to the user it authenticates.
+     */
+    private TokenIndex buildTokenIndex(LocalDateTime hour) {
+        Map<String, AuthUser> users = new HashMap<>();
+        addTokensForTime(users, hour.minus(1, ChronoUnit.HOURS));
+        addTokensForTime(users, hour);
+        return new TokenIndex(hour, users);
     }
 
     /**
-     * Attempts to validate a token against a hash generated for a specific time.
+     * Adds the tokens generated for a specific time to a token index.
      *
-     * @param token The token to validate.
+     * @param users The index to add to.
      * @param dateTime The LocalDateTime to use for hash generation.
-     * @return An Optional containing the AuthUser if the token matches, empty otherwise.
      */
-    private Optional<AuthUser> tryValidateTokenForTime(String token, LocalDateTime dateTime) {
+    private void addTokensForTime(Map<String, AuthUser> users, LocalDateTime dateTime) {
         for (Map.Entry<String, AuthUser.Role> entry : validCredentials.entrySet()) {
             String[] credentials = entry.getKey().split(":");
             String userId = credentials[0];
             String password = credentials[1];
             AuthUser.Role role = entry.getValue();
 
-            String expectedToken = buildTimeBasedToken(userId, password, role, dateTime);
-            if (expectedToken.equals(token)) {
-                return Optional.of(new AuthUser(userId, role));
-            }
+            users.put(buildTimeBasedToken(userId, password, role, dateTime), new AuthUser(userId, role));
         }
-        return Optional.empty();
     }
 
     /**
@@ -127,4 +165,17 @@ public class TokenService {
             throw new RuntimeException("SHA-256 algorithm not found", e);
         }
     }
+
+    /**
+     * The valid tokens for one hour and the hour before it.
+     */
+    private static final class TokenIndex {
+        private final LocalDateTime hour;
+        private final Map<String, AuthUser> users;
+
+        private TokenIndex(LocalDateTime hour, Map<String, AuthUser> users) {
+            this.hour = hour;
+            this.users = users;
+        }
+    }
 }
\ No newline at end of file
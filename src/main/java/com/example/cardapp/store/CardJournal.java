@@ -0,0 +1,478 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.codec.CardBinaryCodec;
+import com.example.cardapp.dto.CardResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of card writes with periodic checkpoints, kept in one directory:
+ * <ul>
+ *     <li>journal-&lt;first sequence&gt;.log segments of records [length][crc32][payload], where the payload is one
+ *     CardBinaryCodec listing holding the new state of the written cards. Records are numbered consecutively
+ *     from the sequence in the segment name. A segment is rolled when it reaches the segment size.</li>
+ *     <li>checkpoint-&lt;sequence&gt;.cards snapshots of every card as of that record, as consecutive
+ *     CardBinaryCodec listings. A checkpoint is written to a temporary file, forced to disk and renamed into place,
+ *     so it is either complete or absent; afterwards older checkpoints and the segments it covers are deleted.</li>
+ * </ul>
+ * Recovery memory-maps the newest checkpoint and replays only the records after it, so restart time depends on the
+ * number of cards and the records since the last checkpoint, not on the length of the write history. A record cut
+ * short by a crash, or failing its checksum, ends its segment: the segment is truncated before it and replay goes on
+ * with the next segment, skipping the sequence numbers of the records lost with the truncated tail. Since nothing on
+ * disk would explain that gap at the next start, recovery then writes a checkpoint at once, which replaces every
+ * segment replayed. A gap that does not follow a truncated segment means segments are missing, and fails recovery.
+ * <p>
+ * Appends are serialized; forcing them to disk is not (see sync), so concurrent writers share one fsync.
+ */
+public class CardJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(CardJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".cards";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int CHECKPOINT_CHUNK_SIZE = 1000;
+
+    private final Path directory;
+    private final CardBinaryCodec codec;
+    private final long segmentSize;
+    private final boolean fsync;
+
+    // Guarded by this
+    private FileChannel segment;
+    private long segmentBytes;
+    private long nextSequence;
+    private long checkpointSequence;
+    private long writtenOffset;
+    private final List<FileChannel> rolledSegments = new ArrayList<>();
+
+    // Guarded by syncLock
+    private final Object syncLock = new Object();
+    private long syncedOffset;
+
+    private CardJournal(Path directory, CardBinaryCodec codec, long segmentSize, boolean fsync) {
+        this.directory = directory;
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Recovers the cards recorded in a journal directory and opens the journal for appending.
+     *
+     * @param directory The journal directory, created if missing.
+     * @param codec The codec encoding records and checkpoints.
+     * @param segmentSize Bytes after which a segment is rolled.
+     * @param fsync Whether sync forces records to disk; without it they are only handed to the operating system.
+     * @param restoredCards Receives the recovered cards once, in one batch, before appending starts.
+     * @return The open journal.
+     * @throws IOException if the directory cannot be read or a checkpoint is unreadable.
+     */
+    public static CardJournal open(Path directory, CardBinaryCodec codec, long segmentSize, boolean fsync,
+                                   Consumer<Collection<CardResponse>> restoredCards) throws IOException {
+        Files.createDirectories(directory);
+        CardJournal journal = new CardJournal(directory, codec, segmentSize, fsync);
+        long started = System.nanoTime();
+        Map<String, CardResponse> cards = new LinkedHashMap<>();
+        journal.checkpointSequence = journal.restoreCheckpoint(cards);
+        Replay replay = journal.replaySegments(cards);
+        long lastSequence = replay.lastSequence();
+        restoredCards.accept(cards.values());
+        log.info("Card journal {} restored {} cards from checkpoint {} and {} journal records in {} ms",
+                directory, cards.size(), journal.checkpointSequence, replay.records(),
+                (System.nanoTime() - started) / 1_000_000);
+        if (replay.skipped() > 0) {
+            log.warn("Card journal {} lost {} records with truncated segments, writing checkpoint {} to close the gap",
+                    directory, replay.skipped(), lastSequence);
+            journal.writeCheckpoint(lastSequence, List.of(new ArrayList<>(cards.values())));
+            journal.checkpointSequence = lastSequence;
+        }
+        synchronized (journal) {
+            journal.nextSequence = lastSequence + 1;
+            journal.openSegment();
+        }
+        return journal;
+    }
+
+    /**
+     * Appends one record holding the new state of the given cards. The record is not necessarily on disk yet,
+     * see sync.
+     *
+     * @param cards The written cards.
+     * @return The journal offset to pass to sync.
+     * @throws IOException if writing the record fails.
+     */
+    public long append(List<CardResponse> cards) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64 + 96 * cards.size());
+        codec.writeCards(cards, payload);
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + bytes.length);
+        record.putInt(bytes.length).putInt((int) crc.getValue()).put(bytes).flip();
+
+        synchronized (this) {
+            if (segment == null) {
+                throw new IOException("Card journal " + directory + " is closed");
+            }
+            if (segmentBytes > 0 && segmentBytes + record.remaining() > segmentSize) {
+                rollSegment();
+            }
+            int length = record.remaining();
+            while (record.hasRemaining()) {
+                segment.write(record);
+            }
+            segmentBytes += length;
+            writtenOffset += length;
+            nextSequence++;
+            return writtenOffset;
+        }
+    }
+
+    /**
+     * Waits until every record up to the given offset is on disk. Writers arriving while a force is in progress
+     * wait for it and are then covered together by the next one, so one fsync serves many appends.
+     *
+     * @param offset An offset returned by append.
+     * @throws IOException if forcing the segment to disk fails.
+     */
+    public void sync(long offset) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedOffset >= offset) {
+                return;
+            }
+            long target;
+            List<FileChannel> channels;
+            synchronized (this) {
+                if (segment == null) {
+                    throw new IOException("Card journal " + directory + " is closed");
+                }
+                target = writtenOffset;
+                channels = new ArrayList<>(rolledSegments);
+                channels.add(segment);
+                rolledSegments.clear();
+            }
+            for (FileChannel channel : channels) {
+                channel.force(false);
+            }
+            for (int i = 0; i < channels.size() - 1; i++) {
+                channels.get(i).close();
+            }
+            syncedOffset = target;
+        }
+    }
+
+    /**
+     * @return Records appended since the last checkpoint was started.
+     */
+    public synchronized long recordsSinceCheckpoint() {
+        return nextSequence - 1 - checkpointSequence;
+    }
+
+    /**
+     * Starts a checkpoint: rolls the segment so that every later record lands in a segment the checkpoint does not
+     * cover. The caller must hold off all writers until it has captured the cards to pass to writeCheckpoint.
+     *
+     * @return The sequence of the last record the checkpoint covers.
+     * @throws IOException if rolling the segment fails.
+     */
+    public synchronized long startCheckpoint() throws IOException {
+        if (segmentBytes > 0) {
+            rollSegment();
+        }
+        checkpointSequence = nextSequence - 1;
+        return checkpointSequence;
+    }
+
+    /**
+     * Writes the checkpoint started by startCheckpoint, then deletes older checkpoints and the segments it covers.
+     *
+     * @param sequence The sequence returned by startCheckpoint.
+     * @param listings Every card as of that sequence, e.g. one listing per card product type.
+     * @throws IOException if the checkpoint cannot be written; the journal stays valid without it.
+     */
+    public void writeCheckpoint(long sequence, List<List<CardResponse>> listings) throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_PREFIX + fileSequence(sequence) + CHECKPOINT_SUFFIX);
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            for (List<CardResponse> cards : listings) {
+                for (int from = 0; from < cards.size(); from += CHECKPOINT_CHUNK_SIZE) {
+                    codec.writeCards(cards.subList(from, Math.min(cards.size(), from + CHECKPOINT_CHUNK_SIZE)), out);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporary);
+            throw ex;
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rename must be durable before anything it replaces is deleted, or a crash could keep only the deletions
+        syncDirectory();
+
+        for (Map.Entry<Long, Path> entry : list(CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX).entrySet()) {
+            if (entry.getKey() < sequence) {
+                Files.deleteIfExists(entry.getValue());
+            }
+        }
+        for (Map.Entry<Long, Path> entry : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).entrySet()) {
+            // Segments are rolled at the checkpoint, so a segment starting at or before it ends at or before it
+            if (entry.getKey() <= sequence) {
+                Files.deleteIfExists(entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (segment == null) {
+                    return;
+                }
+                rolledSegments.add(segment);
+                segment = null;
+                for (FileChannel channel : rolledSegments) {
+                    channel.force(false);
+                    channel.close();
+                }
+                rolledSegments.clear();
+                syncedOffset = writtenOffset;
+            }
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        if (fsync) {
+            // Closed by the next sync, after forcing it
+            rolledSegments.add(segment);
+        } else {
+            segment.close();
+        }
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        // A segment of the same name can only be an empty one left by an earlier run without writes
+        segment = FileChannel.open(directory.resolve(SEGMENT_PREFIX + fileSequence(nextSequence) + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentBytes = segment.size();
+        if (fsync) {
+            // Forcing the segment only makes its contents durable, the new directory entry needs its own sync
+            syncDirectory();
+        }
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Loads the newest checkpoint and removes leftovers of checkpoints interrupted before their rename.
+     *
+     * @return The sequence of the loaded checkpoint, 0 if there is none.
+     */
+    private long restoreCheckpoint(Map<String, CardResponse> cards) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(TEMPORARY_SUFFIX)).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        TreeMap<Long, Path> checkpoints = list(CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        if (checkpoints.isEmpty()) {
+            return 0;
+        }
+        Map.Entry<Long, Path> newest = checkpoints.lastEntry();
+        try (FileChannel channel = FileChannel.open(newest.getValue(), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            codec.readListings(new ByteBufferInputStream(mapped), mapped.capacity(), listing -> {
+                for (CardResponse card : listing) {
+                    cards.put(card.getCardNumber(), card);
+                }
+            });
+        }
+        return newest.getKey();
+    }
+
+    /**
+     * Applies the records after the checkpoint, segment by segment in sequence order.
+     *
+     * @return The last sequence replayed and how many records were replayed and skipped.
+     */
+    private Replay replaySegments(Map<String, CardResponse> cards) throws IOException {
+        long lastSequence = checkpointSequence;
+        long records = 0;
+        long skipped = 0;
+        boolean truncated = false;
+        for (Map.Entry<Long, Path> entry : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).entrySet()) {
+            long sequence = entry.getKey();
+            if (sequence > lastSequence + 1) {
+                if (!truncated) {
+                    throw new IOException("Card journal " + directory + " is missing records " + (lastSequence + 1)
+                            + " to " + (sequence - 1) + " before " + entry.getValue().getFileName());
+                }
+                // Lost with the tail of the previous segment
+                skipped += sequence - lastSequence - 1;
+                lastSequence = sequence - 1;
+            }
+            long end;
+            try (FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                while (true) {
+                    int start = mapped.position();
+                    byte[] payload = nextPayload(mapped);
+                    if (payload == null) {
+                        end = start;
+                        break;
+                    }
+                    if (sequence > lastSequence) {
+                        for (CardResponse card : codec.readCards(new ByteArrayInputStream(payload), payload.length)) {
+                            cards.put(card.getCardNumber(), card);
+                        }
+                        lastSequence = sequence;
+                        records++;
+                    }
+                    sequence++;
+                }
+                truncated = end < size;
+                if (truncated) {
+                    log.warn("Card journal segment {} has an incomplete record at byte {}, truncating {} bytes",
+                            entry.getValue().getFileName(), end, size - end);
+                    channel.truncate(end);
+                }
+            }
+        }
+        return new Replay(lastSequence, records, skipped);
+    }
+
+    /**
+     * @return The payload of the record at the buffer's position, or null at the end of the segment or at a
+     * record that is cut short or fails its checksum.
+     */
+    private static byte[] nextPayload(ByteBuffer records) {
+        if (records.remaining() < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int start = records.position();
+        int length = records.getInt();
+        int checksum = records.getInt();
+        if (length <= 0 || length > records.remaining()) {
+            records.position(start);
+            return null;
+        }
+        byte[] payload = new byte[length];
+        records.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            records.position(start);
+            return null;
+        }
+        return payload;
+    }
+
+    /**
+     * @return The journal files with the given prefix and suffix by the sequence in their name.
+     */
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), path);
+                    } catch (NumberFormatException ex) {
+                        log.warn("Ignoring unexpected file {} in card journal {}", name, directory);
+                    }
+                }
+            });
+        }
+        return files;
+    }
+
+    /**
+     * Zero-padded, so that file names sort in sequence order.
+     */
+    private static String fileSequence(long sequence) {
+        return String.format("%020d", sequence);
+    }
+
+    /**
+     * @param lastSequence The sequence of the last record in the journal, replayed or skipped.
+     * @param records Records replayed.
+     * @param skipped Sequence numbers skipped because their records were lost with a truncated segment tail.
+     */
+    private record Replay(long lastSequence, long records, long skipped) {
+    }
+
+    /**
+     * Reads a (memory-mapped) buffer as a stream without copying it to the heap first.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
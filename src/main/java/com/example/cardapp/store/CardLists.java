@@ -0,0 +1,68 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Helpers for lists of cards kept in CardStore.CARD_ORDER.
+ */
+final class CardLists {
+
+    private CardLists() {
+    }
+
+    /**
+     * K-way merge of lists that are each sorted in CARD_ORDER.
+     *
+     * @param parts The sorted lists.
+     * @return A new list with all cards in CARD_ORDER.
+     */
+    static List<CardResponse> merge(List<List<CardResponse>> parts) {
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        int total = 0;
+        for (List<CardResponse> part : parts) {
+            total += part.size();
+        }
+        List<CardResponse> merged = new ArrayList<>(total);
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(parts.size(),
+                (a, b) -> CardStore.CARD_ORDER.compare(a.current(), b.current()));
+        for (List<CardResponse> part : parts) {
+            if (!part.isEmpty()) {
+                heads.add(new Cursor(part));
+            }
+        }
+        while (!heads.isEmpty()) {
+            Cursor head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor {
+        private final List<CardResponse> cards;
+        private int position;
+
+        Cursor(List<CardResponse> cards) {
+            this.cards = cards;
+        }
+
+        CardResponse current() {
+            return cards.get(position);
+        }
+
+        boolean advance() {
+            return ++position < cards.size();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable slice of a card snapshot, holding the cards whose number hashes to it.
+ * Segments are never modified once published; a write copies only the segment it touches,
+ * so consecutive snapshots share every other segment (and its memoized listings).
+ */
+final class CardSegment {
+
+    private static final CardProductType[] PRODUCT_TYPES = CardProductType.values();
+
+    static final CardSegment EMPTY = new CardSegment(Map.of());
+
+    private final Map<String, CardResponse> cards;
+    private final AtomicReferenceArray<List<CardResponse>> listings = new AtomicReferenceArray<>(PRODUCT_TYPES.length);
+
+    CardSegment(Map<String, CardResponse> cards) {
+        this.cards = cards;
+    }
+
+    CardResponse get(String cardNumber) {
+        return cards.get(cardNumber);
+    }
+
+    int size() {
+        return cards.size();
+    }
+
+    /**
+     * @return A mutable copy of this segment's contents, for building the next version.
+     */
+    Map<String, CardResponse> copyOfCards() {
+        return new HashMap<>(cards);
+    }
+
+    /**
+     * Returns this segment's cards of one product type in CARD_ORDER, computed once per segment.
+     * Racing readers may both compute the list; they produce equal results, so either may win.
+     */
+    List<CardResponse> listing(CardProductType cardProductType) {
+        List<CardResponse> listing = listings.get(cardProductType.ordinal());
+        if (listing == null) {
+            List<CardResponse> computed = new ArrayList<>();
+            for (CardResponse card : cards.values()) {
+                if (card.getCardProduct() == cardProductType) {
+                    computed.add(card);
+                }
+            }
+            computed.sort(CardStore.CARD_ORDER);
+            listing = Collections.unmodifiableList(computed);
+            listings.compareAndSet(cardProductType.ordinal(), null, listing);
+        }
+        return listing;
+    }
+}
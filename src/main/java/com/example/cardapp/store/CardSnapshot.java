@@ -0,0 +1,125 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable, versioned view of a card store.
+ * Cards are spread over a fixed number of segments by card number hash. Building the next
+ * version copies only the segments that change; all other segments are shared with this one.
+ * Merged per-product listings are memoized on the snapshot, so reads between two writes merge the segments once.
+ */
+final class CardSnapshot {
+
+    private static final CardProductType[] PRODUCT_TYPES = CardProductType.values();
+
+    private final long version;
+    private final CardSegment[] segments;
+    private final int size;
+    private final AtomicReferenceArray<List<CardResponse>> listings = new AtomicReferenceArray<>(PRODUCT_TYPES.length);
+
+    private CardSnapshot(long version, CardSegment[] segments, int size) {
+        this.version = version;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    static CardSnapshot empty(int segmentCount) {
+        CardSegment[] segments = new CardSegment[segmentCount];
+        Arrays.fill(segments, CardSegment.EMPTY);
+        return new CardSnapshot(0, segments, 0);
+    }
+
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return size;
+    }
+
+    CardResponse get(String cardNumber) {
+        return segments[segmentOf(cardNumber)].get(cardNumber);
+    }
+
+    /**
+     * Returns this snapshot's cards of one product type in CARD_ORDER, merged from the segments once per snapshot.
+     * Racing readers may both merge the list; they produce equal results, so either may win.
+     */
+    List<CardResponse> listing(CardProductType cardProductType) {
+        List<CardResponse> listing = listings.get(cardProductType.ordinal());
+        if (listing == null) {
+            List<List<CardResponse>> parts = new ArrayList<>(segments.length);
+            for (CardSegment segment : segments) {
+                List<CardResponse> part = segment.listing(cardProductType);
+                if (!part.isEmpty()) {
+                    parts.add(part);
+                }
+            }
+            listing = Collections.unmodifiableList(CardLists.merge(parts));
+            listings.compareAndSet(cardProductType.ordinal(), null, listing);
+        }
+        return listing;
+    }
+
+    Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    private int segmentOf(String cardNumber) {
+        return Math.floorMod(cardNumber.hashCode(), segments.length);
+    }
+
+    /**
+     * Accumulates the writes of one batch and produces the next snapshot version.
+     * Not thread-safe; used by the single writer holding the store's write lock.
+     */
+    static final class Builder {
+        private final CardSnapshot base;
+        private final CardSegment[] segments;
+        private final Map<Integer, Map<String, CardResponse>> dirty = new HashMap<>();
+        private int size;
+
+        private Builder(CardSnapshot base) {
+            this.base = base;
+            this.segments = base.segments.clone();
+            this.size = base.size;
+        }
+
+        CardResponse get(String cardNumber) {
+            int index = base.segmentOf(cardNumber);
+            Map<String, CardResponse> changed = dirty.get(index);
+            return changed != null ? changed.get(cardNumber) : segments[index].get(cardNumber);
+        }
+
+        void put(CardResponse card) {
+            int index = base.segmentOf(card.getCardNumber());
+            Map<String, CardResponse> changed = dirty.computeIfAbsent(index, i -> segments[i].copyOfCards());
+            if (changed.put(card.getCardNumber(), card) == null) {
+                size++;
+            }
+        }
+
+        boolean isEmpty() {
+            return dirty.isEmpty();
+        }
+
+        CardSnapshot build() {
+            if (dirty.isEmpty()) {
+                return base;
+            }
+            for (Map.Entry<Integer, Map<String, CardResponse>> entry : dirty.entrySet()) {
+                segments[entry.getKey()] = new CardSegment(entry.getValue());
+            }
+            return new CardSnapshot(base.version + 1, segments, size);
+        }
+    }
+}
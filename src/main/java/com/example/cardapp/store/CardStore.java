@@ -0,0 +1,88 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage abstraction for cards.
+ * Listings are always returned in CARD_ORDER so that results from several stores can be merged.
+ * Single-card lookups name the card's product type, so stores partitioned by product only search one partition.
+ */
+public interface CardStore {
+
+    /**
+     * Listing order: oldest creation date first, card number as tie-breaker.
+     */
+    Comparator<CardResponse> CARD_ORDER = Comparator
+            .comparing(CardResponse::getCreationDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CardResponse::getCardNumber, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Looks up a single card within one product type's partition.
+     *
+     * @param cardProductType The product type of the card.
+     * @param cardNumber The card number.
+     * @return The card, or empty if no card of that product type has the number.
+     */
+    Optional<CardResponse> findByCardNumber(CardProductType cardProductType, String cardNumber);
+
+    /**
+     * Lists all cards of a product type.
+     *
+     * @param cardProductType The product type to list.
+     * @return The matching cards in CARD_ORDER.
+     */
+    List<CardResponse> findByProduct(CardProductType cardProductType);
+
+    /**
+     * Inserts or replaces a card, keyed by its card number.
+     *
+     * @param card The card to store.
+     */
+    void save(CardResponse card);
+
+    /**
+     * Inserts or replaces several cards. Implementations apply the batch as a single version where they can.
+     *
+     * @param cards The cards to store.
+     */
+    void saveAll(Collection<CardResponse> cards);
+
+    /**
+     * Replaces a card only if its stored state still equals the expected state (compare-and-set).
+     * Stored cards must be treated as immutable, so updates go through a modified copy and this method.
+     *
+     * @param expected The state the caller read.
+     * @param replacement The new state, with the same card number.
+     * @return True if the card was replaced, false if it changed or disappeared in the meantime.
+     */
+    boolean replace(CardResponse expected, CardResponse replacement);
+
+    /**
+     * A counter that increases whenever the store's contents change.
+     * Two reads returning the same version saw the same data, so it can be used to validate caches.
+     *
+     * @return The current data version.
+     */
+    long version();
+
+    /**
+     * Like version(), but only required to change when cards of one product type change.
+     * Partitioned stores keep a version per product type, so caches of one product are not invalidated by
+     * writes to another.
+     *
+     * @param cardProductType The product type.
+     * @return The data version of the product type's cards.
+     */
+    long version(CardProductType cardProductType);
+
+    /**
+     * @return The number of cards held by this store.
+     */
+    int count();
+}
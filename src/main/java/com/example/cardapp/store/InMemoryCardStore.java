@@ -0,0 +1,168 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Card store holding a single shard in the local JVM.
+ *
+ * Readers never lock: every read goes through one volatile reference to an immutable CardSnapshot,
+ * so a listing always sees a single consistent version. Writers enqueue their change and then take
+ * the write lock; whichever writer holds the lock applies every queued change in one batch and
+ * publishes a single new snapshot version, so concurrent writers share the cost of copying segments.
+ * Used on its own or as one partition of a PartitionedCardStore.
+ */
+public class InMemoryCardStore implements CardStore {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private volatile CardSnapshot snapshot = CardSnapshot.empty(SEGMENT_COUNT);
+
+    private final ConcurrentLinkedQueue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Override
+    public Optional<CardResponse> findByCardNumber(CardProductType cardProductType, String cardNumber) {
+        CardResponse card = snapshot.get(cardNumber);
+        return card != null && card.getCardProduct() == cardProductType ? Optional.of(card) : Optional.empty();
+    }
+
+    @Override
+    public List<CardResponse> findByProduct(CardProductType cardProductType) {
+        return snapshot.listing(cardProductType);
+    }
+
+    @Override
+    public void save(CardResponse card) {
+        submit(new PendingWrite(List.of(card), null));
+    }
+
+    @Override
+    public void saveAll(Collection<CardResponse> cards) {
+        if (!cards.isEmpty()) {
+            submit(new PendingWrite(List.copyOf(cards), null));
+        }
+    }
+
+    @Override
+    public boolean replace(CardResponse expected, CardResponse replacement) {
+        if (!Objects.equals(expected.getCardNumber(), replacement.getCardNumber())) {
+            throw new IllegalArgumentException("A card cannot change its card number.");
+        }
+        return submit(new PendingWrite(List.of(replacement), expected));
+    }
+
+    @Override
+    public long version() {
+        return snapshot.version();
+    }
+
+    /**
+     * A single snapshot holds every product type, so this is the store-wide version.
+     */
+    @Override
+    public long version(CardProductType cardProductType) {
+        return snapshot.version();
+    }
+
+    @Override
+    public int count() {
+        return snapshot.size();
+    }
+
+    private boolean submit(PendingWrite write) {
+        pendingWrites.add(write);
+        writeLock.lock();
+        try {
+            // Another writer may already have applied this change as part of its batch
+            if (!write.applied) {
+                publishPendingWrites();
+            }
+            if (write.failure != null) {
+                throw write.failure;
+            }
+            return write.succeeded;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies every queued write, including those of other threads, as one new snapshot. A write that fails is
+     * skipped and its failure handed to the thread that queued it; the rest of the batch is still published.
+     * Every drained write is marked applied, whatever happens, so no writer waits for a write that is gone.
+     */
+    private void publishPendingWrites() {
+        CardSnapshot.Builder next = snapshot.toBuilder();
+        List<PendingWrite> batch = new ArrayList<>();
+        try {
+            PendingWrite write;
+            while ((write = pendingWrites.poll()) != null) {
+                batch.add(write);
+                try {
+                    write.succeeded = write.applyTo(next);
+                } catch (RuntimeException ex) {
+                    write.failure = ex;
+                }
+            }
+            snapshot = next.build();
+        } catch (RuntimeException | Error ex) {
+            // The new snapshot was not published, so none of the drained writes took effect
+            for (PendingWrite failed : batch) {
+                failed.succeeded = false;
+                if (failed.failure == null) {
+                    failed.failure = ex instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex);
+                }
+            }
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            for (PendingWrite applied : batch) {
+                applied.applied = true;
+            }
+        }
+    }
+
+    /**
+     * A queued change. Its result fields are only touched while holding the write lock.
+     */
+    private static final class PendingWrite {
+        private final List<CardResponse> cards;
+        private final CardResponse expected;
+        private boolean applied;
+        private boolean succeeded;
+        private RuntimeException failure;
+
+        PendingWrite(List<CardResponse> cards, CardResponse expected) {
+            this.cards = cards;
+            this.expected = expected;
+        }
+
+        /**
+         * Checks the write before changing the builder, so a write that throws leaves it untouched.
+         */
+        boolean applyTo(CardSnapshot.Builder next) {
+            for (CardResponse card : cards) {
+                if (card.getCardNumber() == null) {
+                    throw new IllegalArgumentException("A card without a card number cannot be stored.");
+                }
+            }
+            if (expected != null && !expected.equals(next.get(expected.getCardNumber()))) {
+                return false;
+            }
+            for (CardResponse card : cards) {
+                next.put(card);
+            }
+            return true;
+        }
+    }
+}
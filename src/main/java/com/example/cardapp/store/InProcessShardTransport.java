@@ -0,0 +1,100 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import jakarta.annotation.PreDestroy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ShardTransport whose "remote" nodes are card stores living in the same JVM.
+ * Calls still complete asynchronously on their own threads, so scatter-gather behaves as it would over a network.
+ * Used as the default transport and as the stand-in for multi-node tests.
+ */
+public class InProcessShardTransport implements ShardTransport {
+
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Makes a store reachable under a node id. Registering a node again stands for a restart: it gets a new epoch.
+     *
+     * @param nodeId The node id.
+     * @param store The store serving that node's shard.
+     */
+    public void register(String nodeId, CardStore store) {
+        nodes.put(nodeId, new Node(store, ShardVersion.newEpoch()));
+    }
+
+    @Override
+    public CompletableFuture<Optional<CardResponse>> findByCardNumber(String nodeId, CardProductType cardProductType, String cardNumber) {
+        return CompletableFuture.supplyAsync(() -> node(nodeId).findByCardNumber(cardProductType, cardNumber), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<CardResponse>> findByProduct(String nodeId, CardProductType cardProductType) {
+        return CompletableFuture.supplyAsync(() -> node(nodeId).findByProduct(cardProductType), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveAll(String nodeId, Collection<CardResponse> cards) {
+        return CompletableFuture.runAsync(() -> node(nodeId).saveAll(cards), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> replace(String nodeId, CardResponse expected, CardResponse replacement) {
+        return CompletableFuture.supplyAsync(() -> node(nodeId).replace(expected, replacement), executor);
+    }
+
+    @Override
+    public CompletableFuture<ShardVersion> version(String nodeId) {
+        return CompletableFuture.supplyAsync(() -> {
+            Node node = registered(nodeId);
+            return new ShardVersion(node.epoch(), node.store().version());
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<ShardVersion> version(String nodeId, CardProductType cardProductType) {
+        return CompletableFuture.supplyAsync(() -> {
+            Node node = registered(nodeId);
+            return new ShardVersion(node.epoch(), node.store().version(cardProductType));
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> count(String nodeId) {
+        return CompletableFuture.supplyAsync(() -> node(nodeId).count(), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CardStore node(String nodeId) {
+        return registered(nodeId).store();
+    }
+
+    private Node registered(String nodeId) {
+        Node node = nodes.get(nodeId);
+        if (node == null) {
+            throw new ShardUnavailableException("No card store registered for node '" + nodeId + "'.");
+        }
+        return node;
+    }
+
+    /**
+     * @param store The store serving the node's shard.
+     * @param epoch The node's epoch since it was registered.
+     */
+    private record Node(CardStore store, long epoch) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.codec.CardBinaryCodec;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Card store that records every write in a CardJournal, so the cards survive a restart.
+ * The cards are restored into the delegate when the store is created.
+ * <p>
+ * Writes of one card product type are appended to the journal and then applied to the delegate under the product's
+ * lock, so the journal holds them in the order they were applied and never misses a write readers have seen; writes
+ * of different product types proceed independently. A replace checks its expected state under the lock before
+ * the record is appended, so only replacements that succeed are journaled. A write returns once its record is on
+ * disk, forced together with concurrent writes; readers may see it slightly before that. After
+ * cards.journal.checkpoint-records records a checkpoint of the delegate is written in the background, and a final
+ * one when the store is closed, so that a restart replays little.
+ */
+public class JournaledCardStore implements CardStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledCardStore.class);
+
+    private final CardStore delegate;
+    private final CardJournal journal;
+    private final long checkpointRecords;
+    private final Map<CardProductType, ReentrantLock> writeLocks = new EnumMap<>(CardProductType.class);
+    private final AtomicBoolean checkpointPending = new AtomicBoolean();
+    private final ExecutorService checkpointExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "card-journal-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param delegate The store holding the cards, written only through this store. Restored cards are saved to it.
+     * @param directory The journal directory.
+     * @param codec The codec encoding journal records and checkpoints.
+     * @param segmentSize Bytes after which a journal segment is rolled.
+     * @param fsync Whether a write waits for its record to be forced to disk.
+     * @param checkpointRecords Records after which a checkpoint is written.
+     * @throws IOException if the journal cannot be recovered.
+     */
+    public JournaledCardStore(CardStore delegate, Path directory, CardBinaryCodec codec, long segmentSize,
+                              boolean fsync, long checkpointRecords) throws IOException {
+        this.delegate = delegate;
+        this.journal = CardJournal.open(directory, codec, segmentSize, fsync, delegate::saveAll);
+        this.checkpointRecords = checkpointRecords;
+        for (CardProductType cardProductType : CardProductType.values()) {
+            writeLocks.put(cardProductType, new ReentrantLock());
+        }
+    }
+
+    @Override
+    public Optional<CardResponse> findByCardNumber(CardProductType cardProductType, String cardNumber) {
+        return delegate.findByCardNumber(cardProductType, cardNumber);
+    }
+
+    @Override
+    public List<CardResponse> findByProduct(CardProductType cardProductType) {
+        return delegate.findByProduct(cardProductType);
+    }
+
+    @Override
+    public void save(CardResponse card) {
+        saveAll(List.of(card));
+    }
+
+    @Override
+    public void saveAll(Collection<CardResponse> cards) {
+        Map<CardProductType, List<CardResponse>> byProduct = new EnumMap<>(CardProductType.class);
+        for (CardResponse card : cards) {
+            byProduct.computeIfAbsent(requireProduct(card), type -> new ArrayList<>()).add(card);
+        }
+        long offset = 0;
+        for (Map.Entry<CardProductType, List<CardResponse>> entry : byProduct.entrySet()) {
+            ReentrantLock lock = writeLocks.get(entry.getKey());
+            lock.lock();
+            try {
+                offset = append(entry.getValue());
+                delegate.saveAll(entry.getValue());
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (offset > 0) {
+            sync(offset);
+        }
+    }
+
+    @Override
+    public boolean replace(CardResponse expected, CardResponse replacement) {
+        CardProductType cardProductType = Objects.requireNonNull(expected.getCardProduct(), "cardProduct");
+        if (!Objects.equals(expected.getCardNumber(), replacement.getCardNumber())) {
+            throw new IllegalArgumentException("A card cannot change its card number.");
+        }
+        if (!Objects.equals(cardProductType, replacement.getCardProduct())) {
+            throw new IllegalArgumentException("A card cannot change its card product.");
+        }
+        long offset;
+        ReentrantLock lock = writeLocks.get(cardProductType);
+        lock.lock();
+        try {
+            // The delegate is only written under this lock, so the card cannot change between the check and the write
+            Optional<CardResponse> current = delegate.findByCardNumber(cardProductType, expected.getCardNumber());
+            if (current.isEmpty() || !current.get().equals(expected)) {
+                return false;
+            }
+            offset = append(List.of(replacement));
+            if (!delegate.replace(expected, replacement)) {
+                throw new IllegalStateException("Card " + expected.getCardNumber() + " changed outside the journaled store.");
+            }
+        } finally {
+            lock.unlock();
+        }
+        sync(offset);
+        return true;
+    }
+
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
+    @Override
+    public long version(CardProductType cardProductType) {
+        return delegate.version(cardProductType);
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    /**
+     * Writes a checkpoint now: captures the delegate's cards with all writes held off, then writes them to disk
+     * with writes flowing again.
+     *
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    public void checkpoint() throws IOException {
+        long sequence;
+        List<List<CardResponse>> listings = new ArrayList<>();
+        for (ReentrantLock lock : writeLocks.values()) {
+            lock.lock();
+        }
+        try {
+            sequence = journal.startCheckpoint();
+            for (CardProductType cardProductType : CardProductType.values()) {
+                listings.add(delegate.findByProduct(cardProductType));
+            }
+        } finally {
+            for (ReentrantLock lock : writeLocks.values()) {
+                lock.unlock();
+            }
+        }
+        long started = System.nanoTime();
+        journal.writeCheckpoint(sequence, listings);
+        log.info("Card journal checkpoint {} written: {} cards in {} ms", sequence,
+                listings.stream().mapToInt(List::size).sum(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Writes a final checkpoint, unless nothing was written since the last one, and closes the journal.
+     */
+    @Override
+    public void close() throws IOException {
+        checkpointExecutor.shutdown();
+        try {
+            if (!checkpointExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("Card journal checkpoint still running at shutdown");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (journal.recordsSinceCheckpoint() > 0) {
+                checkpoint();
+            }
+        } finally {
+            journal.close();
+        }
+    }
+
+    private long append(List<CardResponse> cards) {
+        try {
+            long offset = journal.append(cards);
+            if (journal.recordsSinceCheckpoint() >= checkpointRecords && checkpointPending.compareAndSet(false, true)) {
+                try {
+                    checkpointExecutor.execute(this::runCheckpoint);
+                } catch (RejectedExecutionException ex) {
+                    // Shutting down, close writes the final checkpoint
+                    checkpointPending.set(false);
+                }
+            }
+            return offset;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not journal card write", ex);
+        }
+    }
+
+    private void sync(long offset) {
+        try {
+            journal.sync(offset);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not journal card write", ex);
+        }
+    }
+
+    private void runCheckpoint() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Card journal checkpoint failed, the journal is replayed from the previous one: {}", ex.toString());
+        } finally {
+            checkpointPending.set(false);
+        }
+    }
+
+    private static CardProductType requireProduct(CardResponse card) {
+        if (card.getCardProduct() == null) {
+            throw new IllegalArgumentException("Card " + card.getCardNumber() + " has no card product.");
+        }
+        return card.getCardProduct();
+    }
+}
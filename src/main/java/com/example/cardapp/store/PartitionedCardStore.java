@@ -0,0 +1,99 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Card store keeping each card product type in its own partition. Every partition is an InMemoryCardStore
+ * with its own snapshot, write lock and version, so listing, caching and writing one product never touches
+ * the other: a PREPAID write neither waits for a LIMITED_USE write nor changes the LIMITED_USE version.
+ * <p>
+ * Operations route by product type; a card never moves between partitions.
+ */
+public class PartitionedCardStore implements CardStore {
+
+    private final Map<CardProductType, InMemoryCardStore> partitions = new EnumMap<>(CardProductType.class);
+
+    public PartitionedCardStore() {
+        for (CardProductType cardProductType : CardProductType.values()) {
+            partitions.put(cardProductType, new InMemoryCardStore());
+        }
+    }
+
+    @Override
+    public Optional<CardResponse> findByCardNumber(CardProductType cardProductType, String cardNumber) {
+        return partition(cardProductType).findByCardNumber(cardProductType, cardNumber);
+    }
+
+    @Override
+    public List<CardResponse> findByProduct(CardProductType cardProductType) {
+        return partition(cardProductType).findByProduct(cardProductType);
+    }
+
+    @Override
+    public void save(CardResponse card) {
+        partitions.get(requireProduct(card)).save(card);
+    }
+
+    @Override
+    public void saveAll(Collection<CardResponse> cards) {
+        Map<CardProductType, List<CardResponse>> byProduct = new EnumMap<>(CardProductType.class);
+        for (CardResponse card : cards) {
+            byProduct.computeIfAbsent(requireProduct(card), type -> new ArrayList<>()).add(card);
+        }
+        byProduct.forEach((cardProductType, batch) -> partitions.get(cardProductType).saveAll(batch));
+    }
+
+    @Override
+    public boolean replace(CardResponse expected, CardResponse replacement) {
+        if (!Objects.equals(expected.getCardProduct(), replacement.getCardProduct())) {
+            throw new IllegalArgumentException("A card cannot change its card product.");
+        }
+        return partition(expected.getCardProduct()).replace(expected, replacement);
+    }
+
+    /**
+     * The sum of all partition versions, which changes whenever any partition does.
+     */
+    @Override
+    public long version() {
+        long total = 0;
+        for (InMemoryCardStore partition : partitions.values()) {
+            total += partition.version();
+        }
+        return total;
+    }
+
+    @Override
+    public long version(CardProductType cardProductType) {
+        return partition(cardProductType).version();
+    }
+
+    @Override
+    public int count() {
+        int total = 0;
+        for (InMemoryCardStore partition : partitions.values()) {
+            total += partition.count();
+        }
+        return total;
+    }
+
+    private InMemoryCardStore partition(CardProductType cardProductType) {
+        return partitions.get(Objects.requireNonNull(cardProductType, "cardProductType"));
+    }
+
+    private static CardProductType requireProduct(CardResponse card) {
+        if (card.getCardProduct() == null) {
+            throw new IllegalArgumentException("Card " + card.getCardNumber() + " has no card product.");
+        }
+        return card.getCardProduct();
+    }
+}
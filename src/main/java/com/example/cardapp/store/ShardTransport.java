@@ -0,0 +1,30 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Forwards card store operations to the node that owns a shard.
+ * Implementations decide how nodes are reached (HTTP, RPC, or in-process for tests and single-JVM setups).
+ */
+public interface ShardTransport {
+
+    CompletableFuture<Optional<CardResponse>> findByCardNumber(String nodeId, CardProductType cardProductType, String cardNumber);
+
+    CompletableFuture<List<CardResponse>> findByProduct(String nodeId, CardProductType cardProductType);
+
+    CompletableFuture<Void> saveAll(String nodeId, Collection<CardResponse> cards);
+
+    CompletableFuture<Boolean> replace(String nodeId, CardResponse expected, CardResponse replacement);
+
+    CompletableFuture<ShardVersion> version(String nodeId);
+
+    CompletableFuture<ShardVersion> version(String nodeId, CardProductType cardProductType);
+
+    CompletableFuture<Integer> count(String nodeId);
+}
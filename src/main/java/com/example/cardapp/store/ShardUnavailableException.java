@@ -0,0 +1,17 @@
+package com.example.cardapp.store;
+
+/**
+ * Thrown when a shard owning the requested cards cannot be reached in time.
+ */
+public class ShardUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ShardUnavailableException(String message) {
+        super(message);
+    }
+
+    public ShardUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.cardapp.store;
+
+import java.security.SecureRandom;
+
+/**
+ * The version of one node's shard, qualified by the node's epoch.
+ * Shard versions count up from zero whenever a node starts, so a version alone cannot tell a shard that changed
+ * from one that restarted and reached the same count again. The epoch is drawn at random when a node starts, so the
+ * pair never repeats across restarts.
+ *
+ * @param epoch The epoch of the node, fixed from its start until it stops.
+ * @param version The shard's version within that epoch.
+ */
+public record ShardVersion(long epoch, long version) {
+
+    private static final SecureRandom EPOCHS = new SecureRandom();
+
+    /**
+     * @return A new random epoch for a starting node.
+     */
+    public static long newEpoch() {
+        return EPOCHS.nextLong();
+    }
+
+    /**
+     * @return The epoch and version mixed into one value, equal for equal pairs and spread over all 64 bits.
+     */
+    long fingerprint() {
+        // SplitMix64's finalizer over the pair, so neighbouring versions of one epoch land far apart
+        long z = epoch + version * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
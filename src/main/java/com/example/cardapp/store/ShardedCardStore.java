@@ -0,0 +1,216 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.diagnostics.CardStoreEvent;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Card store partitioned across nodes by card number.
+ * Single-card operations go to the owning node (directly if it is this node, otherwise through the ShardTransport).
+ * Listings scatter to every node in parallel and merge the per-shard results, which are already in CARD_ORDER.
+ * Reads and writes are reported as CardStoreEvents to JFR, with the number of cards and nodes involved.
+ */
+public class ShardedCardStore implements CardStore {
+
+    private final String localNodeId;
+    private final CardStore localShard;
+    private final ConsistentHashRing ring;
+    private final ShardTransport transport;
+    private final long timeoutMillis;
+    private final long epoch = ShardVersion.newEpoch();
+
+    /**
+     * @param localNodeId The id of this node on the ring.
+     * @param localShard The store holding this node's shard.
+     * @param ring The ring assigning card numbers to nodes.
+     * @param transport The transport used to reach other nodes.
+     * @param timeoutMillis How long to wait for a remote shard before failing the operation.
+     */
+    public ShardedCardStore(String localNodeId, CardStore localShard, ConsistentHashRing ring, ShardTransport transport, long timeoutMillis) {
+        this.localNodeId = localNodeId;
+        this.localShard = localShard;
+        this.ring = ring;
+        this.transport = transport;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Optional<CardResponse> findByCardNumber(CardProductType cardProductType, String cardNumber) {
+        CardStoreEvent event = new CardStoreEvent();
+        event.begin();
+        String owner = ring.ownerOf(cardNumber);
+        Optional<CardResponse> card = owner.equals(localNodeId)
+                ? localShard.findByCardNumber(cardProductType, cardNumber)
+                : await(transport.findByCardNumber(owner, cardProductType, cardNumber), owner);
+        commit(event, "findByCardNumber", cardProductType, card.isPresent() ? 1 : 0, 1);
+        return card;
+    }
+
+    @Override
+    public List<CardResponse> findByProduct(CardProductType cardProductType) {
+        CardStoreEvent event = new CardStoreEvent();
+        event.begin();
+        List<String> nodes = ring.getNodes();
+        List<CardResponse> cards = nodes.size() == 1 && nodes.get(0).equals(localNodeId)
+                ? localShard.findByProduct(cardProductType)
+                : scatterGather(nodes, cardProductType);
+        commit(event, "findByProduct", cardProductType, cards.size(), nodes.size());
+        return cards;
+    }
+
+    private List<CardResponse> scatterGather(List<String> nodes, CardProductType cardProductType) {
+        // Fire all remote requests first so they overlap with the local scan
+        List<CompletableFuture<List<CardResponse>>> remote = new ArrayList<>(nodes.size());
+        List<String> remoteNodes = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            if (!node.equals(localNodeId)) {
+                remote.add(transport.findByProduct(node, cardProductType));
+                remoteNodes.add(node);
+            }
+        }
+
+        List<List<CardResponse>> shards = new ArrayList<>(nodes.size());
+        if (nodes.contains(localNodeId)) {
+            shards.add(localShard.findByProduct(cardProductType));
+        }
+        for (int i = 0; i < remote.size(); i++) {
+            shards.add(await(remote.get(i), remoteNodes.get(i)));
+        }
+        return CardLists.merge(shards);
+    }
+
+    @Override
+    public void save(CardResponse card) {
+        CardStoreEvent event = new CardStoreEvent();
+        event.begin();
+        String owner = ring.ownerOf(card.getCardNumber());
+        if (owner.equals(localNodeId)) {
+            localShard.save(card);
+        } else {
+            await(transport.saveAll(owner, List.of(card)), owner);
+        }
+        commit(event, "save", card.getCardProduct(), 1, 1);
+    }
+
+    @Override
+    public void saveAll(Collection<CardResponse> cards) {
+        CardStoreEvent event = new CardStoreEvent();
+        event.begin();
+        Map<String, List<CardResponse>> byOwner = new LinkedHashMap<>();
+        for (CardResponse card : cards) {
+            byOwner.computeIfAbsent(ring.ownerOf(card.getCardNumber()), node -> new ArrayList<>()).add(card);
+        }
+        List<CompletableFuture<Void>> remote = new ArrayList<>(byOwner.size());
+        List<String> remoteNodes = new ArrayList<>(byOwner.size());
+        for (Map.Entry<String, List<CardResponse>> batch : byOwner.entrySet()) {
+            if (!batch.getKey().equals(localNodeId)) {
+                remote.add(transport.saveAll(batch.getKey(), batch.getValue()));
+                remoteNodes.add(batch.getKey());
+            }
+        }
+        List<CardResponse> local = byOwner.get(localNodeId);
+        if (local != null) {
+            localShard.saveAll(local);
+        }
+        for (int i = 0; i < remote.size(); i++) {
+            await(remote.get(i), remoteNodes.get(i));
+        }
+        commit(event, "saveAll", null, cards.size(), byOwner.size());
+    }
+
+    @Override
+    public boolean replace(CardResponse expected, CardResponse replacement) {
+        CardStoreEvent event = new CardStoreEvent();
+        event.begin();
+        String owner = ring.ownerOf(expected.getCardNumber());
+        boolean replaced = owner.equals(localNodeId)
+                ? localShard.replace(expected, replacement)
+                : await(transport.replace(owner, expected, replacement), owner);
+        commit(event, "replace", expected.getCardProduct(), replaced ? 1 : 0, 1);
+        return replaced;
+    }
+
+    /**
+     * A fingerprint of every shard's epoch and version, in ring order. A plain sum of shard versions could repeat
+     * an earlier value once a restarted node counts its version up from zero again, and validate a stale cache; a
+     * restarted node has a new epoch, so its shard contributes a value it never did before.
+     */
+    @Override
+    public long version() {
+        long fingerprint = 1;
+        for (String node : ring.getNodes()) {
+            ShardVersion version = node.equals(localNodeId)
+                    ? new ShardVersion(epoch, localShard.version())
+                    : await(transport.version(node), node);
+            fingerprint = 31 * fingerprint + version.fingerprint();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * A fingerprint of every shard's epoch and version of the product type, in ring order.
+     */
+    @Override
+    public long version(CardProductType cardProductType) {
+        long fingerprint = 1;
+        for (String node : ring.getNodes()) {
+            ShardVersion version = node.equals(localNodeId)
+                    ? new ShardVersion(epoch, localShard.version(cardProductType))
+                    : await(transport.version(node, cardProductType), node);
+            fingerprint = 31 * fingerprint + version.fingerprint();
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public int count() {
+        int total = 0;
+        for (String node : ring.getNodes()) {
+            total += node.equals(localNodeId) ? localShard.count() : await(transport.count(node), node);
+        }
+        return total;
+    }
+
+    /**
+     * Commits a store event if JFR is recording it. Fields are only filled in when it is.
+     */
+    private static void commit(CardStoreEvent event, String operation, CardProductType cardProductType, int rows, int nodes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.cardProduct = cardProductType != null ? cardProductType.name() : null;
+            event.rows = rows;
+            event.nodes = nodes;
+            event.commit();
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, String node) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new ShardUnavailableException("Timed out waiting for card shard on node '" + node + "'.", ex);
+        } catch (ExecutionException | CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ShardUnavailableException("Card shard on node '" + node + "' failed.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ShardUnavailableException("Interrupted waiting for card shard on node '" + node + "'.", ex);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.cardapp.validation;
+
+import com.example.cardapp.dto.AmountRequest;
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.LoginRequest;
+import com.example.cardapp.dto.SwipeRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written checks of the bean validation constraints declared on the request DTOs, applied in one pass over
+ * the getters instead of through Hibernate Validator's reflective metadata. A valid request costs a few field reads
+ * and allocates nothing.
+ * <p>
+ * The checks and messages mirror the annotations on CardCreationRequest (Restrictions declares no constraints),
+ * LoginRequest, SwipeRequest and AmountRequest and must be kept in step with them; CardRequestValidatorBenchmark
+ * fails at setup if the two disagree on any of its sample requests. Violations are reported ordered by property
+ * path, and per property with @NotBlank/@NotNull ahead of @Size/@Positive, the order in which the import and the
+ * reactive handlers list Hibernate Validator's violations.
+ */
+@Component
+public class CardRequestValidator {
+
+    /**
+     * One violated constraint.
+     *
+     * @param field The property path, e.g. "cardTitle".
+     * @param rejectedValue The property's value.
+     * @param constraint The constraint's simple annotation name, e.g. "NotBlank", used as the error code.
+     * @param message The constraint's message.
+     */
+    public record Violation(String field, Object rejectedValue, String constraint, String message) {
+    }
+
+    /**
+     * @param type A request type.
+     * @return True if validate checks the type's constraints.
+     */
+    public boolean supports(Class<?> type) {
+        return type == CardCreationRequest.class || type == LoginRequest.class
+                || type == SwipeRequest.class || type == AmountRequest.class;
+    }
+
+    /**
+     * @param request A request of a supported type.
+     * @return The violated constraints ordered by property path, an empty list if the request is valid.
+     * @throws IllegalArgumentException if the request type is not supported.
+     */
+    public List<Violation> validate(Object request) {
+        if (request instanceof CardCreationRequest creation) {
+            return validateCreation(creation);
+        }
+        if (request instanceof LoginRequest login) {
+            return validateLogin(login);
+        }
+        if (request instanceof SwipeRequest swipe) {
+            return validateAmount(swipe.getAmount());
+        }
+        if (request instanceof AmountRequest amount) {
+            return validateAmount(amount.getAmount());
+        }
+        throw new IllegalArgumentException("No validator for " + (request != null ? request.getClass().getName() : "null"));
+    }
+
+    /**
+     * @param violations Violations returned by validate, at least one.
+     * @return The message of a rejected request, e.g. "Validation Error: Card title cannot be empty; ...".
+     */
+    public static String validationError(List<Violation> violations) {
+        StringBuilder message = new StringBuilder("Validation Error: ");
+        for (int i = 0; i < violations.size(); i++) {
+            if (i > 0) {
+                message.append("; ");
+            }
+            message.append(violations.get(i).message());
+        }
+        return message.toString();
+    }
+
+    private static List<Violation> validateCreation(CardCreationRequest request) {
+        List<Violation> violations = null;
+        if (request.getActivationDate() == null) {
+            violations = add(violations, "activationDate", null, "NotNull", "Activation date cannot be null");
+        }
+        String description = request.getCardDescription();
+        if (isBlank(description)) {
+            violations = add(violations, "cardDescription", description, "NotBlank", "Card description cannot be empty");
+        }
+        if (description != null && (description.length() < 10 || description.length() > 500)) {
+            violations = add(violations, "cardDescription", description, "Size", "Card description must be between 10 and 500 characters");
+        }
+        if (request.getCardProduct() == null) {
+            violations = add(violations, "cardProduct", null, "NotNull", "Card product type cannot be null");
+        }
+        String title = request.getCardTitle();
+        if (isBlank(title)) {
+            violations = add(violations, "cardTitle", title, "NotBlank", "Card title cannot be empty");
+        }
+        if (title != null && (title.length() < 3 || title.length() > 100)) {
+            violations = add(violations, "cardTitle", title, "Size", "Card title must be between 3 and 100 characters");
+        }
+        Double loadAmount = request.getLoadAmount();
+        if (loadAmount == null) {
+            violations = add(violations, "loadAmount", null, "NotNull", "Load amount cannot be null");
+        } else if (!isPositive(loadAmount)) {
+            violations = add(violations, "loadAmount", loadAmount, "Positive", "Load amount must be positive");
+        }
+        if (request.getProtectionRequired() == null) {
+            violations = add(violations, "protectionRequired", null, "NotNull", "Protection required cannot be null");
+        }
+        return violations != null ? violations : List.of();
+    }
+
+    private static List<Violation> validateLogin(LoginRequest request) {
+        List<Violation> violations = null;
+        if (isBlank(request.getPassword())) {
+            violations = add(violations, "password", request.getPassword(), "NotBlank", "Password cannot be empty");
+        }
+        if (isBlank(request.getUserId())) {
+            violations = add(violations, "userId", request.getUserId(), "NotBlank", "User ID cannot be empty");
+        }
+        return violations != null ? violations : List.of();
+    }
+
+    private static List<Violation> validateAmount(Double amount) {
+        if (amount == null) {
+            return List.of(new Violation("amount", null, "NotNull", "Amount cannot be null"));
+        }
+        if (!isPositive(amount)) {
+            return List.of(new Violation("amount", amount, "Positive", "Amount must be positive"));
+        }
+        return List.of();
+    }
+
+    private static List<Violation> add(List<Violation> violations, String field, Object rejectedValue, String constraint, String message) {
+        List<Violation> list = violations != null ? violations : new ArrayList<>(2);
+        list.add(new Violation(field, rejectedValue, constraint, message));
+        return list;
+    }
+
+    /**
+     * Like @NotBlank: null, or nothing but characters up to the space character, which String.trim removes.
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Like @Positive on a Double: neither NaN nor -0.0 is positive, positive infinity is.
+     */
+    private static boolean isPositive(Double value) {
+        return value > 0;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.cardapp.validation;
+
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SmartValidator;
+
+import java.util.List;
+
+/**
+ * MVC validator that checks the request DTOs known to CardRequestValidator without Hibernate Validator and hands
+ * every other type to the default validator. Violations are added to the binding result as FieldErrors carrying the
+ * constraint message, as the default validator does, so @Valid arguments fail with the same
+ * MethodArgumentNotValidException and the controllers' handlers produce the same "Validation Error: ..." responses.
+ */
+public class FastPathValidator implements SmartValidator {
+
+    private final CardRequestValidator requestValidator;
+    private final SmartValidator delegate;
+
+    /**
+     * @param requestValidator The hand-written checks.
+     * @param delegate The validator for all other types, e.g. the default bean validator.
+     */
+    public FastPathValidator(CardRequestValidator requestValidator, SmartValidator delegate) {
+        this.requestValidator = requestValidator;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return requestValidator.supports(clazz) || delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        // Validation groups are not used by the request DTOs; hinted validations go through bean validation
+        if (target == null || validationHints.length > 0 || !requestValidator.supports(target.getClass())) {
+            delegate.validate(target, errors, validationHints);
+            return;
+        }
+        List<CardRequestValidator.Violation> violations = requestValidator.validate(target);
+        for (CardRequestValidator.Violation violation : violations) {
+            if (errors instanceof BindingResult bindingResult) {
+                // Added directly rather than through rejectValue, which would read the field again by reflection
+                bindingResult.addError(new FieldError(bindingResult.getObjectName(), violation.field(), violation.rejectedValue(),
+                        false, new String[]{violation.constraint()}, null, violation.message()));
+            } else {
+                errors.rejectValue(violation.field(), violation.constraint(), violation.message());
+            }
+        }
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors, Object... validationHints) {
+        delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.cardapp.warmup;
+
+import com.example.cardapp.codec.CardBinaryHttpMessageConverter;
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.model.CardProductType;
+import com.example.cardapp.model.Restrictions;
+import com.example.cardapp.security.AuthContext;
+import com.example.cardapp.security.AuthUser;
+import com.example.cardapp.security.WarmupTraffic;
+import com.example.cardapp.service.CardService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends synthetic traffic through the running application before it reports ready, so the hot paths
+ * (token validation, every createCard rule, listing serialization, error responses) are class-loaded and
+ * JIT-compiled before real clients arrive.
+ * <p>
+ * Requests go over HTTP to the embedded server, so the interceptor, message converters and controllers are
+ * exercised exactly as in production. Only requests that are rejected are sent to the create endpoint;
+ * the valid-request path is run in-process through CardService.validateCreation, so no synthetic card is stored.
+ * Every request carries the WarmupTraffic key, so the warm-up leaves no audit records and no sessions for other
+ * nodes, and its failed logins, which use a user id that does not exist, are not counted by the LoginThrottle.
+ * <p>
+ * Traffic is sent in batches. The warm-up ends once the median latency of a batch has stayed within the
+ * configured tolerance of the previous batch for several batches, or when the batch or time limit is reached.
+ * Spring Boot only reports ReadinessState.ACCEPTING_TRAFFIC after all ApplicationRunners have completed,
+ * so readiness is held until then.
+ * <p>
+ * The runner is always registered and checks cards.warmup.enabled when it runs: the AOT-processed startup path fixes
+ * the set of beans at build time, so a condition on the bean would ignore the property at run time.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /** User id of the failed logins, so they are not recorded against a real user. */
+    private static final String UNKNOWN_USER_ID = "warmup_unknown_user";
+
+    private final WebServerApplicationContext applicationContext;
+    private final CardService cardService;
+    private final WarmupTraffic warmupTraffic;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final List<WarmupScenario> scenarios;
+    private final int batchRequests;
+    private final int minBatches;
+    private final int maxBatches;
+    private final int stableBatches;
+    private final double tolerance;
+    private final Duration maxDuration;
+
+    private final String staticPrepaidUserToken;
+    private final String staticLimitedUserToken;
+    private final String prepaidUserId;
+    private final String prepaidPassword;
+    private final String limitedUserId;
+    private final String limitedPassword;
+
+    @Autowired
+    public WarmupRunner(WebServerApplicationContext applicationContext,
+                        CardService cardService,
+                        WarmupTraffic warmupTraffic,
+                        ObjectMapper objectMapper,
+                        @Value("${cards.warmup.enabled:true}") boolean enabled,
+                        @Value("${cards.warmup.scenarios:auth,create,listing,errors}") List<WarmupScenario> scenarios,
+                        @Value("${cards.warmup.batch-requests:200}") int batchRequests,
+                        @Value("${cards.warmup.min-batches:3}") int minBatches,
+                        @Value("${cards.warmup.max-batches:50}") int maxBatches,
+                        @Value("${cards.warmup.stable-batches:3}") int stableBatches,
+                        @Value("${cards.warmup.tolerance:0.1}") double tolerance,
+                        @Value("${cards.warmup.max-duration:30s}") Duration maxDuration,
+                        @Value("${auth.token.static.prepaid-user}") String staticPrepaidUserToken,
+                        @Value("${auth.token.static.limited-user}") String staticLimitedUserToken,
+                        @Value("${auth.credentials.prepaid.userId}") String prepaidUserId,
+                        @Value("${auth.credentials.prepaid.password}") String prepaidPassword,
+                        @Value("${auth.credentials.limited.userId}") String limitedUserId,
+                        @Value("${auth.credentials.limited.password}") String limitedPassword) {
+        this.applicationContext = applicationContext;
+        this.cardService = cardService;
+        this.warmupTraffic = warmupTraffic;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.scenarios = scenarios;
+        this.batchRequests = batchRequests;
+        this.minBatches = minBatches;
+        this.maxBatches = maxBatches;
+        this.stableBatches = stableBatches;
+        this.tolerance = tolerance;
+        this.maxDuration = maxDuration;
+        this.staticPrepaidUserToken = staticPrepaidUserToken;
+        this.staticLimitedUserToken = staticLimitedUserToken;
+        this.prepaidUserId = prepaidUserId;
+        this.prepaidPassword = prepaidPassword;
+        this.limitedUserId = limitedUserId;
+        this.limitedPassword = limitedPassword;
+    }
+
+    /**
+     * Runs the warm-up. Failures are logged and end the warm-up early; they never prevent startup.
+     *
+     * @param args The application arguments (unused).
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || scenarios.isEmpty()) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+
+        long start = System.nanoTime();
+        String baseUrl = "http://localhost:" + applicationContext.getWebServer().getPort();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        String key = warmupTraffic.start();
+        try {
+            List<HttpRequest> requests = new ArrayList<>();
+            List<Runnable> inProcess = new ArrayList<>();
+            for (WarmupScenario scenario : scenarios) {
+                addScenario(scenario, baseUrl, client, key, requests, inProcess);
+            }
+            requests.replaceAll(request -> marked(request, key));
+
+            int batch = 0;
+            int stable = 0;
+            long previousMedian = -1;
+            boolean stabilized = false;
+            long[] latencies = new long[batchRequests];
+            while (batch < maxBatches && System.nanoTime() - start < maxDuration.toNanos()) {
+                for (int i = 0; i < batchRequests; i++) {
+                    long requestStart = System.nanoTime();
+                    client.send(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding());
+                    latencies[i] = System.nanoTime() - requestStart;
+                    if (!inProcess.isEmpty()) {
+                        inProcess.get(i % inProcess.size()).run();
+                    }
+                }
+                batch++;
+
+                Arrays.sort(latencies);
+                long median = latencies[latencies.length / 2];
+                if (previousMedian > 0 && Math.abs(median - previousMedian) <= tolerance * previousMedian) {
+                    stable++;
+                } else {
+                    stable = 0;
+                }
+                previousMedian = median;
+                if (batch >= minBatches && stable >= stableBatches) {
+                    stabilized = true;
+                    break;
+                }
+            }
+
+            log.info("Warm-up {} after {} batches of {} requests in {} ms, median latency {} µs",
+                    stabilized ? "stabilized" : "stopped at its limit", batch, batchRequests,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), TimeUnit.NANOSECONDS.toMicros(previousMedian));
+        } catch (IOException ex) {
+            log.warn("Warm-up aborted: {}", ex.toString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Warm-up interrupted");
+        } finally {
+            warmupTraffic.finish();
+        }
+    }
+
+    private void addScenario(WarmupScenario scenario, String baseUrl, HttpClient client, String key,
+                             List<HttpRequest> requests, List<Runnable> inProcess) throws IOException, InterruptedException {
+        switch (scenario) {
+            case AUTH -> {
+                requests.add(json(baseUrl + "/api/auth/login", login(prepaidUserId, prepaidPassword)));
+                requests.add(json(baseUrl + "/api/auth/login", login(limitedUserId, limitedPassword)));
+                requests.add(json(baseUrl + "/api/auth/login", login(UNKNOWN_USER_ID, "not-the-password")));
+                String prepaidToken = fetchToken(client, baseUrl, key, prepaidUserId, prepaidPassword);
+                String limitedToken = fetchToken(client, baseUrl, key, limitedUserId, limitedPassword);
+                requests.add(get(baseUrl + "/api/cards?cardProduct=PREPAID", prepaidToken).build());
+                requests.add(get(baseUrl + "/api/cards?cardProduct=LIMITED_USE", limitedToken).build());
+            }
+            case CREATE -> {
+                LocalDate tomorrow = LocalDate.now().plusDays(1);
+                LocalDate nextWeek = LocalDate.now().plusDays(7);
+                String createUrl = baseUrl + "/api/cards/create";
+                requests.add(create(createUrl, staticPrepaidUserToken, createBody(tomorrow, "PREPAID", 50, false, null)));
+                requests.add(create(createUrl, staticLimitedUserToken, createBody(tomorrow, "LIMITED_USE", 50, false, null)));
+                requests.add(create(createUrl, staticPrepaidUserToken, createBody(tomorrow, "PREPAID", 50, true, nextWeek)));
+                requests.add(create(createUrl, staticLimitedUserToken, createBody(tomorrow, "LIMITED_USE", 50, false, LocalDate.now().minusDays(1))));
+                requests.add(create(createUrl, staticLimitedUserToken, createBody(tomorrow, "LIMITED_USE", 50, false, LocalDate.now().plusDays(40))));
+                requests.add(create(createUrl, staticPrepaidUserToken, createBody(tomorrow, "PREPAID", 52, true, null)));
+                requests.add(create(createUrl, staticLimitedUserToken, createBody(tomorrow, "PREPAID", 50, true, null)));
+                requests.add(create(createUrl, staticPrepaidUserToken, createBody(tomorrow, "LIMITED_USE", 50, false, nextWeek)));
+                // Bean validation failure (past activation date)
+                requests.add(create(createUrl, staticPrepaidUserToken, createBody(LocalDate.now().minusDays(1), "PREPAID", 50, true, null)));
+
+                CardCreationRequest validPrepaid = new CardCreationRequest("Warm-up Prepaid", "Synthetic warm-up request",
+                        tomorrow, CardProductType.PREPAID, 50.0, true, null);
+                CardCreationRequest validLimited = new CardCreationRequest("Warm-up Limited", "Synthetic warm-up request",
+                        tomorrow, CardProductType.LIMITED_USE, 50.0, false, new Restrictions(nextWeek, 5, 10.0));
+                AuthUser prepaidUser = new AuthUser("warmup_prepaid_user", AuthUser.Role.PREPAID_ONLY);
+                AuthUser limitedUser = new AuthUser("warmup_limited_user", AuthUser.Role.LIMITED_USE_ONLY);
+                inProcess.add(() -> validateAs(prepaidUser, validPrepaid));
+                inProcess.add(() -> validateAs(limitedUser, validLimited));
+            }
+            case LISTING -> {
+                String url = baseUrl + "/api/cards?cardProduct=";
+                requests.add(get(url + "PREPAID", staticPrepaidUserToken).build());
+                requests.add(get(url + "LIMITED_USE", staticLimitedUserToken).build());
+                requests.add(get(url + "PREPAID", staticPrepaidUserToken)
+                        .header("Accept", CardBinaryHttpMessageConverter.CARD_BINARY_VALUE).build());
+                requests.add(get(url + "LIMITED_USE", staticLimitedUserToken)
+                        .header("Accept-Encoding", "gzip").build());
+                requests.add(get(url + "PREPAID", staticPrepaidUserToken)
+                        .header("If-None-Match", "*").build());
+            }
+            case ERRORS -> {
+                requests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/cards?cardProduct=PREPAID")).GET().build());
+                requests.add(get(baseUrl + "/api/cards?cardProduct=PREPAID", "invalid-token").build());
+                requests.add(get(baseUrl + "/api/cards?cardProduct=UNKNOWN", staticPrepaidUserToken).build());
+                requests.add(get(baseUrl + "/api/cards?cardProduct=LIMITED_USE", staticPrepaidUserToken).build());
+                requests.add(get(baseUrl + "/api/cards?cardProduct=PREPAID", staticPrepaidUserToken)
+                        .header("Accept", "text/csv").build());
+                requests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/cards/0000%200000%200000%200000/swipe"))
+                        .header("Authorization", "Bearer " + staticPrepaidUserToken)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1.0}"))
+                        .build());
+            }
+        }
+    }
+
+    private void validateAs(AuthUser user, CardCreationRequest request) {
+        AuthContext.setCurrentUser(user);
+        try {
+            cardService.validateCreation(request);
+        } catch (ResponseStatusException ex) {
+            // Only reachable if a rule changes; the warm-up keeps going either way
+        } finally {
+            AuthContext.clear();
+        }
+    }
+
+    private String fetchToken(HttpClient client, String baseUrl, String key, String userId, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(marked(json(baseUrl + "/api/auth/login", login(userId, password)), key),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode token = objectMapper.readTree(response.body()).get("token");
+        if (response.statusCode() != 200 || token == null) {
+            throw new IOException("Warm-up login failed with status " + response.statusCode());
+        }
+        return token.asText();
+    }
+
+    /**
+     * Copies a request with the WarmupTraffic key added, so the application recognizes it as warm-up traffic.
+     */
+    private static HttpRequest marked(HttpRequest request, String key) {
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .header(WarmupTraffic.HEADER, key)
+                .build();
+    }
+
+    private static HttpRequest.Builder get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET();
+    }
+
+    private static HttpRequest json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest create(String url, String token, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String login(String userId, String password) {
+        return "{\"userId\":\"" + userId + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private static String createBody(LocalDate activationDate, String product, int loadAmount, boolean protectionRequired, LocalDate expiryDate) {
+        String restrictions = expiryDate == null ? "null"
+                : "{\"expiryDate\":\"" + expiryDate + "\",\"maxSwipes\":5,\"perTransactionLimit\":10.0}";
+        return "{\"cardTitle\":\"Warm-up Card\",\"cardDescription\":\"Synthetic warm-up request\",\"activationDate\":\"" + activationDate
+                + "\",\"cardProduct\":\"" + product + "\",\"loadAmount\":" + loadAmount + ",\"protectionRequired\":" + protectionRequired
+                + ",\"restrictions\":" + restrictions + "}";
+    }
+}
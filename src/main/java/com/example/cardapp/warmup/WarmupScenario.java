@@ -0,0 +1,24 @@
+package com.example.cardapp.warmup;
+
+/**
+ * The groups of synthetic traffic the warm-up can send, selected with cards.warmup.scenarios.
+ */
+public enum WarmupScenario {
+    /**
+     * Successful and failed logins, and listings authenticated with freshly generated tokens.
+     */
+    AUTH,
+    /**
+     * Card creation requests that each violate one business rule or permission check,
+     * plus in-process validation of valid requests (nothing is stored).
+     */
+    CREATE,
+    /**
+     * Card listings as JSON, card binary, gzip and conditional requests.
+     */
+    LISTING,
+    /**
+     * Error responses: missing or invalid tokens, invalid parameters, hidden products, unknown cards.
+     */
+    ERRORS
+}
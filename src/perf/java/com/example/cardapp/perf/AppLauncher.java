@@ -0,0 +1,55 @@
+package com.example.cardapp.perf;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application in a child JVM for the perf tools.
+ */
+final class AppLauncher {
+
+    private AppLauncher() {
+    }
+
+    /**
+     * Launches the application with the same java executable as the current JVM.
+     *
+     * @param javaArgs JVM options followed by the main class or -jar and the jar file.
+     * @param port The port to serve on, appended as --server.port.
+     * @param extraAppArgs Further application arguments.
+     * @return The started process; its output is discarded.
+     */
+    static Process start(List<String> javaArgs, int port, String... extraAppArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(javaArgs);
+        command.add("--server.port=" + port);
+        command.addAll(List.of(extraAppArgs));
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    /**
+     * Stops a launched application, forcibly if it does not exit within ten seconds.
+     */
+    static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * @return A port that was free a moment ago.
+     */
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.cardapp.perf;
+
+import com.example.cardapp.service.CoarseClock;
+import com.example.cardapp.service.TokenService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator replaying a weighted request mix (see LoadMix) against the application.
+ * <p>
+ * Requests are started on a fixed schedule at the configured rate regardless of how fast responses come back,
+ * and every latency is measured from the request's intended start time, not from when it was actually sent.
+ * A stalled server therefore shows up in the percentiles instead of silently lowering the offered load
+ * (coordinated omission). Service time, measured from the actual send, is reported alongside for comparison.
+ * <p>
+ * Bearer tokens for the prepaid and limited users are generated with TokenService for the current hour, from
+ * the credentials in application.properties. The run fails (exit code 1) if the overall p99 regresses by more
+ * than the allowed fraction against a baseline file, or if too many responses have an unexpected status.
+ * Without a baseline file, or with --update-baseline, the run's results become the new baseline.
+ * <p>
+ * Usage: {@code LoadGenerator --mix <file> [--rate 200] [--duration 30s] [--warmup 10s] [--seed 42]
+ * [--baseline <file>] [--update-baseline] [--max-p99-regression 0.2] [--max-error-rate 0.01]
+ * [--report <file>] (--url <base url> | --launch <java args...>)}. {@code --launch} must come last.
+ * Usually run through {@code ./gradlew loadTest}.
+ */
+public final class LoadGenerator {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(180);
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path mixFile = null;
+        double rate = 200;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        long seed = 42;
+        Path baselineFile = null;
+        boolean updateBaseline = false;
+        double maxP99Regression = 0.2;
+        double maxErrorRate = 0.01;
+        Path reportFile = null;
+        String url = null;
+        List<String> launchArgs = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--mix" -> mixFile = Path.of(args[++i]);
+                case "--rate" -> rate = Double.parseDouble(args[++i]);
+                case "--duration" -> duration = parseDuration(args[++i]);
+                case "--warmup" -> warmup = parseDuration(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--baseline" -> baselineFile = Path.of(args[++i]);
+                case "--update-baseline" -> updateBaseline = true;
+                case "--max-p99-regression" -> maxP99Regression = Double.parseDouble(args[++i]);
+                case "--max-error-rate" -> maxErrorRate = Double.parseDouble(args[++i]);
+                case "--report" -> reportFile = Path.of(args[++i]);
+                case "--url" -> url = args[++i];
+                case "--launch" -> {
+                    launchArgs = List.of(args).subList(i + 1, args.length);
+                    i = args.length;
+                }
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (mixFile == null || (url == null) == (launchArgs == null)) {
+            throw new IllegalArgumentException("Usage: LoadGenerator --mix <file> [options] (--url <base url> | --launch <java args...>)");
+        }
+
+        Process app = null;
+        if (launchArgs != null) {
+            int port = AppLauncher.freePort();
+            app = AppLauncher.start(launchArgs, port);
+            url = "http://localhost:" + port;
+        }
+        int exitCode;
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(2))
+                    .build();
+            awaitReady(client, url, app);
+
+            Properties appProperties = new Properties();
+            try (InputStream in = LoadGenerator.class.getResourceAsStream("/application.properties")) {
+                appProperties.load(in);
+            }
+            Map<String, String[]> credentials = Map.of(
+                    "prepaid", new String[]{appProperties.getProperty("auth.credentials.prepaid.userId"), appProperties.getProperty("auth.credentials.prepaid.password")},
+                    "limited", new String[]{appProperties.getProperty("auth.credentials.limited.userId"), appProperties.getProperty("auth.credentials.limited.password")});
+            TokenService tokenService = new TokenService(credentials.get("prepaid")[0], credentials.get("prepaid")[1],
+                    credentials.get("limited")[0], credentials.get("limited")[1], new CoarseClock(Clock.systemDefaultZone(), Duration.ZERO));
+            Map<String, String> tokens = new LinkedHashMap<>();
+            credentials.forEach((user, credential) -> tokens.put(user, tokenService.generateToken(credential[0], credential[1])));
+
+            LoadMix mix = LoadMix.read(mixFile, url, tokens, credentials);
+            Results results = run(client, mix, rate, warmup, duration, new Random(seed));
+            results.print(rate, duration);
+            if (reportFile != null) {
+                store(results.toProperties(), reportFile);
+            }
+            exitCode = check(results, baselineFile, updateBaseline, maxP99Regression, maxErrorRate);
+        } finally {
+            if (app != null) {
+                AppLauncher.stop(app);
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Sends the mix on an open-loop schedule. Requests during the warm-up are sent but not recorded.
+     */
+    private static Results run(HttpClient client, LoadMix mix, double rate, Duration warmup, Duration duration, Random random) {
+        Results results = new Results(mix);
+        AtomicLong outstanding = new AtomicLong();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long warmupNanos = warmup.toNanos();
+        long totalNanos = warmupNanos + duration.toNanos();
+        long start = System.nanoTime();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart - start >= totalNanos) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadMix.Entry entry = mix.next(random);
+            boolean measured = intendedStart - start >= warmupNanos;
+            long sent = System.nanoTime();
+            outstanding.incrementAndGet();
+            client.sendAsync(entry.request(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long end = System.nanoTime();
+                if (measured) {
+                    boolean ok = failure == null && response.statusCode() == entry.expectedStatus();
+                    results.record(entry, end - intendedStart, end - sent, ok);
+                }
+                outstanding.decrementAndGet();
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        results.unfinished = outstanding.get();
+        return results;
+    }
+
+    private static int check(Results results, Path baselineFile, boolean updateBaseline, double maxP99Regression, double maxErrorRate) throws IOException {
+        int exitCode = 0;
+        double errorRate = results.errorRate();
+        if (errorRate > maxErrorRate) {
+            System.out.printf("FAIL: %.2f%% of responses had an unexpected status or failed (allowed %.2f%%)%n", errorRate * 100, maxErrorRate * 100);
+            exitCode = 1;
+        }
+        if (baselineFile == null) {
+            return exitCode;
+        }
+        if (updateBaseline || !Files.exists(baselineFile)) {
+            store(results.toProperties(), baselineFile);
+            System.out.println("Baseline written to " + baselineFile);
+            return exitCode;
+        }
+
+        Properties baseline = new Properties();
+        try (InputStream in = Files.newInputStream(baselineFile)) {
+            baseline.load(in);
+        }
+        long baselineP99 = Long.parseLong(baseline.getProperty("overall.p99.micros"));
+        long p99 = results.overall.getValueAtPercentile(99.0);
+        double change = baselineP99 == 0 ? 0 : (double) (p99 - baselineP99) / baselineP99;
+        System.out.printf("p99 %d us vs baseline %d us (%+.1f%%, allowed +%.1f%%)%n", p99, baselineP99, change * 100, maxP99Regression * 100);
+        if (change > maxP99Regression) {
+            System.out.println("FAIL: p99 regression beyond threshold");
+            exitCode = 1;
+        }
+        return exitCode;
+    }
+
+    private static void awaitReady(HttpClient client, String url, Process app) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(url + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (app != null && !app.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + app.exitValue());
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Application at " + url + " did not become ready within " + READY_TIMEOUT);
+    }
+
+    private static void store(Properties properties, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, "Card app load test results, latencies in microseconds");
+        }
+    }
+
+    private static Duration parseDuration(String text) {
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    /**
+     * Latency histograms in microseconds, overall and per mix entry.
+     */
+    private static final class Results {
+        private final Histogram overall = new ConcurrentHistogram(3);
+        private final Histogram serviceTime = new ConcurrentHistogram(3);
+        private final Map<String, Histogram> byEntry = new LinkedHashMap<>();
+        private final Map<String, LongAdder> errorsByEntry = new LinkedHashMap<>();
+        private long unfinished;
+
+        private Results(LoadMix mix) {
+            for (LoadMix.Entry entry : mix.entries()) {
+                byEntry.put(entry.name(), new ConcurrentHistogram(3));
+                errorsByEntry.put(entry.name(), new LongAdder());
+            }
+        }
+
+        private void record(LoadMix.Entry entry, long responseNanos, long serviceNanos, boolean ok) {
+            long responseMicros = TimeUnit.NANOSECONDS.toMicros(responseNanos);
+            overall.recordValue(responseMicros);
+            serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos));
+            byEntry.get(entry.name()).recordValue(responseMicros);
+            if (!ok) {
+                errorsByEntry.get(entry.name()).increment();
+            }
+        }
+
+        private double errorRate() {
+            long errors = unfinished;
+            for (LongAdder adder : errorsByEntry.values()) {
+                errors += adder.sum();
+            }
+            long total = overall.getTotalCount() + unfinished;
+            return total == 0 ? 0 : (double) errors / total;
+        }
+
+        private void print(double rate, Duration duration) {
+            System.out.printf("Open-loop load at %.0f req/s for %s, response times from intended start (us)%n", rate, duration);
+            System.out.printf("%-22s %8s %7s %9s %9s %9s %9s %9s%n", "request", "count", "errors", "p50", "p90", "p99", "p99.9", "max");
+            for (Map.Entry<String, Histogram> entry : byEntry.entrySet()) {
+                printRow(entry.getKey(), entry.getValue(), errorsByEntry.get(entry.getKey()).sum());
+            }
+            long errors = 0;
+            for (LongAdder adder : errorsByEntry.values()) {
+                errors += adder.sum();
+            }
+            printRow("overall", overall, errors);
+            printRow("service time", serviceTime, errors);
+            if (unfinished > 0) {
+                System.out.println(unfinished + " requests did not complete");
+            }
+        }
+
+        private static void printRow(String name, Histogram histogram, long errors) {
+            System.out.printf("%-22s %8d %7d %9d %9d %9d %9d %9d%n", name, histogram.getTotalCount(), errors,
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+        }
+
+        private Properties toProperties() {
+            Properties properties = new Properties();
+            List<Map.Entry<String, Histogram>> all = new ArrayList<>(byEntry.entrySet());
+            all.add(Map.entry("overall", overall));
+            all.add(Map.entry("service-time", serviceTime));
+            for (Map.Entry<String, Histogram> entry : all) {
+                Histogram histogram = entry.getValue();
+                properties.setProperty(entry.getKey() + ".count", Long.toString(histogram.getTotalCount()));
+                properties.setProperty(entry.getKey() + ".p50.micros", Long.toString(histogram.getValueAtPercentile(50)));
+                properties.setProperty(entry.getKey() + ".p99.micros", Long.toString(histogram.getValueAtPercentile(99)));
+                properties.setProperty(entry.getKey() + ".p999.micros", Long.toString(histogram.getValueAtPercentile(99.9)));
+                properties.setProperty(entry.getKey() + ".max.micros", Long.toString(histogram.getMaxValue()));
+            }
+            return properties;
+        }
+    }
+}
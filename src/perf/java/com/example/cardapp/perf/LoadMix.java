@@ -0,0 +1,137 @@
+package com.example.cardapp.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A weighted request mix read from a JSON Lines file, one request template per line:
+ * <pre>
+ * {"name":"list-prepaid","weight":40,"method":"GET","path":"/api/cards?cardProduct=PREPAID","user":"prepaid"}
+ * {"name":"create-prepaid","weight":10,"method":"POST","path":"/api/cards/create","user":"prepaid","body":{...},"expect":200}
+ * </pre>
+ * {@code user} selects the bearer token (omit it for unauthenticated requests), {@code expect} is the expected
+ * status (default 200). Body strings may contain placeholders: {@code ${date:+N}} (today plus N days),
+ * {@code ${userId:<user>}} and {@code ${password:<user>}}. Blank lines and lines starting with # are ignored.
+ */
+final class LoadMix {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(date|userId|password):([^}]*)}");
+
+    private final List<Entry> entries;
+    private final int[] cumulativeWeights;
+
+    private LoadMix(List<Entry> entries) {
+        this.entries = entries;
+        this.cumulativeWeights = new int[entries.size()];
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            total += entries.get(i).weight;
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Reads a mix file and builds its requests.
+     *
+     * @param file The JSON Lines file.
+     * @param baseUrl The application's base URL, e.g. http://localhost:8080.
+     * @param tokens Bearer token per user name.
+     * @param credentials userId and password per user name.
+     * @return The mix.
+     */
+    static LoadMix read(Path file, String baseUrl, Map<String, String> tokens, Map<String, String[]> credentials) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            JsonNode node = mapper.readTree(line);
+            String name = node.path("name").asText();
+            String method = node.path("method").asText("GET");
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + node.path("path").asText()))
+                    .timeout(Duration.ofSeconds(10));
+            if (node.hasNonNull("user")) {
+                String token = tokens.get(node.get("user").asText());
+                if (token == null) {
+                    throw new IllegalArgumentException("Unknown user in mix entry '" + name + "': " + node.get("user").asText());
+                }
+                request.header("Authorization", "Bearer " + token);
+            }
+            if (node.hasNonNull("body")) {
+                String body = substitute(mapper.writeValueAsString(node.get("body")), credentials);
+                request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            entries.add(new Entry(name, node.path("weight").asInt(1), node.path("expect").asInt(200), request.build()));
+        }
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Mix file " + file + " has no entries");
+        }
+        return new LoadMix(entries);
+    }
+
+    private static String substitute(String body, Map<String, String[]> credentials) {
+        Matcher matcher = PLACEHOLDER.matcher(body);
+        Function<String, String[]> user = name -> {
+            String[] credential = credentials.get(name);
+            if (credential == null) {
+                throw new IllegalArgumentException("Unknown user in placeholder: " + name);
+            }
+            return credential;
+        };
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = switch (matcher.group(1)) {
+                case "date" -> LocalDate.now().plusDays(Long.parseLong(matcher.group(2).replace("+", ""))).toString();
+                case "userId" -> user.apply(matcher.group(2))[0];
+                default -> user.apply(matcher.group(2))[1];
+            };
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * @return The entries in file order.
+     */
+    List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Picks an entry with probability proportional to its weight.
+     */
+    Entry next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return entries.get(i);
+            }
+        }
+        return entries.get(entries.size() - 1);
+    }
+
+    /**
+     * One request template of the mix.
+     */
+    record Entry(String name, int weight, int expectedStatus, HttpRequest request) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.cardapp.perf;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to first request: how long it takes from launching a JVM until
+ * GET /api/cards returns 200 OK. Each startup variant is launched several times and the
+ * minimum, median and maximum are reported.
+ * <p>
+ * Usage: {@code StartupBenchmark --runs 5 --token <bearer token> --variant <name> <java args...> [--variant ...]}.
+ * The java args of a variant end with the main class or jar; {@code --server.port} is appended.
+ * Usually run through {@code ./gradlew startupBenchmark}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 5;
+        String token = null;
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        List<String> current = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[++i]);
+                case "--token" -> token = args[++i];
+                case "--variant" -> {
+                    current = new ArrayList<>();
+                    variants.put(args[++i], current);
+                }
+                default -> {
+                    if (current == null) {
+                        throw new IllegalArgumentException("Unexpected argument before --variant: " + args[i]);
+                    }
+                    current.add(args[i]);
+                }
+            }
+        }
+        if (token == null || variants.isEmpty()) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark --runs <n> --token <token> --variant <name> <java args...>");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+        System.out.printf("%-10s %10s %10s %10s%n", "variant", "min ms", "median ms", "max ms");
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRequest(variant.getValue(), token, client);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-10s %10d %10d %10d%n", variant.getKey(), millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    /**
+     * Launches the application and polls the listing endpoint until it succeeds.
+     *
+     * @return Milliseconds from process launch to the first 200 OK.
+     */
+    private static long timeToFirstRequest(List<String> javaArgs, String token, HttpClient client) throws Exception {
+        int port = AppLauncher.freePort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/cards?cardProduct=PREPAID"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = AppLauncher.start(javaArgs, port);
+        try {
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue() + ": " + javaArgs);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException ex) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Application did not serve GET /api/cards within " + STARTUP_TIMEOUT + ": " + javaArgs);
+        } finally {
+            AppLauncher.stop(process);
+        }
+    }
+}
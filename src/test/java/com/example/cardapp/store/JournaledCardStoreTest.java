@@ -0,0 +1,106 @@
+package com.example.cardapp.store;
+
+import com.example.cardapp.codec.CardBinaryCodec;
+import com.example.cardapp.dto.CardResponse;
+import com.example.cardapp.model.CardProductType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recovers JournaledCardStore from a journal left by a crashed process, i.e. a store that was never closed, whose
+ * segments are small enough that every few writes roll a new one.
+ */
+class JournaledCardStoreTest {
+
+    private static final int CARDS = 60;
+    private static final long SEGMENT_SIZE = 600;
+
+    private final CardBinaryCodec codec = new CardBinaryCodec();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void corruptSegmentLosesOnlyItsTailAndIsCheckpointedOver() throws IOException {
+        JournaledCardStore crashed = open();
+        for (int i = 0; i < CARDS; i++) {
+            crashed.save(card(i, 1.0));
+        }
+        assertTrue(crashed.replace(card(5, 1.0), card(5, 2.0)), () -> "replace of card 5");
+
+        List<Path> segments = files(".log");
+        assertTrue(segments.size() >= 3, () -> "expected at least three segments, found " + segments);
+        // Card i is journaled as record i + 1, so the damaged segment holds the cards from its first sequence - 1
+        long damagedFirst = sequenceOf(segments.get(1)) - 1;
+        long damagedEnd = sequenceOf(segments.get(2)) - 1;
+        byte[] bytes = Files.readAllBytes(segments.get(1));
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(segments.get(1), bytes);
+
+        JournaledCardStore restored = open();
+        int lost = 0;
+        for (int i = 0; i < CARDS; i++) {
+            boolean found = find(restored, i).isPresent();
+            if (i < damagedFirst || i >= damagedEnd) {
+                int card = i;
+                assertTrue(found, () -> "card " + card + " outside the damaged segment");
+            } else if (!found) {
+                lost++;
+            } else {
+                int card = i;
+                assertEquals(0, lost, () -> "card " + card + " restored after a lost card of the same segment");
+            }
+        }
+        int lostCards = lost;
+        assertTrue(lostCards > 0, () -> "no card of the damaged segment was lost");
+        assertEquals(CARDS - lostCards, restored.count(), () -> "restored cards");
+        assertEquals(2.0, find(restored, 5).map(CardResponse::getCurrentLoad).orElse(null), () -> "card 5 current load");
+        assertEquals(1, files(".cards").size(), () -> "checkpoints written over the gap");
+
+        // The gap is covered by the checkpoint, so the journal recovers again after a second crash
+        restored.save(card(CARDS, 1.0));
+        try (JournaledCardStore reopened = open()) {
+            assertEquals(CARDS - lostCards + 1, reopened.count(), () -> "cards after the second recovery");
+            assertTrue(find(reopened, CARDS).isPresent(), () -> "card saved after the first recovery");
+        }
+    }
+
+    private JournaledCardStore open() throws IOException {
+        return new JournaledCardStore(new PartitionedCardStore(), directory, codec, SEGMENT_SIZE, true, 1_000_000);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        return Long.parseLong(segment.getFileName().toString().replaceAll("\\D", ""));
+    }
+
+    private static Optional<CardResponse> find(CardStore store, int i) {
+        return store.findByCardNumber(CardProductType.PREPAID, cardNumber(i));
+    }
+
+    private static String cardNumber(int i) {
+        return String.format("0000 0000 %04d 0000", i);
+    }
+
+    private static CardResponse card(int i, double currentLoad) {
+        return new CardResponse(cardNumber(i), "Card " + i, "Journal recovery test card", LocalDate.of(2024, 1, 1),
+                CardProductType.PREPAID, 50.0, true, null, "Test", LocalDateTime.of(2024, 1, 1, 9, 0), currentLoad, null);
+    }
+}
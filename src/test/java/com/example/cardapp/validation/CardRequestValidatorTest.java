@@ -0,0 +1,108 @@
+package com.example.cardapp.validation;
+
+import com.example.cardapp.dto.AmountRequest;
+import com.example.cardapp.dto.CardCreationRequest;
+import com.example.cardapp.dto.LoginRequest;
+import com.example.cardapp.model.CardProductType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that CardRequestValidator reports the same violations as Hibernate Validator, per property and in
+ * property order, for every combination of valid, missing and out-of-range values of the constrained fields.
+ * The grid is the one CardRequestValidatorBenchmark checks before measuring.
+ */
+class CardRequestValidatorTest {
+
+    private static final String[] TITLES = {null, "", "  ", " \t\n", "ab", "abc", "Travel Card", "x".repeat(100), "x".repeat(101)};
+    private static final String[] DESCRIPTIONS = {null, "", "          ", "too short", "Long enough description.", "d".repeat(500), "d".repeat(501)};
+    private static final LocalDate[] ACTIVATION_DATES = {null, LocalDate.now().plusDays(1)};
+    private static final CardProductType[] PRODUCTS = {null, CardProductType.PREPAID, CardProductType.LIMITED_USE};
+    private static final Double[] AMOUNTS = {null, -1.0, -0.0, 0.0, Double.MIN_VALUE, 50.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    private static final Boolean[] PROTECTION = {null, true};
+    private static final String[] CREDENTIALS = {null, "", " ", "prepaiduser"};
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator hibernate;
+
+    private final CardRequestValidator fastPath = new CardRequestValidator();
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        hibernate = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void cardCreationRequestsMatchBeanValidation() {
+        for (String title : TITLES) {
+            for (String description : DESCRIPTIONS) {
+                for (LocalDate activationDate : ACTIVATION_DATES) {
+                    for (CardProductType product : PRODUCTS) {
+                        for (Double amount : AMOUNTS) {
+                            for (Boolean protection : PROTECTION) {
+                                assertSameViolations(new CardCreationRequest(title, description, activationDate, product, amount, protection, null));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void loginRequestsMatchBeanValidation() {
+        for (String userId : CREDENTIALS) {
+            for (String password : CREDENTIALS) {
+                assertSameViolations(new LoginRequest(userId, password));
+            }
+        }
+    }
+
+    @Test
+    void amountRequestsMatchBeanValidation() {
+        for (Double amount : AMOUNTS) {
+            assertSameViolations(new AmountRequest(amount));
+        }
+    }
+
+    private <T> void assertSameViolations(T request) {
+        Set<ConstraintViolation<T>> expected = hibernate.validate(request);
+        List<CardRequestValidator.Violation> actual = fastPath.validate(request);
+
+        Map<String, List<String>> expectedByField = new TreeMap<>();
+        for (ConstraintViolation<T> violation : expected) {
+            expectedByField.computeIfAbsent(violation.getPropertyPath().toString(), field -> new ArrayList<>()).add(violation.getMessage());
+        }
+        Map<String, List<String>> actualByField = new TreeMap<>();
+        String previousField = "";
+        for (CardRequestValidator.Violation violation : actual) {
+            assertTrue(violation.field().compareTo(previousField) >= 0, () -> "Violations not in property order for " + request + ": " + actual);
+            previousField = violation.field();
+            actualByField.computeIfAbsent(violation.field(), field -> new ArrayList<>()).add(violation.message());
+        }
+        expectedByField.values().forEach(messages -> messages.sort(null));
+        actualByField.values().forEach(messages -> messages.sort(null));
+        assertEquals(expectedByField, actualByField, () -> "Validators disagree on " + request);
+    }
+}